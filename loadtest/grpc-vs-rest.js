@@ -0,0 +1,102 @@
+// REST vs gRPC comparison for the internal lookups (k6)
+//
+// Run the same workload once per protocol against one pod:
+//   k6 run -e PROTOCOL=rest -e KEYCLOAK_IDS=kc-1,kc-2,... loadtest/grpc-vs-rest.js
+//   k6 run -e PROTOCOL=grpc -e KEYCLOAK_IDS=kc-1,kc-2,... loadtest/grpc-vs-rest.js
+// KEYCLOAK_IDS should be existing users (see loadtest/query-plans.sql for a seed).
+//
+// Latency: compare the lookup_duration p50/p95 per name tag (single, batch, therapists).
+// Payload: compare data_received / iterations between the two runs; both include the
+// protocol headers, so this is the cost on the wire per iteration, not just the body.
+import http from 'k6/http';
+import grpc from 'k6/net/grpc';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const PROTOCOL = __ENV.PROTOCOL || 'rest';
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const GRPC_TARGET = __ENV.GRPC_TARGET || 'localhost:9090';
+const VUS = parseInt(__ENV.VUS || '50');
+const KEYCLOAK_IDS = (__ENV.KEYCLOAK_IDS || 'unknown-1,unknown-2').split(',');
+const BATCH_SIZE = parseInt(__ENV.BATCH_SIZE || '50');
+
+const lookupDuration = new Trend('lookup_duration', true);
+
+const client = new grpc.Client();
+client.load(['../src/main/proto'], 'user_lookup.proto');
+
+export const options = {
+    scenarios: {
+        lookups: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: '2m',
+        },
+    },
+};
+
+function batch() {
+    const ids = [];
+    for (let i = 0; i < BATCH_SIZE; i++) {
+        ids.push(KEYCLOAK_IDS[Math.floor(Math.random() * KEYCLOAK_IDS.length)]);
+    }
+    return ids;
+}
+
+// There is no single-user REST lookup, so callers use a one-id batch today
+function rest(id, ids) {
+    const single = http.post(`${BASE_URL}/users/batch`,
+        JSON.stringify({ keycloakIds: [id], includeRoles: true }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'single' } });
+    check(single, { 'single 200': (r) => r.status === 200 });
+    lookupDuration.add(single.timings.duration, { name: 'single' });
+
+    const many = http.post(`${BASE_URL}/users/batch`,
+        JSON.stringify({ keycloakIds: ids, includeRoles: true }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'batch' } });
+    check(many, { 'batch 200': (r) => r.status === 200 });
+    lookupDuration.add(many.timings.duration, { name: 'batch' });
+
+    const therapists = http.get(`${BASE_URL}/therapists`, { tags: { name: 'therapists' } });
+    check(therapists, { 'therapists 200': (r) => r.status === 200 });
+    lookupDuration.add(therapists.timings.duration, { name: 'therapists' });
+}
+
+function timed(name, call) {
+    const start = Date.now();
+    const response = call();
+    lookupDuration.add(Date.now() - start, { name: name });
+    return response;
+}
+
+function rpc(id, ids) {
+    if (__ITER === 0) {
+        client.connect(GRPC_TARGET, { plaintext: true });
+    }
+
+    const single = timed('single', () => client.invoke('openleaf.user.v1.UserLookup/GetUser',
+        { keycloak_id: id, include_roles: true }));
+    check(single, { 'single OK': (r) => r.status === grpc.StatusOK || r.status === grpc.StatusNotFound });
+
+    const many = timed('batch', () => client.invoke('openleaf.user.v1.UserLookup/BatchGetUsers',
+        { keycloak_ids: ids, include_roles: true }));
+    check(many, { 'batch OK': (r) => r.status === grpc.StatusOK });
+
+    // Timed until the last message, which matches receiving the full GET /therapists body
+    const start = Date.now();
+    const stream = new grpc.Stream(client, 'openleaf.user.v1.UserLookup/StreamTherapists');
+    stream.on('end', () => lookupDuration.add(Date.now() - start, { name: 'therapists' }));
+    stream.write({});
+    stream.end();
+}
+
+export default function () {
+    const id = KEYCLOAK_IDS[Math.floor(Math.random() * KEYCLOAK_IDS.length)];
+    const ids = batch();
+
+    if (PROTOCOL === 'grpc') {
+        rpc(id, ids);
+    } else {
+        rest(id, ids);
+    }
+}
@@ -0,0 +1,45 @@
+-- Partitioned vs plain users table at scale. Run against two empty databases migrated with and without
+-- classpath:db/partitioned in FLYWAY_LOCATIONS:
+--   psql "$DATABASE_URL" -v rows=10000000 -v role=client_therapist -f loadtest/partitioning-benchmark.sql
+-- and compare the timings, plans and sizes. The per-partition vacuum time shows up in the VACUUM timings.
+
+\timing on
+
+INSERT INTO users (keycloak_id, username, email, first_name, last_name, created_at)
+SELECT gen_random_uuid()::text,
+       'user' || g,
+       'user' || g || '@example.com',
+       'first' || (g % 5000),
+       'last' || (g % 20000),
+       now() - (g % 365) * interval '1 day'
+FROM generate_series(1, :rows) AS g;
+
+-- One in ten users is a therapist
+INSERT INTO user_roles (user_id, role)
+SELECT id, CASE WHEN id % 10 = 0 THEN 'client_therapist' ELSE 'client_user' END
+FROM users;
+
+VACUUM ANALYZE users;
+VACUUM ANALYZE user_roles;
+
+-- Lookup by keycloak id (natural-id load): the partitioned plan should scan a single users_pN
+SELECT keycloak_id AS probe_id FROM users OFFSET (:rows / 2) LIMIT 1 \gset
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users WHERE keycloak_id = :'probe_id' AND deleted_at IS NULL;
+
+-- Role load for one user: a single user_roles_pN
+SELECT id AS probe_user FROM users WHERE keycloak_id = :'probe_id' \gset
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT role FROM user_roles WHERE user_id = :probe_user;
+
+-- Listing, search and statistics
+\ir query-plans.sql
+
+-- Table and index sizes, per partition when partitioned
+SELECT c.relname, pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'public' AND c.relkind IN ('r', 'i')
+  AND (c.relname LIKE 'users%' OR c.relname LIKE 'user_roles%' OR c.relname LIKE 'idx_%')
+ORDER BY pg_relation_size(c.oid) DESC
+LIMIT 40;
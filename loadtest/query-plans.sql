@@ -0,0 +1,40 @@
+-- Plans for the hot read paths, to compare before and after a migration:
+--   psql "$DATABASE_URL" -v role=client_therapist -f loadtest/query-plans.sql
+-- Expect index-only scans on idx_user_roles_role_user_id and idx_users_live_profile for the listing,
+-- and idx_users_live_created_at for the registrations per day.
+
+\set pattern '\'ann%\''
+
+-- Therapist listing (UserRepository.findProfilesByRole)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.keycloak_id, u.username, u.email, u.first_name, u.last_name, u.created_at
+FROM users u JOIN user_roles r ON r.user_id = u.id
+WHERE r.role = :'role' AND u.deleted_at IS NULL
+ORDER BY u.id;
+
+-- Therapist search, first page (UserRepository.searchByRole)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.keycloak_id, u.username, u.email, u.first_name, u.last_name, u.created_at
+FROM users u
+WHERE u.deleted_at IS NULL
+  AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :'role')
+  AND (lower(u.username) LIKE :pattern
+    OR lower(u.email) LIKE :pattern
+    OR lower(u.first_name) LIKE :pattern
+    OR lower(u.last_name) LIKE :pattern)
+ORDER BY u.username
+LIMIT 21;
+
+-- Users per role (UserRepository.countByRole)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.role, count(*)
+FROM users u JOIN user_roles r ON r.user_id = u.id
+WHERE u.deleted_at IS NULL
+GROUP BY r.role;
+
+-- Registrations per day (UserRepository.countRegistrationsByDaySince)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cast(u.created_at AS date), count(*)
+FROM users u
+WHERE u.created_at >= now() - interval '31 days' AND u.deleted_at IS NULL
+GROUP BY cast(u.created_at AS date);
@@ -0,0 +1,44 @@
+// Servlet vs reactive comparison for the user API (k6)
+//
+// Start the service twice, each capped at half a core, e.g.
+//   docker run --cpus=0.5 -m 512m -p 8083:8083 user-service
+//   docker run --cpus=0.5 -m 512m -p 8083:8083 -e SPRING_PROFILES_ACTIVE=reactive user-service
+// and run
+//   k6 run -e BASE_URL=http://localhost:8083 -e VUS=500 loadtest/user-api.js
+//
+// Compare http_reqs/s and p95 latency from k6 with process RSS and
+// jvm_threads_live_threads from /actuator/prometheus; memory per concurrent
+// connection is (RSS at VUS - RSS idle) / VUS.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const VUS = parseInt(__ENV.VUS || '500');
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+};
+
+const terms = ['an', 'jo', 'ma', 'el', 'sa'];
+
+export default function () {
+    const term = terms[Math.floor(Math.random() * terms.length)];
+
+    const search = http.get(`${BASE_URL}/therapists/search?q=${term}&size=20`, { tags: { name: 'search' } });
+    check(search, { 'search 200': (r) => r.status === 200 });
+
+    const batch = http.post(`${BASE_URL}/users/batch`,
+        JSON.stringify({ keycloakIds: ['unknown-1', 'unknown-2'], includeRoles: true }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'batch' } });
+    check(batch, { 'batch 200': (r) => r.status === 200 });
+}
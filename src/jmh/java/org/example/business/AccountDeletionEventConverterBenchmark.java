@@ -0,0 +1,69 @@
+package org.example.business;
+
+import org.example.business.dto.AccountDeletionEvent;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode throughput of account deletion events, JSON against protobuf, through the AMQP converter.
+ * The "bytes" counter sums body sizes, so bytes/us divided by ops/us is the size of one message.
+ * Run with ./gradlew jmh -PjmhIncludes=AccountDeletionEventConverterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountDeletionEventConverterBenchmark {
+
+    @Param({"json", "protobuf"})
+    public String format;
+
+    private AccountDeletionEventConverter converter;
+    private AccountDeletionEvent event;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        converter = new AccountDeletionEventConverter(new Jackson2JsonMessageConverter(), "protobuf".equals(format));
+        event = new AccountDeletionEvent("3f2b9c1e-7d4a-4e8b-9a61-0c5d2e8f4b17",
+                LocalDateTime.of(2024, 1, 15, 10, 0, 0, 123_000_000), "User requested deletion");
+        encoded = converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message encode(Bytes bytes) {
+        Message message = converter.toMessage(event, new MessageProperties());
+        bytes.bytes += message.getBody().length;
+        return message;
+    }
+
+    @Benchmark
+    public Object decode(Bytes bytes) {
+        bytes.bytes += encoded.getBody().length;
+        return converter.fromMessage(encoded);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
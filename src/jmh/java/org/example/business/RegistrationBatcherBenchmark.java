@@ -0,0 +1,138 @@
+package org.example.business;
+
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.business.impl.UserRegisterImpl;
+import org.example.domain.User;
+import org.example.persistance.UserChangeRepository;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent single registrations through RegistrationBatcher, with group commit off ("direct", each call its own
+ * UserRegisterImpl transaction) and on ("batched", the application.yml batch size, delay and writer count).
+ * Postgres runs with fsync and synchronous_commit on, as in the cluster, since the commits are what batching
+ * saves; the pool has the service's 10 connections. RabbitMQ publishing is a no-op.
+ * Run with ./gradlew jmh -PjmhIncludes=RegistrationBatcherBenchmark; Postgres refuses to start as root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(16) // Concurrent POST /register calls, with admission.write.max-concurrent raised to match
+public class RegistrationBatcherBenchmark {
+
+    private static final Set<String> ROLES = Set.of("client_user");
+
+    @Param({"direct", "batched"})
+    public String mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource dataSource;
+    private AnnotationConfigApplicationContext context;
+    private RegistrationBatcher batcher;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder()
+                .setServerConfig("fsync", "on")
+                .setServerConfig("synchronous_commit", "on")
+                .setServerConfig("full_page_writes", "on")
+                .start();
+        dataSource = new HikariDataSource();
+        dataSource.setDataSource(postgres.getPostgresDatabase());
+        dataSource.setMaximumPoolSize(10);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> dataSource);
+        context.register(Registering.class);
+        context.refresh();
+
+        batcher = new RegistrationBatcher(context.getBean(UserRegisterImpl.class), new SimpleMeterRegistry(),
+                "batched".equals(mode), 32, Duration.ofMillis(5), 500, 2, Duration.ofSeconds(10));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        batcher.stop();
+        context.close();
+        dataSource.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public User register() {
+        String id = "kc-" + sequence.incrementAndGet();
+        return batcher.register(id, "user-" + id, id + "@example.com", "First", "Last", ROLES);
+    }
+
+    @Configuration
+    @EnableTransactionManagement(proxyTargetClass = true) // As Spring Boot does; the batcher takes UserRegisterImpl
+    @EnableJpaRepositories(basePackageClasses = UserChangeRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UserChangeRepository.class))
+    @Import({TherapistListingBenchmark.Persistence.class, UserRegisterImpl.class, UserChangePublisher.class,
+            UserStatistics.class})
+    static class Registering {
+
+        @Bean
+        RabbitTemplate rabbitTemplate() {
+            // Never connects: nothing is sent through it
+            return new RabbitTemplate(new CachingConnectionFactory()) {
+                @Override
+                public void convertAndSend(String exchange, String routingKey, Object message) {
+                }
+            };
+        }
+
+        @Bean
+        DependencyGuard rabbitGuard(MeterRegistry meterRegistry) {
+            return new DependencyGuard("rabbitmq", SimpleLimiter.newBuilder().build(),
+                    CircuitBreaker.ofDefaults("rabbitmq"), e -> false, meterRegistry);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.business;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.business.impl.GetAllTherapistsImpl;
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.entity.UserEntity;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Therapist listing against an embedded Postgres migrated by Flyway, with Hibernate configured as in
+ * application.yml: "entities" is the listing as it was before the projections (managed UserEntity instances with
+ * their EAGER roles, in a read-write transaction as under open-in-view), "projections" is GetAllTherapistsImpl.
+ * Compare gc.alloc.rate.norm (bytes per listing) and gc.count / gc.time from the gc profiler.
+ * Run with ./gradlew jmh -PjmhIncludes=TherapistListingBenchmark; Postgres refuses to start as root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms128m", "-Xmx128m"}) // The heap the service gets under its 512Mi limit
+public class TherapistListingBenchmark {
+
+    private static final String ROLE = "client_therapist";
+
+    @Param({"entities", "projections"})
+    public String path;
+
+    // A typical directory and one ten times larger
+    @Param({"500", "5000"})
+    public int therapists;
+
+    private EmbeddedPostgres postgres;
+    private AnnotationConfigApplicationContext context;
+    private UserRepository userRepository;
+    private GetAllTherapists getAllTherapists;
+    private TransactionTemplate readWrite;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("""
+                INSERT INTO users (keycloak_id, username, email, first_name, last_name, created_at)
+                SELECT 'kc-' || i, 'therapist' || i, 'therapist' || i || '@example.com', 'First' || i, 'Last' || i, now()
+                FROM generate_series(1, ?) i
+                """, therapists);
+        jdbc.update("INSERT INTO user_roles (user_id, role) SELECT id, ? FROM users", ROLE);
+        jdbc.update("INSERT INTO user_roles (user_id, role) SELECT id, 'client_user' FROM users");
+        jdbc.execute("ANALYZE");
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> dataSource);
+        context.register(Persistence.class);
+        context.refresh();
+
+        userRepository = context.getBean(UserRepository.class);
+        getAllTherapists = context.getBean(GetAllTherapists.class);
+        readWrite = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<User> listTherapists() {
+        if ("projections".equals(path)) {
+            return getAllTherapists.getAllTherapists();
+        }
+        return readWrite.execute(status -> userRepository.findAllByRoles(ROLE).stream()
+                .map(TherapistListingBenchmark::toUser)
+                .collect(Collectors.toList()));
+    }
+
+    private static User toUser(UserEntity entity) {
+        return User.builder()
+                .id(entity.getId())
+                .keycloakId(entity.getKeycloakId())
+                .username(entity.getUsername())
+                .email(entity.getEmail())
+                .firstName(entity.getFirstName())
+                .lastName(entity.getLastName())
+                .createdAt(entity.getCreatedAt())
+                .roles(entity.getRoles())
+                .build();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UserRepository.class))
+    @Import(GetAllTherapistsImpl.class)
+    static class Persistence {
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan(UserEntity.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(Map.of(
+                    "hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect",
+                    "hibernate.physical_naming_strategy",
+                    "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy"));
+            return factory;
+        }
+
+        @Bean
+        JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.business.GetAllTherapists;
+import org.example.business.ResolveUsers;
+import org.example.business.dto.BatchUserRequest;
+import org.example.business.dto.UserListResponse;
+import org.example.config.GrpcServerConfig;
+import org.example.domain.User;
+import org.example.grpc.proto.BatchGetUsersRequest;
+import org.example.grpc.proto.GetUserRequest;
+import org.example.grpc.proto.StreamTherapistsRequest;
+import org.example.grpc.proto.UserLookupGrpc;
+import org.example.grpc.proto.UserProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.ApplicationContextFactory;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The internal lookups over REST (UserController on Tomcat, JSON over HTTP/1.1 keep-alive from a RestTemplate, as
+ * the other services call it) and over gRPC (UserLookupGrpcService on GrpcServerConfig's server, protobuf over
+ * HTTP/2 from a blocking stub), each called through loopback and decoded by the caller: "single" is one profile (a one-id POST /users/batch against GetUser), "batch" is 50,
+ * "therapists" the whole directory (GET /therapists against StreamTherapists). The business services return a
+ * fixed directory, since the database work is the same for both protocols. Setup prints the response bytes per
+ * call without headers: the JSON body, and the protobuf messages with their 5-byte gRPC frame prefix.
+ * Run with ./gradlew jmh -PjmhIncludes=LookupProtocolBenchmark; loadtest/grpc-vs-rest.js is the end-to-end run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LookupProtocolBenchmark {
+
+    private static final int THERAPISTS = 500; // A typical directory, as in TherapistListingBenchmark
+    private static final int BATCH_SIZE = 50; // loadtest/grpc-vs-rest.js BATCH_SIZE
+    private static final Map<String, User> DIRECTORY = directory();
+    private static final TypeReference<List<UserListResponse>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"rest", "grpc"})
+    public String protocol;
+
+    private ServletWebServerApplicationContext context;
+    private ObjectMapper objectMapper;
+    private RestTemplate restTemplate;
+    private URI batchUri;
+    private URI therapistsUri;
+    private byte[] singleBody;
+    private byte[] batchBody;
+    private ManagedChannel channel;
+    private UserLookupGrpc.UserLookupBlockingStub stub;
+    private GetUserRequest singleRequest;
+    private BatchGetUsersRequest batchRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        int grpcPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            grpcPort = socket.getLocalPort();
+        }
+        context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(Endpoints.class)
+                // Explicit, since the benchmark jar does not merge every spring.factories
+                .contextFactory(ApplicationContextFactory.ofContextClass(
+                        AnnotationConfigServletWebServerApplicationContext.class))
+                .properties("server.port=0", "grpc.server.port=" + grpcPort,
+                        "grpc.server.shutdown-grace-period=PT1S", "spring.main.banner-mode=off")
+                .run();
+
+        List<String> batchIds = new ArrayList<>(DIRECTORY.keySet()).subList(0, BATCH_SIZE);
+        String singleId = batchIds.get(0);
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        restTemplate = new RestTemplate();
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+        batchUri = URI.create(baseUrl + "/users/batch");
+        therapistsUri = URI.create(baseUrl + "/therapists");
+        singleBody = objectMapper.writeValueAsBytes(new BatchUserRequest(List.of(singleId), true));
+        batchBody = objectMapper.writeValueAsBytes(new BatchUserRequest(batchIds, true));
+
+        channel = NettyChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+        stub = UserLookupGrpc.newBlockingStub(channel);
+        singleRequest = GetUserRequest.newBuilder().setKeycloakId(singleId).setIncludeRoles(true).build();
+        batchRequest = BatchGetUsersRequest.newBuilder().addAllKeycloakIds(batchIds).setIncludeRoles(true).build();
+
+        if ("rest".equals(protocol)) {
+            System.out.printf("REST response bytes: single %d, batch %d, therapists %d%n",
+                    post(singleBody).length, post(batchBody).length, get(therapistsUri).length);
+        } else {
+            long therapists = 0;
+            for (UserProfile profile : streamTherapists()) {
+                therapists += framed(profile.getSerializedSize());
+            }
+            System.out.printf("gRPC response bytes: single %d, batch %d, therapists %d%n",
+                    framed(stub.getUser(singleRequest).getSerializedSize()),
+                    framed(stub.batchGetUsers(batchRequest).getSerializedSize()), therapists);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public Object single() throws IOException {
+        if ("rest".equals(protocol)) {
+            return objectMapper.readValue(post(singleBody), USER_LIST);
+        }
+        return stub.getUser(singleRequest);
+    }
+
+    @Benchmark
+    public Object batch() throws IOException {
+        if ("rest".equals(protocol)) {
+            return objectMapper.readValue(post(batchBody), USER_LIST);
+        }
+        return stub.batchGetUsers(batchRequest);
+    }
+
+    @Benchmark
+    public Object therapists() throws IOException {
+        if ("rest".equals(protocol)) {
+            return objectMapper.readValue(get(therapistsUri), USER_LIST);
+        }
+        return streamTherapists();
+    }
+
+    private byte[] post(byte[] body) {
+        return restTemplate.exchange(RequestEntity.post(batchUri).contentType(MediaType.APPLICATION_JSON).body(body),
+                byte[].class).getBody();
+    }
+
+    private byte[] get(URI uri) {
+        return restTemplate.getForObject(uri, byte[].class);
+    }
+
+    private List<UserProfile> streamTherapists() {
+        List<UserProfile> profiles = new ArrayList<>(THERAPISTS);
+        stub.streamTherapists(StreamTherapistsRequest.getDefaultInstance()).forEachRemaining(profiles::add);
+        return profiles;
+    }
+
+    // Compression flag and length in front of every message
+    private static long framed(int messageSize) {
+        return messageSize + 5L;
+    }
+
+    private static Map<String, User> directory() {
+        Map<String, User> users = new LinkedHashMap<>();
+        LocalDateTime registered = LocalDateTime.of(2024, 1, 10, 9, 30);
+        for (int i = 1; i <= THERAPISTS; i++) {
+            String keycloakId = UUID.nameUUIDFromBytes(("kc-" + i).getBytes()).toString();
+            users.put(keycloakId, User.builder()
+                    .id((long) i)
+                    .keycloakId(keycloakId)
+                    .username("therapist" + i)
+                    .email("therapist" + i + "@example.com")
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .createdAt(registered.plusMinutes(i).plusNanos(i * 137_000L)) // Postgres keeps microseconds
+                    .roles(Set.of("client_therapist"))
+                    .build());
+        }
+        return users;
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import({GrpcServerConfig.class, UserLookupGrpcService.class})
+    static class Endpoints {
+
+        @Bean
+        ResolveUsers resolveUsers() {
+            return (Collection<String> keycloakIds, boolean includeRoles) -> keycloakIds.stream()
+                    .map(DIRECTORY::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        @Bean
+        GetAllTherapists getAllTherapists() {
+            List<User> therapists = List.copyOf(DIRECTORY.values());
+            return () -> therapists;
+        }
+
+        @Bean
+        UserController userController(ResolveUsers resolveUsers, GetAllTherapists getAllTherapists) {
+            // Only the two lookups are called
+            return new UserController(null, getAllTherapists, null, resolveUsers, null, null, null, null, null, null,
+                    null, null);
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+    }
+}
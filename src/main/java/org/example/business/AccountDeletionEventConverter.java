@@ -0,0 +1,101 @@
+package org.example.business;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import org.example.business.dto.AccountDeletionEvent;
+import org.example.business.dto.proto.AccountDeletionMessage;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Encodes {@link AccountDeletionEvent} as a versioned protobuf message (src/main/proto/account_deletion.proto)
+ * when binary publishing is on, and everything else with the JSON converter.
+ * Decoding follows the content type, so binary and JSON messages can share a queue while consumers migrate.
+ * The event's deletionTimestamp is the publisher's local wall-clock time, as JSON consumers have always read it;
+ * only the binary form turns it into an instant, through the JVM's default zone.
+ */
+public class AccountDeletionEventConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-protobuf";
+    public static final String MESSAGE_TYPE_HEADER = "proto-message";
+    public static final int SCHEMA_VERSION = 1;
+
+    private static final String MESSAGE_TYPE = AccountDeletionMessage.getDescriptor().getFullName();
+
+    private final MessageConverter jsonConverter;
+    private final boolean binary;
+
+    public AccountDeletionEventConverter(MessageConverter jsonConverter, boolean binary) {
+        this.jsonConverter = jsonConverter;
+        this.binary = binary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!binary || !(object instanceof AccountDeletionEvent event)) {
+            return jsonConverter.toMessage(object, messageProperties);
+        }
+
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setHeader(MESSAGE_TYPE_HEADER, MESSAGE_TYPE);
+        byte[] body = encode(event);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        String contentType = message.getMessageProperties().getContentType();
+        if (contentType == null || !contentType.startsWith(CONTENT_TYPE)) {
+            return jsonConverter.fromMessage(message);
+        }
+
+        Object messageType = message.getMessageProperties().getHeader(MESSAGE_TYPE_HEADER);
+        if (messageType != null && !MESSAGE_TYPE.equals(messageType.toString())) {
+            throw new MessageConversionException("Unsupported protobuf message type: " + messageType);
+        }
+        return decode(message.getBody());
+    }
+
+    public static byte[] encode(AccountDeletionEvent event) {
+        AccountDeletionMessage.Builder message = AccountDeletionMessage.newBuilder()
+                .setSchemaVersion(SCHEMA_VERSION)
+                .setUserKeycloakId(event.getUserKeycloakId());
+        if (event.getDeletionTimestamp() != null) {
+            Instant deletedAt = event.getDeletionTimestamp().atZone(ZoneId.systemDefault()).toInstant();
+            message.setDeletedAt(Timestamp.newBuilder()
+                    .setSeconds(deletedAt.getEpochSecond())
+                    .setNanos(deletedAt.getNano()));
+        }
+        if (event.getReason() != null) {
+            message.setReason(event.getReason());
+        }
+        return message.build().toByteArray();
+    }
+
+    public static AccountDeletionEvent decode(byte[] body) {
+        AccountDeletionMessage message;
+        try {
+            message = AccountDeletionMessage.parseFrom(body);
+        } catch (InvalidProtocolBufferException e) {
+            throw new MessageConversionException("Unreadable account deletion message", e);
+        }
+        if (message.getSchemaVersion() > SCHEMA_VERSION) {
+            throw new MessageConversionException("Account deletion schema version "
+                    + message.getSchemaVersion() + " is newer than the supported " + SCHEMA_VERSION);
+        }
+
+        LocalDateTime deletedAt = message.hasDeletedAt()
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(message.getDeletedAt().getSeconds(),
+                        message.getDeletedAt().getNanos()), ZoneId.systemDefault())
+                : null;
+        return new AccountDeletionEvent(message.getUserKeycloakId(), deletedAt,
+                message.getReason().isEmpty() ? null : message.getReason());
+    }
+}
@@ -1,10 +1,13 @@
 package org.example.business;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.business.dto.AccountDeletionEvent;
 import org.example.config.RabbitMQConfig;
+import org.example.exception.DependencyUnavailableException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -16,6 +19,10 @@ public class AccountDeletionPublisher {
 
     private final RabbitTemplate rabbitTemplate;
 
+    @Qualifier("rabbitGuard")
+    private final DependencyGuard rabbitGuard;
+
+    @Observed(name = "account.deletion.publish", contextualName = "publish account deletion")
     public void publishAccountDeletion(String userKeycloakId, String reason) {
         try {
             AccountDeletionEvent event = new AccountDeletionEvent(
@@ -24,13 +31,16 @@ public class AccountDeletionPublisher {
                     reason
             );
 
-            rabbitTemplate.convertAndSend(
+            rabbitGuard.run(() -> rabbitTemplate.convertAndSend(
                     RabbitMQConfig.ACCOUNT_DELETION_EXCHANGE,
                     RabbitMQConfig.ACCOUNT_DELETION_ROUTING_KEY,
                     event
-            );
+            ));
 
             log.info("Published account deletion event for user: {}", userKeycloakId);
+        } catch (DependencyUnavailableException e) {
+            log.warn("RabbitMQ unavailable, account deletion event not published for user: {}", userKeycloakId);
+            throw e;
         } catch (Exception e) {
             log.error("Failed to publish account deletion event for user: {}", userKeycloakId, e);
             throw new RuntimeException("Failed to publish account deletion event", e);
@@ -0,0 +1,105 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded admission for write requests (register, delete)
+ * At most maxConcurrent writes run at once; up to maxQueue more wait for at most maxWait,
+ * everything beyond that is shed immediately so reads keep their threads and DB connections.
+ */
+@Service
+@Slf4j
+public class AdmissionControl {
+
+    public enum Decision {
+        ADMITTED,
+        QUEUE_FULL,
+        TIMED_OUT
+    }
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final Duration maxWait;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter shedQueueFull;
+    private final Counter shedTimedOut;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${admission.enabled:true}") boolean enabled,
+                            @Value("${admission.write.max-concurrent:8}") int maxConcurrent,
+                            @Value("${admission.write.max-queue:50}") int maxQueue,
+                            @Value("${admission.write.max-wait:PT2S}") Duration maxWait) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+
+        Gauge.builder("admission.queue.depth", waiting, AtomicInteger::get)
+                .tag("class", "write")
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", permits, p -> maxConcurrent - p.availablePermits())
+                .tag("class", "write")
+                .register(meterRegistry);
+
+        this.shedQueueFull = Counter.builder("admission.shed")
+                .tag("class", "write")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.shedTimedOut = Counter.builder("admission.shed")
+                .tag("class", "write")
+                .tag("reason", "timed_out")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Waits up to maxWait for a write slot; callers must {@link #release()} after an ADMITTED decision
+     */
+    public Decision tryAdmitWrite() {
+        if (permits.tryAcquire()) {
+            return Decision.ADMITTED;
+        }
+
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            shedQueueFull.increment();
+            return Decision.QUEUE_FULL;
+        }
+
+        try {
+            if (permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                return Decision.ADMITTED;
+            }
+            shedTimedOut.increment();
+            return Decision.TIMED_OUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shedTimedOut.increment();
+            return Decision.TIMED_OUT;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+}
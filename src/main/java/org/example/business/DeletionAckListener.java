@@ -0,0 +1,21 @@
+package org.example.business;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.DeletionAckEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeletionAckListener {
+
+    private final DeletionTracker deletionTracker;
+
+    @RabbitListener(queues = "#{deletionAckQueue.name}", containerFactory = "deletionAckContainerFactory")
+    public void onDeletionAck(DeletionAckEvent ack) {
+        log.debug("Received deletion ack from {} for user: {}", ack.getService(), ack.getUserKeycloakId());
+        deletionTracker.acknowledge(ack);
+    }
+}
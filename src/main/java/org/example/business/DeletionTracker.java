@@ -0,0 +1,152 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.DeletionAckEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks each published account deletion until all downstream services have acknowledged it,
+ * and records end-to-end and per-service purge latency
+ */
+@Service
+@Slf4j
+public class DeletionTracker {
+
+    public static final Set<String> EXPECTED_SERVICES = Set.of("assignment", "scheduling", "journal");
+
+    private final Map<String, PendingDeletion> pending = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Duration stuckAfter;
+    private final Duration expireAfter;
+    private final int maxTracked;
+    private final Counter expired;
+    private final Counter untracked;
+
+    public DeletionTracker(MeterRegistry meterRegistry,
+                           Clock clock,
+                           @Value("${deletion-tracking.stuck-after:PT5M}") Duration stuckAfter,
+                           @Value("${deletion-tracking.expire-after:PT1H}") Duration expireAfter,
+                           @Value("${deletion-tracking.max-tracked:10000}") int maxTracked) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.stuckAfter = stuckAfter;
+        this.expireAfter = expireAfter;
+        this.maxTracked = maxTracked;
+
+        Gauge.builder("deletion.pending", pending, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("deletion.stuck", this, DeletionTracker::countStuck)
+                .register(meterRegistry);
+
+        this.expired = Counter.builder("deletion.expired").register(meterRegistry);
+        this.untracked = Counter.builder("deletion.untracked").register(meterRegistry);
+    }
+
+    public void track(String userKeycloakId) {
+        if (pending.size() >= maxTracked) {
+            untracked.increment();
+            return;
+        }
+        pending.put(userKeycloakId, new PendingDeletion(clock.instant()));
+    }
+
+    public void acknowledge(DeletionAckEvent ack) {
+        PendingDeletion deletion = pending.get(ack.getUserKeycloakId());
+        if (deletion == null) {
+            // Started by another instance, or already expired
+            return;
+        }
+        if (!EXPECTED_SERVICES.contains(ack.getService())) {
+            log.warn("Ignoring deletion ack from unknown service: {}", ack.getService());
+            return;
+        }
+
+        Duration elapsed = Duration.between(deletion.startedAt, clock.instant());
+        String outcome = ack.isSuccess() ? "success" : "failed";
+
+        if (deletion.acknowledged.putIfAbsent(ack.getService(), ack.isSuccess()) != null) {
+            return; // redelivered ack
+        }
+
+        Timer.builder("deletion.service.latency")
+                .tag("service", ack.getService())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsed);
+
+        if (!ack.isSuccess()) {
+            log.warn("Service {} failed to purge user {}: {}", ack.getService(), ack.getUserKeycloakId(), ack.getError());
+        }
+
+        if (deletion.acknowledged.size() == EXPECTED_SERVICES.size()
+                && pending.remove(ack.getUserKeycloakId(), deletion)) {
+            boolean allSucceeded = !deletion.acknowledged.containsValue(false);
+            Timer.builder("deletion.completion.latency")
+                    .tag("outcome", allSucceeded ? "success" : "failed")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed);
+            log.info("Deletion of user {} acknowledged by all services in {} ms",
+                    ack.getUserKeycloakId(), elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Drops deletions that never completed so the map stays bounded
+     */
+    @Scheduled(fixedDelayString = "${deletion-tracking.sweep-interval:PT1M}")
+    public void expireStale() {
+        Instant cutoff = clock.instant().minus(expireAfter);
+        pending.entrySet().removeIf(entry -> {
+            if (entry.getValue().startedAt.isBefore(cutoff)) {
+                expired.increment();
+                log.warn("Deletion of user {} not acknowledged by {} after {}",
+                        entry.getKey(), missingServices(entry.getValue()), expireAfter);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    int countStuck() {
+        Instant cutoff = clock.instant().minus(stuckAfter);
+        return (int) pending.values().stream()
+                .filter(deletion -> deletion.startedAt.isBefore(cutoff))
+                .count();
+    }
+
+    private Set<String> missingServices(PendingDeletion deletion) {
+        Set<String> missing = new TreeSet<>(EXPECTED_SERVICES);
+        missing.removeAll(deletion.acknowledged.keySet());
+        return missing;
+    }
+
+    private static final class PendingDeletion {
+        private final Instant startedAt;
+        private final Map<String, Boolean> acknowledged = new ConcurrentHashMap<>();
+
+        private PendingDeletion(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
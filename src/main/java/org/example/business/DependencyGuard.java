@@ -0,0 +1,162 @@
+package org.example.business;
+
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limiter.AbstractLimiter;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.business.jfr.OperationEvents;
+import org.example.business.jfr.OutboundCallEvent;
+import org.example.exception.DependencyUnavailableException;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead for one downstream dependency: an adaptive concurrency limit in front of a circuit breaker.
+ * Calls over the limit or while the breaker is open fail fast instead of holding a request thread,
+ * so a slow dependency only degrades the paths that use it.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final AbstractLimiter<Void> limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Predicate<Throwable> isOverload;
+    private final Counter limitRejections;
+    private final Counter breakerRejections;
+
+    /**
+     * @param isOverload failures that signal the dependency is overloaded (timeouts, refused connections);
+     *                   these shrink the concurrency limit, other failures leave it unchanged
+     */
+    public DependencyGuard(String name, AbstractLimiter<Void> limiter, CircuitBreaker circuitBreaker,
+                           Predicate<Throwable> isOverload, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.isOverload = isOverload;
+
+        Gauge.builder("dependency.concurrency.limit", limiter, AbstractLimiter::getLimit)
+                .tag("dependency", name)
+                .register(meterRegistry);
+        Gauge.builder("dependency.concurrency.inflight", limiter, AbstractLimiter::getInflight)
+                .tag("dependency", name)
+                .register(meterRegistry);
+
+        this.limitRejections = Counter.builder("dependency.rejected")
+                .tag("dependency", name)
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+        this.breakerRejections = Counter.builder("dependency.rejected")
+                .tag("dependency", name)
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        OutboundCallEvent event = OperationEvents.beginOutbound();
+        Optional<Limiter.Listener> acquired = limiter.acquire(null);
+        if (acquired.isEmpty()) {
+            limitRejections.increment();
+            OperationEvents.commitOutbound(event, name, "rejected");
+            throw new DependencyUnavailableException(name, name + " concurrency limit reached");
+        }
+        Limiter.Listener listener = acquired.get();
+
+        try {
+            T result = circuitBreaker.executeSupplier(call);
+            listener.onSuccess();
+            OperationEvents.commitOutbound(event, name, OperationEvents.SUCCESS);
+            return result;
+        } catch (CallNotPermittedException e) {
+            listener.onIgnore();
+            breakerRejections.increment();
+            OperationEvents.commitOutbound(event, name, "rejected");
+            throw new DependencyUnavailableException(name, name + " circuit breaker is open", e);
+        } catch (RuntimeException e) {
+            if (isOverload.test(e)) {
+                listener.onDropped();
+            } else {
+                listener.onIgnore();
+            }
+            OperationEvents.commitOutbound(event, name, OperationEvents.FAILURE);
+            throw e;
+        } catch (Error e) {
+            // Says nothing about the dependency's capacity, but the permit must still be returned
+            listener.onIgnore();
+            OperationEvents.commitOutbound(event, name, OperationEvents.FAILURE);
+            throw e;
+        }
+    }
+
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Non-blocking variant for the reactive stack: the same limiter and breaker,
+     * with the permit held from subscription until the call completes, fails or is cancelled
+     */
+    public <T> Mono<T> executeReactive(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Optional<Limiter.Listener> acquired = limiter.acquire(null);
+            if (acquired.isEmpty()) {
+                limitRejections.increment();
+                return Mono.error(new DependencyUnavailableException(name, name + " concurrency limit reached"));
+            }
+            Limiter.Listener listener = acquired.get();
+
+            if (!circuitBreaker.tryAcquirePermission()) {
+                listener.onIgnore();
+                breakerRejections.increment();
+                return Mono.error(new DependencyUnavailableException(name, name + " circuit breaker is open"));
+            }
+
+            long start = circuitBreaker.getCurrentTimestamp();
+            Mono<T> mono;
+            try {
+                mono = call.get();
+            } catch (Throwable e) {
+                // Failed while assembling, before there was anything to subscribe to
+                circuitBreaker.releasePermission();
+                listener.onIgnore();
+                throw e;
+            }
+            return mono
+                    .doOnSuccess(result -> {
+                        circuitBreaker.onSuccess(circuitBreaker.getCurrentTimestamp() - start,
+                                circuitBreaker.getTimestampUnit());
+                        listener.onSuccess();
+                    })
+                    .doOnError(e -> {
+                        circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                                circuitBreaker.getTimestampUnit(), e);
+                        if (isOverload.test(e)) {
+                            listener.onDropped();
+                        } else {
+                            listener.onIgnore();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        circuitBreaker.releasePermission();
+                        listener.onIgnore();
+                    });
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,306 @@
+package org.example.business;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.persistance.IdempotencyRecordRepository;
+import org.example.persistance.entity.IdempotencyRecordEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of register and delete kept under the client's Idempotency-Key, so a retried request
+ * is answered from memory instead of repeating the database, Keycloak and RabbitMQ work.
+ * Concurrent duplicates wait for the first request instead of running alongside it.
+ * Bounded by size and TTL, evicting the oldest completed responses when full; server errors are not kept,
+ * so they can be retried for real.
+ * With idempotency.persistent.enabled, completed responses are also shared through the idempotency_keys table.
+ */
+@Service
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Duration maxWait;
+    private final boolean persistent;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            Clock clock,
+                            @Value("${idempotency.ttl:PT1H}") Duration ttl,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.max-wait:PT10S}") Duration maxWait,
+                            @Value("${idempotency.persistent.enabled:false}") boolean persistent) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.maxWait = maxWait;
+        this.persistent = persistent;
+
+        Gauge.builder("idempotency.entries", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the action once per operation and key. The fingerprint identifies the request the key was
+     * first used with; reusing the key for a different request is answered with 422.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String operation, String key, String fingerprint,
+                                         Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            count(operation, "rejected");
+            return ResponseEntity.badRequest().build();
+        }
+
+        String id = operation + ":" + key;
+        if (entries.size() >= maxEntries && !entries.containsKey(id) && !makeRoom()) {
+            // Every kept response is still in flight: the shared table can still answer a retry
+            Optional<IdempotencyRecordEntity> stored = persistent ? findStored(id) : Optional.empty();
+            if (stored.isPresent()) {
+                return replayStored(operation, stored.get(), fingerprint, bodyType);
+            }
+            count(operation, "untracked");
+            ResponseEntity<T> response = action.get();
+            if (persistent && !response.getStatusCode().is5xxServerError()) {
+                save(id, fingerprint, response);
+            }
+            return response;
+        }
+
+        Entry entry = new Entry(fingerprint, clock.instant());
+        Entry existing = claim(id, entry);
+        if (existing != null) {
+            return replay(operation, existing, fingerprint);
+        }
+
+        Optional<IdempotencyRecordEntity> stored = persistent ? findStored(id) : Optional.empty();
+        if (stored.isPresent()) {
+            if (!stored.get().getFingerprint().equals(fingerprint)) {
+                entries.remove(id, entry);
+                count(operation, "rejected");
+                return ResponseEntity.unprocessableEntity().build();
+            }
+            ResponseEntity<T> response = toResponse(stored.get(), bodyType);
+            entry.response.complete(response);
+            count(operation, "replayed");
+            return replayed(response);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(id, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+
+        entry.response.complete(response);
+        count(operation, "executed");
+
+        if (response.getStatusCode().is5xxServerError()) {
+            entries.remove(id, entry);
+        } else if (persistent) {
+            save(id, fingerprint, response);
+        }
+        return response;
+    }
+
+    /**
+     * Drops expired responses so the store stays bounded between TTL checks on access
+     */
+    @Scheduled(fixedDelayString = "${idempotency.sweep-interval:PT1M}")
+    public void expireStale() {
+        Instant cutoff = clock.instant().minus(ttl);
+        removeExpired(cutoff);
+        if (persistent) {
+            int deleted = recordRepository.deleteCreatedBefore(cutoff);
+            if (deleted > 0) {
+                log.debug("Expired {} persisted idempotency keys", deleted);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * SHA-256 of the request as JSON, so two different bodies sent under one key never share a fingerprint
+     */
+    public String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Frees space at the size limit: expired responses go first, then the oldest completed tenth.
+     * Entries still in flight are never evicted, so their duplicates keep coalescing.
+     */
+    private boolean makeRoom() {
+        removeExpired(clock.instant().minus(ttl));
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        int target = Math.max(maxEntries / 10, 1);
+        entries.entrySet().stream()
+                .filter(candidate -> candidate.getValue().response.isDone())
+                .sorted(Comparator.comparing(candidate -> candidate.getValue().createdAt))
+                .limit(target)
+                .toList()
+                .forEach(evicted -> entries.remove(evicted.getKey(), evicted.getValue()));
+        return entries.size() < maxEntries;
+    }
+
+    private void removeExpired(Instant cutoff) {
+        entries.values().removeIf(entry -> entry.response.isDone() && entry.createdAt.isBefore(cutoff));
+    }
+
+    private Entry claim(String id, Entry entry) {
+        while (true) {
+            Entry existing = entries.putIfAbsent(id, entry);
+            if (existing == null || !isExpired(existing)) {
+                return existing;
+            }
+            if (entries.replace(id, existing, entry)) {
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(String operation, Entry existing, String fingerprint) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+            count(operation, "rejected");
+            return ResponseEntity.unprocessableEntity().build();
+        }
+
+        boolean inFlight = !existing.response.isDone();
+        try {
+            ResponseEntity<T> response = (ResponseEntity<T>) existing.response.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            count(operation, inFlight ? "coalesced" : "replayed");
+            return replayed(response);
+        } catch (TimeoutException e) {
+            count(operation, "rejected");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(maxWait.toSeconds(), 1)))
+                    .build();
+        } catch (ExecutionException e) {
+            // The first request failed; its duplicates fail the same way
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent duplicate", e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replayed(ResponseEntity<T> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private Optional<IdempotencyRecordEntity> findStored(String id) {
+        Instant cutoff = clock.instant().minus(ttl);
+        return recordRepository.findById(id)
+                .filter(record -> !record.getCreatedAt().isBefore(cutoff));
+    }
+
+    private <T> ResponseEntity<T> replayStored(String operation, IdempotencyRecordEntity record,
+                                               String fingerprint, Class<T> bodyType) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            count(operation, "rejected");
+            return ResponseEntity.unprocessableEntity().build();
+        }
+        count(operation, "replayed");
+        return replayed(toResponse(record, bodyType));
+    }
+
+    private <T> ResponseEntity<T> toResponse(IdempotencyRecordEntity record, Class<T> bodyType) {
+        try {
+            T body = record.getBody() == null ? null : objectMapper.readValue(record.getBody(), bodyType);
+            return ResponseEntity.status(record.getStatus()).body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for idempotency key " + record.getId(), e);
+        }
+    }
+
+    private void save(String id, String fingerprint, ResponseEntity<?> response) {
+        try {
+            String body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+            recordRepository.insertIfAbsent(id, fingerprint, response.getStatusCode().value(), body, clock.instant());
+        } catch (RuntimeException | JsonProcessingException e) {
+            // The in-memory entry still covers retries reaching this pod
+            log.warn("Failed to persist response for idempotency key {}", id, e);
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.response.isDone() && entry.createdAt.isBefore(clock.instant().minus(ttl));
+    }
+
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("idempotency.requests", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final Instant createdAt;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, Instant createdAt) {
+            this.fingerprint = fingerprint;
+            this.createdAt = createdAt;
+        }
+    }
+}
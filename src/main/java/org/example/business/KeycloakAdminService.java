@@ -1,22 +1,45 @@
 package org.example.business;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.KeycloakUser;
+import org.example.exception.DependencyUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KeycloakAdminService {
 
+    // Refresh this long before the token expires, so a request never goes out with an expiring token
+    private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofSeconds(30);
+
     private final RestTemplate restTemplate;
 
+    @Qualifier("keycloakGuard")
+    private final DependencyGuard keycloakGuard;
+
+    private final Clock clock;
+
+    private volatile AdminToken adminToken;
+
     @Value("${keycloak.auth-server-url}")
     private String keycloakServerUrl;
 
@@ -29,6 +52,7 @@ public class KeycloakAdminService {
     @Value("${keycloak.admin.client-secret}")
     private String adminClientSecret;
 
+    @Observed(name = "keycloak.admin", contextualName = "keycloak delete user")
     public void deleteUserFromKeycloak(String userKeycloakId) {
         try {
             log.info("Attempting to delete user from Keycloak: {}", userKeycloakId);
@@ -45,12 +69,12 @@ public class KeycloakAdminService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<Void> response = restTemplate.exchange(
+            ResponseEntity<Void> response = keycloakGuard.execute(() -> restTemplate.exchange(
                     deleteUrl,
                     HttpMethod.DELETE,
                     request,
                     Void.class
-            );
+            ));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Successfully deleted user from Keycloak: {}", userKeycloakId);
@@ -59,17 +83,106 @@ public class KeycloakAdminService {
                 throw new RuntimeException("Failed to delete user from Keycloak");
             }
 
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
+            forgetTokenIfRejected(e);
             log.error("Error deleting user from Keycloak: {}", userKeycloakId, e);
             throw new RuntimeException("Failed to delete user from Keycloak: " + e.getMessage());
         }
     }
 
     /**
-     * Get admin access token from Keycloak
+     * List one page of realm users, ordered by Keycloak
+     */
+    @Observed(name = "keycloak.admin", contextualName = "keycloak list users")
+    public List<KeycloakUser> listUsers(int first, int max) {
+        try {
+            String usersUrl = String.format("%s/admin/realms/%s/users?first=%d&max=%d&briefRepresentation=true",
+                    keycloakServerUrl, realm, first, max);
+
+            HttpEntity<Void> request = new HttpEntity<>(adminHeaders());
+
+            ResponseEntity<KeycloakUser[]> response = keycloakGuard.execute(() -> restTemplate.exchange(
+                    usersUrl,
+                    HttpMethod.GET,
+                    request,
+                    KeycloakUser[].class
+            ));
+
+            KeycloakUser[] users = response.getBody();
+            return users == null ? List.of() : Arrays.asList(users);
+
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            forgetTokenIfRejected(e);
+            log.error("Error listing users from Keycloak at offset {}", first, e);
+            throw new RuntimeException("Failed to list users from Keycloak: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the realm role names mapped to a user
+     */
+    @Observed(name = "keycloak.admin", contextualName = "keycloak get realm roles")
+    public Set<String> getRealmRoles(String userKeycloakId) {
+        try {
+            String rolesUrl = String.format("%s/admin/realms/%s/users/%s/role-mappings/realm",
+                    keycloakServerUrl, realm, userKeycloakId);
+
+            HttpEntity<Void> request = new HttpEntity<>(adminHeaders());
+
+            ResponseEntity<RoleRepresentation[]> response = keycloakGuard.execute(() -> restTemplate.exchange(
+                    rolesUrl,
+                    HttpMethod.GET,
+                    request,
+                    RoleRepresentation[].class
+            ));
+
+            RoleRepresentation[] roles = response.getBody();
+            if (roles == null) {
+                return Set.of();
+            }
+            return Arrays.stream(roles)
+                    .map(RoleRepresentation::getName)
+                    .collect(Collectors.toSet());
+
+        } catch (DependencyUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            forgetTokenIfRejected(e);
+            log.error("Error fetching realm roles from Keycloak for user: {}", userKeycloakId, e);
+            throw new RuntimeException("Failed to fetch roles from Keycloak: " + e.getMessage());
+        }
+    }
+
+    private HttpHeaders adminHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(getAdminToken());
+        return headers;
+    }
+
+    /**
+     * Get admin access token from Keycloak, reused until shortly before it expires
      * Uses client credentials grant
      */
     public String getAdminToken() {
+        AdminToken token = adminToken;
+        if (token != null && clock.instant().isBefore(token.refreshAt())) {
+            return token.value();
+        }
+        synchronized (this) {
+            // Only one caller refreshes, the others pick up its token
+            token = adminToken;
+            if (token != null && clock.instant().isBefore(token.refreshAt())) {
+                return token.value();
+            }
+            return fetchAdminToken();
+        }
+    }
+
+    private String fetchAdminToken() {
         try {
             String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
                     keycloakServerUrl, realm);
@@ -84,29 +197,49 @@ public class KeycloakAdminService {
 
             HttpEntity<String> request = new HttpEntity<>(body, headers);
 
-            ResponseEntity<TokenResponse> response = restTemplate.postForEntity(
+            ResponseEntity<TokenResponse> response = keycloakGuard.execute(() -> restTemplate.postForEntity(
                     tokenUrl,
                     request,
                     TokenResponse.class
-            );
-
-            if (response.getBody() != null && response.getBody().getAccessToken() != null) {
-                return response.getBody().getAccessToken();
+            ));
+
+            TokenResponse token = response.getBody();
+            if (token != null && token.getAccessToken() != null) {
+                if (token.getExpiresIn() > TOKEN_REFRESH_MARGIN.toSeconds()) {
+                    adminToken = new AdminToken(token.getAccessToken(),
+                            clock.instant().plusSeconds(token.getExpiresIn()).minus(TOKEN_REFRESH_MARGIN));
+                }
+                return token.getAccessToken();
             } else {
                 throw new RuntimeException("Failed to obtain admin token from Keycloak");
             }
 
+        } catch (DependencyUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error obtaining admin token from Keycloak", e);
             throw new RuntimeException("Failed to authenticate with Keycloak: " + e.getMessage());
         }
     }
 
+    /**
+     * A 401 means the cached token was revoked or the signing keys rotated; the next call fetches a new one
+     */
+    private void forgetTokenIfRejected(Exception e) {
+        if (e instanceof HttpClientErrorException.Unauthorized) {
+            adminToken = null;
+        }
+    }
+
+    private record AdminToken(String value, Instant refreshAt) {
+    }
+
     /**
      * Inner class to deserialize Keycloak token response
      */
     public static class TokenResponse {
         private String access_token;
+        private long expires_in;
 
         public String getAccessToken() {
             return access_token;
@@ -115,6 +248,29 @@ public class KeycloakAdminService {
         public void setAccess_token(String access_token) {
             this.access_token = access_token;
         }
+
+        public long getExpiresIn() {
+            return expires_in;
+        }
+
+        public void setExpires_in(long expires_in) {
+            this.expires_in = expires_in;
+        }
+    }
+
+    /**
+     * Inner class to deserialize Keycloak role mappings
+     */
+    public static class RoleRepresentation {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
     }
 }
 
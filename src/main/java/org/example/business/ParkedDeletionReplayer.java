@@ -0,0 +1,93 @@
+package org.example.business;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.RabbitMQConfig;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.RabbitUtils;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves deletion events that exhausted their retries from a parking-lot queue back to the work queue
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParkedDeletionReplayer {
+
+    static final int MAX_BATCH_SIZE = 1000;
+    static final long CONFIRM_TIMEOUT_MS = 30_000;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+
+    public Map<String, Integer> countParked() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String queue : RabbitMQConfig.DELETION_QUEUES) {
+            QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.parkingQueueName(queue));
+            counts.put(queue, info == null ? 0 : info.getMessageCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Republishes up to batchSize parked messages to their work queue on a single channel in confirm mode.
+     * The parking queue is acked, in one multiple ack, only once the broker has confirmed every republished
+     * message, so a crash or a nack mid-batch can duplicate messages but never lose one.
+     * The x-death history is dropped, so a replayed message gets every retry tier again before it is re-parked.
+     */
+    public int replay(String queue, int batchSize) {
+        if (!RabbitMQConfig.DELETION_QUEUES.contains(queue)) {
+            throw new IllegalArgumentException("Unknown deletion queue: " + queue);
+        }
+
+        String parkingQueue = RabbitMQConfig.parkingQueueName(queue);
+        int limit = Math.min(Math.max(batchSize, 1), MAX_BATCH_SIZE);
+
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            // Confirm mode cannot be turned off again, so the channel is closed instead of going back to the cache
+            RabbitUtils.setPhysicalCloseRequired(channel, true);
+            channel.confirmSelect();
+
+            int count = 0;
+            long lastDeliveryTag = 0;
+            while (count < limit) {
+                GetResponse response = channel.basicGet(parkingQueue, false);
+                if (response == null) {
+                    break;
+                }
+                channel.basicPublish("", queue, withoutDeathHistory(response.getProps()), response.getBody());
+                lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+                count++;
+            }
+
+            if (count > 0) {
+                // Throws on a nack or timeout; the unacked messages then go back to the parking queue
+                channel.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MS);
+                channel.basicAck(lastDeliveryTag, true);
+            }
+            return count;
+        });
+
+        log.info("Replayed {} parked deletion events from {} to {}", replayed, parkingQueue, queue);
+        return replayed == null ? 0 : replayed;
+    }
+
+    private static AMQP.BasicProperties withoutDeathHistory(AMQP.BasicProperties properties) {
+        if (properties.getHeaders() == null) {
+            return properties;
+        }
+        Map<String, Object> headers = new HashMap<>(properties.getHeaders());
+        headers.keySet().removeIf(name -> name.startsWith("x-death")
+                || name.startsWith("x-first-death-") || name.startsWith("x-last-death-"));
+        return properties.builder().headers(headers).build();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.business;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.example.business.dto.RecordedSpan;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory span exporter for local runs: keeps the most recent finished spans so a trace
+ * can be inspected through /admin/traces without running a collector
+ */
+public class RecentSpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final Deque<SpanData> spans = new ArrayDeque<>();
+    private volatile boolean shutdown;
+
+    public RecentSpanExporter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> batch) {
+        if (shutdown) {
+            return CompletableResultCode.ofFailure();
+        }
+        synchronized (spans) {
+            for (SpanData span : batch) {
+                if (spans.size() == capacity) {
+                    spans.removeFirst();
+                }
+                spans.addLast(span);
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Most recent spans first, optionally restricted to one trace
+     */
+    public List<RecordedSpan> recent(String traceId, int limit) {
+        List<RecordedSpan> result = new ArrayList<>();
+        synchronized (spans) {
+            Iterator<SpanData> iterator = spans.descendingIterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                SpanData span = iterator.next();
+                if (traceId == null || traceId.equals(span.getTraceId())) {
+                    result.add(toRecorded(span));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        shutdown = true;
+        synchronized (spans) {
+            spans.clear();
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private RecordedSpan toRecorded(SpanData span) {
+        Map<String, String> attributes = new TreeMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+
+        return RecordedSpan.builder()
+                .traceId(span.getTraceId())
+                .spanId(span.getSpanId())
+                .parentSpanId(span.getParentSpanContext().isValid() ? span.getParentSpanId() : null)
+                .name(span.getName())
+                .kind(span.getKind().name())
+                .startedAt(Instant.ofEpochSecond(0, span.getStartEpochNanos()))
+                .durationMs((span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0)
+                .status(span.getStatus().getStatusCode().name())
+                .attributes(attributes)
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.impl.UserRegisterImpl;
+import org.example.domain.Registration;
+import org.example.domain.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for single registrations: concurrent register calls are queued and written by a few
+ * writer threads in micro-batches of up to max-batch-size, collected for at most max-delay, each in one
+ * {@link UserRegisterImpl#registerAll} transaction. Callers block until their own registration is written.
+ * If a batch fails, its registrations are retried one by one so a single bad request fails alone.
+ * When disabled, or when the queue is full, registrations run directly on the caller's thread.
+ */
+@Service
+@Primary
+@Slf4j
+public class RegistrationBatcher implements UserRegister {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final UserRegisterImpl userRegister;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final Duration maxWait;
+    private final BlockingQueue<Pending> queue;
+    private final ExecutorService writers;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private volatile boolean running = true;
+
+    public RegistrationBatcher(UserRegisterImpl userRegister,
+                               MeterRegistry meterRegistry,
+                               @Value("${registration.batching.enabled:false}") boolean enabled,
+                               @Value("${registration.batching.max-batch-size:32}") int maxBatchSize,
+                               @Value("${registration.batching.max-delay:PT0.005S}") Duration maxDelay,
+                               @Value("${registration.batching.max-queue:500}") int maxQueue,
+                               @Value("${registration.batching.writers:2}") int writerCount,
+                               @Value("${registration.batching.max-wait:PT10S}") Duration maxWait) {
+        this.userRegister = userRegister;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.maxWait = maxWait;
+        this.queue = new LinkedBlockingQueue<>(maxQueue);
+        this.batchSizes = DistributionSummary.builder("registration.batch.size")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("registration.batch.fallbacks")
+                .description("Batches retried one registration at a time after failing")
+                .register(meterRegistry);
+
+        if (enabled) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            writers = Executors.newFixedThreadPool(writerCount, runnable -> {
+                Thread thread = new Thread(runnable, "registration-writer-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < writerCount; i++) {
+                writers.execute(this::writeLoop);
+            }
+        } else {
+            writers = null;
+        }
+    }
+
+    @Override
+    public User register(String keycloakId, String username, String email,
+                         String firstName, String lastName, Set<String> roles) {
+        if (!enabled) {
+            return userRegister.register(keycloakId, username, email, firstName, lastName, roles);
+        }
+
+        Pending pending = new Pending(new Registration(keycloakId, username, email, firstName, lastName, roles));
+        if (!running || !queue.offer(pending)) {
+            return userRegister.register(keycloakId, username, email, firstName, lastName, roles);
+        }
+
+        try {
+            return pending.result.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Registration failed", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or being written; the caller may retry, registration is idempotent
+            throw new IllegalStateException("Registration was not written within " + maxWait, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for registration", e);
+        }
+    }
+
+    @Override
+    public List<User> registerAll(List<Registration> registrations) {
+        return userRegister.registerAll(registrations);
+    }
+
+    /**
+     * Stops taking new registrations and writes the queued ones before the context closes
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writers != null) {
+            writers.shutdown();
+            if (!writers.awaitTermination(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} queued registrations were not written before shutdown", queue.size());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    write(collect(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Registration writer failed", e);
+            }
+        }
+    }
+
+    /**
+     * Takes whatever else is queued, waiting up to max-delay after the first registration for the batch to fill
+     */
+    List<Pending> collect(Pending first) throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    void write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+
+        if (batch.size() > 1) {
+            try {
+                List<User> users = userRegister.registerAll(batch.stream().map(p -> p.registration).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(users.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                fallbacks.increment();
+                log.debug("Batch of {} registrations failed, writing them one by one: {}", batch.size(), e.getMessage());
+            }
+        }
+
+        for (Pending pending : batch) {
+            Registration registration = pending.registration;
+            try {
+                pending.result.complete(userRegister.register(registration.getKeycloakId(), registration.getUsername(),
+                        registration.getEmail(), registration.getFirstName(), registration.getLastName(),
+                        registration.getRoles()));
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    static final class Pending {
+        private final Registration registration;
+        private final CompletableFuture<User> result = new CompletableFuture<>();
+
+        Pending(Registration registration) {
+            this.registration = registration;
+        }
+
+        CompletableFuture<User> result() {
+            return result;
+        }
+    }
+}
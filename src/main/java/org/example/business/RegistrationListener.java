@@ -0,0 +1,178 @@
+package org.example.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.UserRegisteredEvent;
+import org.example.config.RabbitMQConfig;
+import org.example.domain.Registration;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers users from user.registered messages, a batch of deliveries per transaction.
+ * A fully successful batch is acked with one multiple-ack. Otherwise registrations are retried one by one;
+ * the failed ones are rejected to the retry queue, or parked once they have used up max-attempts.
+ * Messages that cannot be parsed are parked straight away.
+ */
+@Service
+@ConditionalOnProperty(name = "registration.listener.enabled", havingValue = "true")
+@Slf4j
+public class RegistrationListener {
+
+    private final UserRegister userRegister;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+
+    public RegistrationListener(UserRegister userRegister,
+                                RabbitTemplate rabbitTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${registration.listener.max-attempts:3}") int maxAttempts) {
+        this.userRegister = userRegister;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.USER_REGISTRATION_QUEUE, containerFactory = "registrationContainerFactory")
+    public void onRegistrations(List<Message> messages, Channel channel) throws IOException {
+        List<Message> accepted = new ArrayList<>(messages.size());
+        List<Registration> registrations = new ArrayList<>(messages.size());
+
+        for (Message message : messages) {
+            Registration registration = parse(message);
+            if (registration == null) {
+                park(message);
+            } else {
+                accepted.add(message);
+                registrations.add(registration);
+            }
+        }
+
+        List<Message> failed = new ArrayList<>();
+        if (!registrations.isEmpty() && !registerAll(registrations)) {
+            for (int i = 0; i < registrations.size(); i++) {
+                if (!register(registrations.get(i))) {
+                    failed.add(accepted.get(i));
+                }
+            }
+        }
+        count("registered", accepted.size() - failed.size());
+
+        List<Message> retried = new ArrayList<>();
+        for (Message message : failed) {
+            if (attempts(message) + 1 >= maxAttempts) {
+                park(message);
+            } else {
+                channel.basicNack(deliveryTag(message), false, false);
+                retried.add(message);
+            }
+        }
+        count("retried", retried.size());
+        acknowledge(channel, messages, retried);
+    }
+
+    private boolean registerAll(List<Registration> registrations) {
+        try {
+            userRegister.registerAll(registrations);
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} registrations failed, registering them one by one: {}",
+                    registrations.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean register(Registration registration) {
+        try {
+            userRegister.register(registration.getKeycloakId(), registration.getUsername(), registration.getEmail(),
+                    registration.getFirstName(), registration.getLastName(), registration.getRoles());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to register user {} from queue: {}", registration.getKeycloakId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * One multiple-ack when nothing was rejected, otherwise an ack per remaining delivery,
+     * since a multiple-ack would also cover the rejected ones
+     */
+    private void acknowledge(Channel channel, List<Message> messages, List<Message> rejected) throws IOException {
+        if (rejected.isEmpty()) {
+            channel.basicAck(deliveryTag(messages.get(messages.size() - 1)), true);
+            return;
+        }
+        for (Message message : messages) {
+            if (!rejected.contains(message)) {
+                channel.basicAck(deliveryTag(message), false);
+            }
+        }
+    }
+
+    private Registration parse(Message message) {
+        try {
+            UserRegisteredEvent event = objectMapper.readValue(message.getBody(), UserRegisteredEvent.class);
+            if (event.getKeycloakId() == null || event.getKeycloakId().isBlank()
+                    || event.getUsername() == null || event.getUsername().isBlank()) {
+                log.warn("Registration message without keycloakId or username");
+                return null;
+            }
+            return Registration.builder()
+                    .keycloakId(event.getKeycloakId())
+                    .username(event.getUsername())
+                    .email(event.getEmail())
+                    .firstName(event.getFirstName())
+                    .lastName(event.getLastName())
+                    .roles(event.getRoles())
+                    .build();
+        } catch (IOException e) {
+            log.warn("Unreadable registration message: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void park(Message message) {
+        rabbitTemplate.send("", RabbitMQConfig.parkingQueueName(RabbitMQConfig.USER_REGISTRATION_QUEUE), message);
+        count("parked", 1);
+    }
+
+    /**
+     * Times the message has been rejected from the work queue, from the x-death header
+     */
+    private long attempts(Message message) {
+        List<Map<String, ?>> deaths = message.getMessageProperties().getXDeathHeader();
+        if (deaths == null) {
+            return 0;
+        }
+        return deaths.stream()
+                .filter(death -> RabbitMQConfig.USER_REGISTRATION_QUEUE.equals(death.get("queue")))
+                .filter(death -> "rejected".equals(death.get("reason")))
+                .mapToLong(death -> death.get("count") instanceof Number count ? count.longValue() : 0)
+                .sum();
+    }
+
+    private long deliveryTag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("registration.consumed", "outcome", outcome).increment(amount);
+        }
+    }
+}
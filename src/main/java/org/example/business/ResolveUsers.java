@@ -0,0 +1,10 @@
+package org.example.business;
+
+import org.example.domain.User;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResolveUsers {
+    List<User> resolveUsers(Collection<String> keycloakIds, boolean includeRoles);
+}
@@ -0,0 +1,8 @@
+package org.example.business;
+
+import org.example.domain.User;
+import org.springframework.data.domain.Slice;
+
+public interface SearchTherapists {
+    Slice<User> searchTherapists(String query, boolean contains, int page, int size);
+}
@@ -0,0 +1,93 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.UserImportResult;
+import org.example.domain.UserChangeType;
+import org.example.domain.UserCopyFormat;
+import org.example.persistance.UserCopyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Export and import of all live users for backfills, environment clones and restores, streamed over
+ * PostgreSQL COPY instead of going through the entities.
+ *
+ * An import is one transaction: the file is copied into a temp table, tombstones holding any of its
+ * keycloak ids, usernames or emails are purged, and users and roles are merged set-based. Users in the file
+ * are created or overwritten, users missing from it are left alone. Every user that changed gets a change
+ * log entry, so the read model and feed consumers catch up; no events are published for them.
+ */
+@Service
+@Slf4j
+public class UserBulkTransfer {
+
+    private final UserCopyRepository userCopyRepository;
+    private final MeterRegistry meterRegistry;
+    private final Timer exports;
+    private final Timer imports;
+
+    public UserBulkTransfer(UserCopyRepository userCopyRepository, MeterRegistry meterRegistry) {
+        this.userCopyRepository = userCopyRepository;
+        this.meterRegistry = meterRegistry;
+        this.exports = Timer.builder("users.bulk.export").register(meterRegistry);
+        this.imports = Timer.builder("users.bulk.import").register(meterRegistry);
+    }
+
+    /**
+     * @return number of users written to the stream
+     */
+    public long export(UserCopyFormat format, OutputStream out) {
+        long rows = exports.record(() -> userCopyRepository.export(format, out));
+        log.info("Exported {} users as {}", rows, format);
+        return rows;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a keycloak id appears more than once in the file
+     */
+    @Transactional
+    public UserImportResult importUsers(UserCopyFormat format, InputStream in) {
+        return imports.record(() -> {
+            userCopyRepository.createStaging();
+            long rows = userCopyRepository.copyIn(format, in);
+
+            userCopyRepository.findDuplicateKeycloakId().ifPresent(keycloakId -> {
+                throw new IllegalArgumentException("keycloak_id " + keycloakId + " appears more than once");
+            });
+
+            int purged = userCopyRepository.purgeCollidingTombstones();
+            userCopyRepository.mergeUsers();
+            userCopyRepository.mergeRoles();
+            userCopyRepository.logChanges();
+            Map<UserChangeType, Long> changes = userCopyRepository.countChanges();
+
+            UserImportResult result = UserImportResult.builder()
+                    .rows(rows)
+                    .created(changes.getOrDefault(UserChangeType.CREATED, 0L))
+                    .updated(changes.getOrDefault(UserChangeType.UPDATED, 0L))
+                    .rolesChanged(changes.getOrDefault(UserChangeType.ROLES_CHANGED, 0L))
+                    .build();
+            result.setUnchanged(rows - result.getCreated() - result.getUpdated() - result.getRolesChanged());
+
+            count("created", result.getCreated());
+            count("updated", result.getUpdated());
+            count("roles_changed", result.getRolesChanged());
+            log.info("Imported {} users as {} ({} tombstones purged): {} created, {} updated, {} roles changed, {} unchanged",
+                    rows, format, purged, result.getCreated(), result.getUpdated(), result.getRolesChanged(),
+                    result.getUnchanged());
+            return result;
+        });
+    }
+
+    private void count(String outcome, long amount) {
+        if (amount > 0) {
+            meterRegistry.counter("users.imported", "outcome", outcome).increment(amount);
+        }
+    }
+}
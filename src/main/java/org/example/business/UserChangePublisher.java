@@ -0,0 +1,124 @@
+package org.example.business;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.UserChangeEvent;
+import org.example.config.RabbitMQConfig;
+import org.example.domain.UserChangeType;
+import org.example.persistance.UserChangeRepository;
+import org.example.persistance.entity.UserChangeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangePublisher {
+
+    public static final int MAX_REPLAY_LIMIT = 1000;
+
+    private final UserChangeRepository userChangeRepository;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Qualifier("rabbitGuard")
+    private final DependencyGuard rabbitGuard;
+
+    /**
+     * Appends the change to the log (which assigns its sequence number) and
+     * publishes it once the surrounding transaction commits.
+     */
+    @Transactional
+    public UserChangeEvent recordChange(UserChangeType type, UserEntity user) {
+        UserChangeEntity change = userChangeRepository.save(UserChangeEntity.builder()
+                .type(type)
+                .keycloakId(user.getKeycloakId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .roles(user.getRoles() == null ? null : String.join(",", new TreeSet<>(user.getRoles())))
+                .occurredAt(Instant.now())
+                .build());
+
+        UserChangeEvent event = toEvent(change);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+
+        return event;
+    }
+
+    /**
+     * Returns logged changes after the one with the given sequence number, in feed order
+     * (UserChangeFeedRepository): a change not returned yet can only come after every change already returned,
+     * though its sequence number may be lower. Consumers resume from the last sequence number they received.
+     */
+    @Transactional(readOnly = true)
+    public List<UserChangeEvent> replay(long afterSequence, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_REPLAY_LIMIT);
+
+        return userChangeRepository.findFeedAfter(afterSequence, pageSize)
+                .stream()
+                .map(this::toEvent)
+                .collect(Collectors.toList());
+    }
+
+    private void publish(UserChangeEvent event) {
+        try {
+            rabbitGuard.run(() -> rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.USER_CHANGE_EXCHANGE,
+                    event.getType().getRoutingKey(),
+                    event
+            ));
+
+            log.debug("Published user change {} #{} for user: {}",
+                    event.getType(), event.getSequence(), event.getKeycloakId());
+        } catch (Exception e) {
+            // The change is already in the log, consumers recover it through replay
+            log.warn("Failed to publish user change #{} for user: {}",
+                    event.getSequence(), event.getKeycloakId(), e);
+        }
+    }
+
+    private UserChangeEvent toEvent(UserChangeEntity change) {
+        return UserChangeEvent.builder()
+                .schemaVersion(UserChangeEvent.SCHEMA_VERSION)
+                .sequence(change.getSequence())
+                .type(change.getType())
+                .keycloakId(change.getKeycloakId())
+                .username(change.getUsername())
+                .email(change.getEmail())
+                .firstName(change.getFirstName())
+                .lastName(change.getLastName())
+                .roles(parseRoles(change.getRoles()))
+                .occurredAt(change.getOccurredAt())
+                .build();
+    }
+
+    private Set<String> parseRoles(String roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(roles.split(",")).collect(Collectors.toSet());
+    }
+}
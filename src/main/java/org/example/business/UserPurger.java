@@ -0,0 +1,78 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.persistance.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Removes soft-deleted users and their roles in set-based batches.
+ * Scheduled for quiet hours; each batch is its own short transaction so row locks and
+ * WAL volume stay bounded, and a run stops after max-batches to leave room for traffic.
+ */
+@Service
+@Slf4j
+public class UserPurger {
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purged;
+
+    public UserPurger(UserRepository userRepository,
+                      MeterRegistry meterRegistry,
+                      Clock clock,
+                      @Value("${user-deletion.purge.enabled:true}") boolean enabled,
+                      @Value("${user-deletion.purge.grace-period:PT1H}") Duration gracePeriod,
+                      @Value("${user-deletion.purge.batch-size:1000}") int batchSize,
+                      @Value("${user-deletion.purge.max-batches:50}") int maxBatches) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purged = Counter.builder("users.purged").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${user-deletion.purge.cron:0 */10 1-5 * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * @return number of users removed in this run
+     */
+    public int purge() {
+        // deleted_at is written in local time, like created_at
+        LocalDateTime cutoff = LocalDateTime.ofInstant(clock.instant(), ZoneId.systemDefault()).minus(gracePeriod);
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int removed = userRepository.purgeDeleted(cutoff, batchSize);
+            total += removed;
+            purged.increment(removed);
+            if (removed < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} soft-deleted users older than {}", total, cutoff);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,412 @@
+package org.example.business;
+
+import com.google.protobuf.Timestamp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.proto.ReadModelSnapshot;
+import org.example.business.dto.proto.SnapshotUser;
+import org.example.business.impl.GetAllTherapistsImpl;
+import org.example.business.impl.ResolveUsersImpl;
+import org.example.domain.User;
+import org.example.persistance.UserChangeRepository;
+import org.example.persistance.entity.UserChangeEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process read model in front of {@link GetAllTherapistsImpl} and {@link ResolveUsersImpl}:
+ * the therapist list and a keycloakId to profile map, kept current by tailing user_change_log,
+ * which every user mutation appends to. Reads may lag writes by up to read-model.refresh-interval.
+ * <p>
+ * The model is written periodically to a local snapshot file and memory-mapped back at startup,
+ * so a restarted pod serves reads before touching Postgres. The first refresh validates the
+ * snapshot against the change log and invalidates whatever changed since it was written.
+ * The reactive profile reads through R2DBC and does not use it.
+ */
+@Service
+@Primary
+@Profile("!reactive")
+@Slf4j
+public class UserReadModel implements GetAllTherapists, ResolveUsers {
+
+    static final int FORMAT_VERSION = 1;
+
+    // The log is read in feed order (UserChangeFeedRepository), so every refresh reads on from the
+    // last applied entry without missing a change that commits late
+    static final int MAX_CHANGES_PER_REFRESH = 1000;
+
+    private final GetAllTherapistsImpl therapistLoader;
+    private final ResolveUsersImpl profileLoader;
+    private final UserChangeRepository userChangeRepository;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final Duration snapshotMaxAge;
+    private final int maxProfiles;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<String, User> profiles = new ConcurrentHashMap<>();
+    private volatile List<User> therapists;
+
+    // Guarded by this; profile loads only store their result if no invalidation happened meanwhile
+    private long appliedSequence = -1;
+    private long generation;
+    private long writtenSequence = -1;
+    private boolean validated;
+
+    public UserReadModel(GetAllTherapistsImpl therapistLoader,
+                         ResolveUsersImpl profileLoader,
+                         UserChangeRepository userChangeRepository,
+                         MeterRegistry meterRegistry,
+                         Clock clock,
+                         @Value("${read-model.enabled:true}") boolean enabled,
+                         @Value("${read-model.snapshot.path:}") String snapshotPath,
+                         @Value("${read-model.snapshot.max-age:PT24H}") Duration snapshotMaxAge,
+                         @Value("${read-model.max-profiles:100000}") int maxProfiles) {
+        this.therapistLoader = therapistLoader;
+        this.profileLoader = profileLoader;
+        this.userChangeRepository = userChangeRepository;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.snapshotMaxAge = snapshotMaxAge;
+        this.maxProfiles = maxProfiles;
+        this.hits = Counter.builder("read.model.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("read.model.lookups").tag("result", "miss").register(meterRegistry);
+
+        Gauge.builder("read.model.profiles", profiles, Map::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<User> getAllTherapists() {
+        if (!enabled) {
+            return therapistLoader.getAllTherapists();
+        }
+
+        List<User> current = therapists;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        long loadGeneration = generation();
+        List<User> loaded = List.copyOf(therapistLoader.getAllTherapists());
+        synchronized (this) {
+            if (generation == loadGeneration && therapists == null) {
+                therapists = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Serves cached profiles and loads only the missing ones, always with roles so the
+     * cached entry can answer either kind of request. Unknown ids are not cached.
+     */
+    @Override
+    public List<User> resolveUsers(Collection<String> keycloakIds, boolean includeRoles) {
+        if (!enabled) {
+            return profileLoader.resolveUsers(keycloakIds, includeRoles);
+        }
+        if (keycloakIds == null || keycloakIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = keycloakIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (ids.size() > ResolveUsersImpl.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Batch size " + ids.size() + " exceeds the maximum of " + ResolveUsersImpl.MAX_BATCH_SIZE);
+        }
+
+        List<User> users = new ArrayList<>(ids.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            User user = profiles.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(users.size());
+        misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            long loadGeneration = generation();
+            List<User> loaded = profileLoader.resolveUsers(missing, true);
+            storeProfiles(loaded, loadGeneration);
+            users.addAll(loaded);
+        }
+
+        return includeRoles ? users : users.stream().map(UserReadModel::withoutRoles).collect(Collectors.toList());
+    }
+
+    /**
+     * Applies changes logged since the last refresh: changed users are dropped from the profile map
+     * and the therapist list is reloaded. An empty model, or one whose last applied entry is not in the log
+     * (e.g. a snapshot from another database), starts over from the current end of the log.
+     */
+    @Scheduled(fixedDelayString = "${read-model.refresh-interval:PT5S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long applied = appliedSequence();
+
+            if (applied < 0 || (applied > 0 && !userChangeRepository.existsById(applied))) {
+                reset(userChangeRepository.findFeedEnd());
+                return;
+            }
+
+            List<UserChangeEntity> changes = userChangeRepository.findFeedAfter(applied, MAX_CHANGES_PER_REFRESH + 1);
+            if (changes.size() > MAX_CHANGES_PER_REFRESH) {
+                log.info("More than {} user changes since the read model was refreshed, reloading it",
+                        MAX_CHANGES_PER_REFRESH);
+                reset(userChangeRepository.findFeedEnd());
+                return;
+            }
+
+            if (apply(changes)) {
+                therapists = List.copyOf(therapistLoader.getAllTherapists());
+            }
+            synchronized (this) {
+                validated = true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Read model refresh failed, serving the current model: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the model to the snapshot file once it has been validated and whenever it has changed since.
+     * The file is replaced atomically, so a pod starting meanwhile reads either the old or the new one.
+     */
+    @Scheduled(fixedDelayString = "${read-model.snapshot.interval:PT1M}",
+            initialDelayString = "${read-model.snapshot.interval:PT1M}")
+    public void writeSnapshot() {
+        if (!enabled || snapshotPath == null) {
+            return;
+        }
+
+        ReadModelSnapshot snapshot;
+        synchronized (this) {
+            if (!validated || therapists == null || appliedSequence == writtenSequence) {
+                return;
+            }
+            snapshot = toSnapshot();
+        }
+
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "read-model-", ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                snapshot.writeTo(out);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            synchronized (this) {
+                writtenSequence = snapshot.getChangeSequence();
+            }
+            log.debug("Wrote read model snapshot at change {} ({} profiles)",
+                    snapshot.getChangeSequence(), snapshot.getProfilesCount());
+        } catch (IOException e) {
+            log.warn("Failed to write read model snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the snapshot, if there is a usable one, before the first request.
+     * It is served as is until the first refresh has validated it.
+     */
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!enabled || snapshotPath == null || !Files.isReadable(snapshotPath)) {
+            return;
+        }
+
+        ReadModelSnapshot snapshot;
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            snapshot = ReadModelSnapshot.parseFrom(mapped);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable read model snapshot {}: {}", snapshotPath, e.getMessage());
+            return;
+        }
+
+        Instant writtenAt = Instant.ofEpochSecond(snapshot.getWrittenAt().getSeconds(), snapshot.getWrittenAt().getNanos());
+        if (snapshot.getFormatVersion() != FORMAT_VERSION) {
+            log.info("Ignoring read model snapshot with format version {}", snapshot.getFormatVersion());
+            return;
+        }
+        if (writtenAt.plus(snapshotMaxAge).isBefore(clock.instant())) {
+            log.info("Ignoring read model snapshot written at {}, older than {}", writtenAt, snapshotMaxAge);
+            return;
+        }
+
+        synchronized (this) {
+            snapshot.getProfilesList().forEach(user -> profiles.put(user.getKeycloakId(), toUser(user)));
+            therapists = snapshot.getTherapistsList().stream()
+                    .map(UserReadModel::toUser)
+                    .collect(Collectors.toUnmodifiableList());
+            appliedSequence = snapshot.getChangeSequence();
+            writtenSequence = snapshot.getChangeSequence();
+        }
+        log.info("Loaded read model snapshot at change {} written {}: {} therapists, {} profiles",
+                snapshot.getChangeSequence(), writtenAt, snapshot.getTherapistsCount(), snapshot.getProfilesCount());
+    }
+
+    private void reset(long latest) {
+        synchronized (this) {
+            generation++;
+            profiles.clear();
+            appliedSequence = latest;
+        }
+        therapists = List.copyOf(therapistLoader.getAllTherapists());
+        synchronized (this) {
+            validated = true;
+        }
+        log.info("Read model reloaded at change {}", latest);
+    }
+
+    /**
+     * Invalidates users changed by the given changes, in feed order; returns whether there were any
+     */
+    private synchronized boolean apply(List<UserChangeEntity> changes) {
+        if (changes.isEmpty()) {
+            return false;
+        }
+
+        generation++;
+        for (UserChangeEntity change : changes) {
+            profiles.remove(change.getKeycloakId());
+            appliedSequence = change.getSequence();
+        }
+        log.debug("Applied {} user changes to the read model, now at change {}", changes.size(), appliedSequence);
+        return true;
+    }
+
+    private synchronized void storeProfiles(List<User> loaded, long loadGeneration) {
+        if (generation != loadGeneration) {
+            return;
+        }
+        for (User user : loaded) {
+            if (profiles.size() >= maxProfiles) {
+                break;
+            }
+            profiles.put(user.getKeycloakId(), user);
+        }
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized long appliedSequence() {
+        return appliedSequence;
+    }
+
+    private ReadModelSnapshot toSnapshot() {
+        Instant now = clock.instant();
+        ReadModelSnapshot.Builder snapshot = ReadModelSnapshot.newBuilder()
+                .setFormatVersion(FORMAT_VERSION)
+                .setChangeSequence(appliedSequence)
+                .setWrittenAt(Timestamp.newBuilder().setSeconds(now.getEpochSecond()).setNanos(now.getNano()));
+        therapists.forEach(user -> snapshot.addTherapists(toSnapshotUser(user)));
+        profiles.values().forEach(user -> snapshot.addProfiles(toSnapshotUser(user)));
+        return snapshot.build();
+    }
+
+    private static SnapshotUser toSnapshotUser(User user) {
+        SnapshotUser.Builder snapshotUser = SnapshotUser.newBuilder()
+                .setId(user.getId())
+                .setKeycloakId(user.getKeycloakId())
+                .setUsername(user.getUsername());
+        if (user.getEmail() != null) {
+            snapshotUser.setEmail(user.getEmail());
+        }
+        if (user.getFirstName() != null) {
+            snapshotUser.setFirstName(user.getFirstName());
+        }
+        if (user.getLastName() != null) {
+            snapshotUser.setLastName(user.getLastName());
+        }
+        if (user.getCreatedAt() != null) {
+            snapshotUser.setCreatedAt(Timestamp.newBuilder()
+                    .setSeconds(user.getCreatedAt().toEpochSecond(ZoneOffset.UTC))
+                    .setNanos(user.getCreatedAt().getNano()));
+        }
+        if (user.getRoles() != null) {
+            snapshotUser.addAllRoles(user.getRoles());
+        }
+        return snapshotUser.build();
+    }
+
+    private static User toUser(SnapshotUser snapshotUser) {
+        return User.builder()
+                .id(snapshotUser.getId())
+                .keycloakId(snapshotUser.getKeycloakId())
+                .username(snapshotUser.getUsername())
+                .email(snapshotUser.hasEmail() ? snapshotUser.getEmail() : null)
+                .firstName(snapshotUser.hasFirstName() ? snapshotUser.getFirstName() : null)
+                .lastName(snapshotUser.hasLastName() ? snapshotUser.getLastName() : null)
+                .createdAt(snapshotUser.hasCreatedAt()
+                        ? LocalDateTime.ofEpochSecond(snapshotUser.getCreatedAt().getSeconds(),
+                                snapshotUser.getCreatedAt().getNanos(), ZoneOffset.UTC)
+                        : null)
+                .roles(new HashSet<>(snapshotUser.getRolesList()))
+                .build();
+    }
+
+    private static User withoutRoles(User user) {
+        return User.builder()
+                .id(user.getId())
+                .keycloakId(user.getKeycloakId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.business;
+
+import org.example.business.dto.ReconciliationResult;
+
+public interface UserReconciliation {
+    ReconciliationResult reconcile();
+}
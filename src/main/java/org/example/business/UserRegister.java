@@ -1,10 +1,18 @@
 package org.example.business;
 
+import org.example.domain.Registration;
 import org.example.domain.User;
 
+import java.util.List;
 import java.util.Set;
 
 public interface UserRegister {
     User register(String keycloakId, String username, String email,
                   String firstName, String lastName, Set<String> roles);
+
+    /**
+     * Registers all in one transaction, in order, returning the users in the same order.
+     * Any failure rolls back the whole batch.
+     */
+    List<User> registerAll(List<Registration> registrations);
 }
@@ -0,0 +1,12 @@
+package org.example.business;
+
+import org.example.persistance.entity.UserEntity;
+
+public interface UserRemover {
+
+    /**
+     * Removes the user from the local database (soft delete unless user-deletion.soft-delete is false)
+     * and records the deletion on the change feed, in one transaction
+     */
+    void remove(UserEntity user);
+}
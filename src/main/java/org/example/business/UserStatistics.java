@@ -0,0 +1,203 @@
+package org.example.business;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.dto.UserStatsResponse;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.DayCountView;
+import org.example.persistance.projection.RoleCountView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory user counts per role and per registration day, kept up to date by the write paths
+ * and periodically corrected against the database, so dashboards can poll without touching it.
+ * Counters are LongAdders: registrations only contend on a striped cell, never on a shared lock.
+ * Each pod only sees its own writes between reconciliations, so the counts are per pod and approximate:
+ * writes made through other pods show up after the next reconcile().
+ */
+@Service
+@Slf4j
+public class UserStatistics {
+
+    private final UserRepository userRepository;
+    private final Clock clock;
+    private final int retentionDays;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byRole = new ConcurrentHashMap<>();
+    private final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+    private volatile Instant reconciledAt;
+
+    public UserStatistics(UserRepository userRepository,
+                          Clock clock,
+                          @Value("${user-stats.retention-days:31}") int retentionDays) {
+        this.userRepository = userRepository;
+        this.clock = clock;
+        this.retentionDays = retentionDays;
+    }
+
+    public void recordRegistered(Set<String> roles, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            total.increment();
+            counter(byRole, roles).forEach(LongAdder::increment);
+            if (createdAt != null) {
+                byDay.computeIfAbsent(createdAt.toLocalDate(), day -> new LongAdder()).increment();
+            }
+        });
+    }
+
+    public void recordRolesChanged(Set<String> previousRoles, Set<String> roles) {
+        Set<String> added = difference(roles, previousRoles);
+        Set<String> removed = difference(previousRoles, roles);
+        afterCommit(() -> {
+            counter(byRole, added).forEach(LongAdder::increment);
+            counter(byRole, removed).forEach(LongAdder::decrement);
+        });
+    }
+
+    public void recordDeleted(Set<String> roles, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            total.decrement();
+            counter(byRole, roles).forEach(LongAdder::decrement);
+            if (createdAt != null) {
+                LongAdder day = byDay.get(createdAt.toLocalDate());
+                if (day != null) {
+                    day.decrement();
+                }
+            }
+        });
+    }
+
+    public UserStatsResponse snapshot() {
+        LocalDate today = today();
+
+        Map<String, Long> roles = new TreeMap<>();
+        byRole.forEach((role, count) -> roles.put(role, count.sum()));
+
+        Map<LocalDate, Long> days = new TreeMap<>();
+        long lastWeek = 0;
+        for (Map.Entry<LocalDate, LongAdder> entry : byDay.entrySet()) {
+            long count = entry.getValue().sum();
+            days.put(entry.getKey(), count);
+            if (entry.getKey().isAfter(today.minusDays(7))) {
+                lastWeek += count;
+            }
+        }
+
+        return UserStatsResponse.builder()
+                .totalUsers(total.sum())
+                .usersByRole(roles)
+                .registeredToday(days.getOrDefault(today, 0L))
+                .registeredLast7Days(lastWeek)
+                .registrationsByDay(days)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Replaces drift with the database counts. Every counter is read before the queries run and moved by the
+     * difference between the query result and that reading, so writes recorded after the reading are kept.
+     * A write that commits between the reading and the query is counted twice until the next run, so the
+     * counts stay approximate while writes are in flight.
+     */
+    @Scheduled(fixedDelayString = "${user-stats.reconcile-interval:PT10M}", initialDelayString = "PT0S")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        LocalDate oldest = today().minusDays(retentionDays - 1L);
+
+        byDay.keySet().removeIf(day -> day.isBefore(oldest));
+        long totalBefore = total.sum();
+        Map<String, Long> rolesBefore = readings(byRole);
+        Map<LocalDate, Long> daysBefore = readings(byDay);
+
+        adjust(total, totalBefore, userRepository.count());
+
+        Map<String, Long> roleCounts = new HashMap<>();
+        for (RoleCountView row : userRepository.countByRole()) {
+            roleCounts.put(row.getRole(), row.getTotal());
+        }
+        rolesBefore.forEach((role, before) -> adjust(byRole.get(role), before, roleCounts.getOrDefault(role, 0L)));
+        roleCounts.forEach((role, count) -> {
+            if (!rolesBefore.containsKey(role)) {
+                adjust(byRole.computeIfAbsent(role, r -> new LongAdder()), 0L, count);
+            }
+        });
+
+        Map<LocalDate, Long> dayCounts = new HashMap<>();
+        for (DayCountView row : userRepository.countRegistrationsByDaySince(oldest.atStartOfDay())) {
+            dayCounts.put(row.getDay(), row.getTotal());
+        }
+        daysBefore.forEach((day, before) -> adjust(byDay.get(day), before, dayCounts.getOrDefault(day, 0L)));
+        dayCounts.forEach((day, count) -> {
+            if (!daysBefore.containsKey(day)) {
+                adjust(byDay.computeIfAbsent(day, d -> new LongAdder()), 0L, count);
+            }
+        });
+
+        reconciledAt = clock.instant();
+        log.debug("User statistics reconciled: {} users", total.sum());
+    }
+
+    private <K> Map<K, Long> readings(Map<K, LongAdder> counters) {
+        Map<K, Long> readings = new HashMap<>();
+        counters.forEach((key, counter) -> readings.put(key, counter.sum()));
+        return readings;
+    }
+
+    private void adjust(LongAdder counter, long before, long actual) {
+        if (counter != null) {
+            counter.add(actual - before);
+        }
+    }
+
+    private LocalDate today() {
+        // created_at is written in local time
+        return LocalDate.ofInstant(clock.instant(), ZoneId.systemDefault());
+    }
+
+    private Set<LongAdder> counter(Map<String, LongAdder> counters, Set<String> keys) {
+        Set<LongAdder> adders = new HashSet<>();
+        if (keys != null) {
+            keys.forEach(key -> adders.add(counters.computeIfAbsent(key, k -> new LongAdder())));
+        }
+        return adders;
+    }
+
+    private Set<String> difference(Set<String> left, Set<String> right) {
+        Set<String> result = left == null ? new HashSet<>() : new HashSet<>(left);
+        if (right != null) {
+            result.removeAll(right);
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
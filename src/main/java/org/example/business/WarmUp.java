@@ -0,0 +1,165 @@
+package org.example.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.impl.GetAllTherapistsImpl;
+import org.example.business.impl.ResolveUsersImpl;
+import org.example.domain.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exercises the hot paths before the pod takes traffic: fills the connection pool, fetches the
+ * Keycloak admin token and runs the listing, lookup and search paths until the JIT has compiled them.
+ * The listing and lookups go to the Postgres-backed implementations directly: the read model in front
+ * of them would answer from memory, and fills itself on its first refresh.
+ * Runs in the ApplicationReadyEvent, so Boot's own readiness state only flips afterwards; the
+ * indicator keeps the readiness group DOWN until then.
+ * Every step is best effort: a failing dependency is logged, it does not keep the pod out of service.
+ */
+@Service
+@Slf4j
+public class WarmUp implements HealthIndicator {
+
+    private static final String PROBE_QUERY = "a";
+    // Typical size of a batch lookup from the other services
+    private static final int LOOKUP_BATCH_SIZE = 50;
+
+    private final GetAllTherapistsImpl getAllTherapists;
+    private final ResolveUsersImpl resolveUsers;
+    private final SearchTherapists searchTherapists;
+    private final KeycloakAdminService keycloakAdminService;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+    private final int connections;
+
+    private volatile Instant completedAt;
+    private volatile Duration took;
+
+    public WarmUp(GetAllTherapistsImpl getAllTherapists,
+                  ResolveUsersImpl resolveUsers,
+                  SearchTherapists searchTherapists,
+                  KeycloakAdminService keycloakAdminService,
+                  DataSource dataSource,
+                  ObjectMapper objectMapper,
+                  Clock clock,
+                  @Value("${warm-up.enabled:true}") boolean enabled,
+                  @Value("${warm-up.iterations:200}") int iterations,
+                  @Value("${warm-up.max-duration:PT30S}") Duration maxDuration,
+                  @Value("${warm-up.connections:8}") int connections) {
+        this.getAllTherapists = getAllTherapists;
+        this.resolveUsers = resolveUsers;
+        this.searchTherapists = searchTherapists;
+        this.keycloakAdminService = keycloakAdminService;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        this.connections = connections;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant start = clock.instant();
+        if (enabled) {
+            log.info("Warming up: {} connections, up to {} iterations in {}", connections, iterations, maxDuration);
+
+            fillConnectionPool();
+            step("Keycloak admin token", keycloakAdminService::getAdminToken);
+            List<String> keycloakIds = new ArrayList<>();
+            step("lookup ids", () -> keycloakIds.addAll(lookupIds()));
+            step("request paths", () -> exercise(keycloakIds, start.plus(maxDuration)));
+        }
+
+        took = Duration.between(start, clock.instant());
+        completedAt = clock.instant();
+        log.info("Warm-up finished in {} ms", took.toMillis());
+    }
+
+    @Override
+    public Health health() {
+        if (completedAt == null) {
+            return Health.down().withDetail("phase", "warming up").build();
+        }
+        return Health.up()
+                .withDetail("completedAt", completedAt)
+                .withDetail("durationMs", took.toMillis())
+                .build();
+    }
+
+    /**
+     * Holds the connections together, otherwise the pool keeps handing back the same one
+     */
+    private void fillConnectionPool() {
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                held.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up opened {} of {} connections: {}", held.size(), connections, e.getMessage());
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to return warm-up connection", e);
+                }
+            }
+        }
+    }
+
+    private List<String> lookupIds() {
+        return getAllTherapists.getAllTherapists().stream()
+                .limit(LOOKUP_BATCH_SIZE)
+                .map(User::getKeycloakId)
+                .toList();
+    }
+
+    private void exercise(List<String> batch, Instant deadline) throws Exception {
+        int completed = 0;
+        while (completed < iterations && clock.instant().isBefore(deadline)) {
+            // Serialize as the controllers would, so Jackson's serializers are warm too
+            objectMapper.writeValueAsString(getAllTherapists.getAllTherapists());
+            objectMapper.writeValueAsString(searchTherapists.searchTherapists(PROBE_QUERY, false, 0, 20).getContent());
+            objectMapper.writeValueAsString(searchTherapists.searchTherapists(PROBE_QUERY, true, 0, 20).getContent());
+            if (!batch.isEmpty()) {
+                objectMapper.writeValueAsString(resolveUsers.resolveUsers(batch, true));
+            }
+            completed++;
+        }
+        log.debug("Warm-up ran the request paths {} times", completed);
+    }
+
+    private void step(String name, WarmUpStep step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed: {}", name, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmUpStep {
+        void run() throws Exception;
+    }
+}
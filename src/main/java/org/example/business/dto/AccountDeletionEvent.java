@@ -11,6 +11,6 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AccountDeletionEvent {
     private String userKeycloakId;
-    private LocalDateTime deletionTimestamp;
+    private LocalDateTime deletionTimestamp; // UTC
     private String reason;
 }
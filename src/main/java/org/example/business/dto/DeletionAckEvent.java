@@ -0,0 +1,23 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Sent by the assignment, scheduling and journal services once they have purged a deleted user's data
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionAckEvent {
+    private String userKeycloakId;
+    private String service; // assignment, scheduling or journal
+    private boolean success;
+    private String error;
+    private Instant completedAt;
+}
@@ -0,0 +1,23 @@
+package org.example.business.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Subset of Keycloak's UserRepresentation used for reconciliation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class KeycloakUser {
+    private String id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+}
@@ -0,0 +1,22 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationResult {
+    private int startOffset;
+    private int pages;
+    private int scanned;
+    private int created;
+    private int updated;
+    private int unchanged;
+    // Left for the next run: username or email held by another live user, or deleted while the page was applied
+    private int skipped;
+    private boolean completed;
+}
@@ -0,0 +1,25 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordedSpan {
+    private String traceId;
+    private String spanId;
+    private String parentSpanId;
+    private String name;
+    private String kind;
+    private Instant startedAt;
+    private double durationMs;
+    private String status;
+    private Map<String, String> attributes;
+}
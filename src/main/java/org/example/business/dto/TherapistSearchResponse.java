@@ -0,0 +1,19 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TherapistSearchResponse {
+    private List<UserListResponse> results;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,29 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.domain.UserChangeType;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEvent {
+    public static final int SCHEMA_VERSION = 1;
+
+    private int schemaVersion;
+    private long sequence;
+    private UserChangeType type;
+    private String keycloakId;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Set<String> roles;
+    private Instant occurredAt;
+}
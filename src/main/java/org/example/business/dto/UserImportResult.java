@@ -0,0 +1,18 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+    private long rows;
+    private long created;
+    private long updated;
+    private long rolesChanged;
+    private long unchanged;
+}
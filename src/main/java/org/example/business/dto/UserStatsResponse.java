@@ -0,0 +1,23 @@
+package org.example.business.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsResponse {
+    private long totalUsers;
+    private Map<String, Long> usersByRole;
+    private long registeredToday;
+    private long registeredLast7Days;
+    private Map<LocalDate, Long> registrationsByDay;
+    private Instant reconciledAt;
+}
@@ -4,10 +4,13 @@ import lombok.RequiredArgsConstructor;
 import org.example.business.GetAllTherapists;
 import org.example.domain.User;
 import org.example.persistance.UserRepository;
-import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.UserProfileView;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,25 +20,18 @@ public class GetAllTherapistsImpl implements GetAllTherapists {
     private final UserRepository userRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllTherapists() {
-        // ✅ Efficient: directly fetch from DB only users with therapist role
-        List<UserEntity> entities = userRepository.findAllByRoles("client_therapist");
+        // Column projections instead of managed entities: nothing is snapshotted for dirty checking
+        List<UserProfileView> profiles = userRepository.findProfilesByRole("client_therapist");
+        if (profiles.isEmpty()) {
+            return List.of();
+        }
 
-        return entities.stream()
-                .map(this::toUser)
-                .collect(Collectors.toList());
-    }
+        Map<Long, Set<String>> rolesByUser = UserProfiles.loadRoles(userRepository, profiles);
 
-    private User toUser(UserEntity entity) {
-        return User.builder()
-                .id(entity.getId())
-                .keycloakId(entity.getKeycloakId())
-                .username(entity.getUsername())
-                .email(entity.getEmail())
-                .firstName(entity.getFirstName())
-                .lastName(entity.getLastName())
-                .createdAt(entity.getCreatedAt())
-                .roles(entity.getRoles())
-                .build();
+        return profiles.stream()
+                .map(profile -> UserProfiles.toUser(profile, rolesByUser.getOrDefault(profile.getId(), Set.of())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,59 @@
+package org.example.business.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.business.ResolveUsers;
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.UserProfileView;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ResolveUsersImpl implements ResolveUsers {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private final UserRepository userRepository;
+
+    /**
+     * Resolves a batch of keycloak ids with one profile query, plus one roles
+     * query only when roles are requested. Unknown ids are simply absent from the result.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> resolveUsers(Collection<String> keycloakIds, boolean includeRoles) {
+        if (keycloakIds == null || keycloakIds.isEmpty()) {
+            return List.of();
+        }
+
+        String[] ids = keycloakIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(String[]::new);
+
+        if (ids.length > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Batch size " + ids.length + " exceeds the maximum of " + MAX_BATCH_SIZE);
+        }
+
+        List<UserProfileView> profiles = userRepository.findProfilesByKeycloakIds(ids);
+
+        Map<Long, Set<String>> rolesByUser = includeRoles && !profiles.isEmpty()
+                ? UserProfiles.loadRoles(userRepository, profiles)
+                : Map.of();
+
+        return profiles.stream()
+                .map(profile -> UserProfiles.toUser(profile, includeRoles
+                        ? rolesByUser.getOrDefault(profile.getId(), Set.of())
+                        : null))
+                .collect(Collectors.toList());
+    }
+}
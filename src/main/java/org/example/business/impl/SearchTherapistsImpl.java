@@ -0,0 +1,72 @@
+package org.example.business.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.business.SearchTherapists;
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.UserProfileView;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class SearchTherapistsImpl implements SearchTherapists {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private final UserRepository userRepository;
+
+    /**
+     * Case-insensitive search over username, email, first and last name.
+     * Prefix matching by default, substring matching when {@code contains} is set;
+     * both are served by the pg_trgm indexes created by the V3 migration.
+     * Returns a slice rather than a page so no COUNT(*) is issued per request.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<User> searchTherapists(String query, boolean contains, int page, int size) {
+        String pattern = likePattern(query, contains);
+
+        PageRequest pageRequest = PageRequest.of(
+                Math.max(page, 0),
+                Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+        Slice<UserProfileView> profiles = userRepository.searchByRole("client_therapist", pattern, pageRequest);
+        Map<Long, Set<String>> rolesByUser = profiles.hasContent()
+                ? UserProfiles.loadRoles(userRepository, profiles.getContent())
+                : Map.of();
+
+        return profiles.map(profile -> UserProfiles.toUser(profile, rolesByUser.getOrDefault(profile.getId(), Set.of())));
+    }
+
+    /**
+     * Lower-cased, length-capped and LIKE-escaped pattern for the trigram-indexed columns
+     */
+    public static String likePattern(String query, boolean contains) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+
+        String term = query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() > MAX_QUERY_LENGTH) {
+            term = term.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        String escaped = escapeLike(term);
+        return contains ? "%" + escaped + "%" : escaped + "%";
+    }
+
+    // Postgres uses backslash as the default LIKE escape character
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
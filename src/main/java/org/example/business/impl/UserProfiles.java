@@ -0,0 +1,49 @@
+package org.example.business.impl;
+
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns profile projections into domain users, with the roles of a whole batch read in one query
+ */
+final class UserProfiles {
+
+    private UserProfiles() {
+    }
+
+    /**
+     * @return roles by user id; users without roles are absent
+     */
+    static Map<Long, Set<String>> loadRoles(UserRepository userRepository, Collection<UserProfileView> profiles) {
+        Long[] userIds = profiles.stream()
+                .map(UserProfileView::getId)
+                .toArray(Long[]::new);
+
+        Map<Long, Set<String>> rolesByUser = new HashMap<>();
+        for (UserRoleView role : userRepository.findRolesByUserIds(userIds)) {
+            rolesByUser.computeIfAbsent(role.getUserId(), id -> new HashSet<>()).add(role.getRole());
+        }
+        return rolesByUser;
+    }
+
+    static User toUser(UserProfileView profile, Set<String> roles) {
+        return User.builder()
+                .id(profile.getId())
+                .keycloakId(profile.getKeycloakId())
+                .username(profile.getUsername())
+                .email(profile.getEmail())
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .createdAt(profile.getCreatedAt())
+                .roles(roles)
+                .build();
+    }
+}
@@ -0,0 +1,360 @@
+package org.example.business.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.KeycloakAdminService;
+import org.example.business.UserChangePublisher;
+import org.example.business.UserReconciliation;
+import org.example.business.dto.KeycloakUser;
+import org.example.business.dto.ReconciliationResult;
+import org.example.domain.UserChangeType;
+import org.example.persistance.AdvisoryLockRepository;
+import org.example.persistance.ReconciliationCheckpointRepository;
+import org.example.persistance.UserRepository;
+import org.example.persistance.entity.ReconciliationCheckpointEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.UserProfileView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pages through Keycloak's admin users API and brings the local users table in line with it.
+ * Pages are fetched ahead with bounded concurrency but applied in order, so the checkpoint
+ * only ever points past pages that have been fully written.
+ * Only profile fields are reconciled for existing users; roles stay owned by /register.
+ * <p>
+ * One run at a time across all instances, under a PostgreSQL advisory lock. Keycloak calls are made
+ * outside the page transactions. A user whose username or email is held by another live user is
+ * skipped and logged rather than failing its page, so one conflict cannot stall every later run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserReconciliationImpl implements UserReconciliation {
+
+    static final String CHECKPOINT_NAME = "keycloak-users";
+    static final String LOCK_NAME = "reconciliation:" + CHECKPOINT_NAME;
+
+    private final KeycloakAdminService keycloakAdminService;
+    private final UserRepository userRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final UserChangePublisher userChangePublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final AdvisoryLockRepository advisoryLockRepository;
+
+    @Value("${reconciliation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${reconciliation.page-size:500}")
+    private int pageSize;
+
+    @Value("${reconciliation.concurrency:4}")
+    private int concurrency;
+
+    @Scheduled(fixedDelayString = "${reconciliation.interval:PT6H}",
+            initialDelayString = "${reconciliation.initial-delay:PT5M}")
+    public void scheduledReconcile() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    @Override
+    public ReconciliationResult reconcile() {
+        Optional<AdvisoryLockRepository.Lock> lock = advisoryLockRepository.tryLock(LOCK_NAME);
+        if (lock.isEmpty()) {
+            log.info("Reconciliation already running, skipping");
+            return ReconciliationResult.builder().build();
+        }
+
+        ExecutorService fetchPool = Executors.newFixedThreadPool(Math.max(concurrency, 1));
+        try {
+            return run(fetchPool);
+        } finally {
+            fetchPool.shutdownNow();
+            lock.get().close();
+        }
+    }
+
+    private ReconciliationResult run(ExecutorService fetchPool) {
+        ReconciliationCheckpointEntity checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> ReconciliationCheckpointEntity.builder().name(CHECKPOINT_NAME).build());
+
+        int offset = checkpoint.getNextOffset();
+        ReconciliationResult result = ReconciliationResult.builder().startOffset(offset).build();
+        log.info("Starting Keycloak reconciliation at offset {}", offset);
+
+        // Sliding window of in-flight page fetches
+        Deque<Future<List<KeycloakUser>>> window = new ArrayDeque<>();
+        int nextFetch = offset;
+        for (int i = 0; i < Math.max(concurrency, 1); i++) {
+            window.add(submitFetch(fetchPool, nextFetch));
+            nextFetch += pageSize;
+        }
+
+        while (!window.isEmpty()) {
+            List<KeycloakUser> page = await(window.poll(), offset);
+
+            Map<String, Set<String>> newUserRoles = fetchRolesOfNewUsers(fetchPool, page, offset);
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> applyPage(page, newUserRoles, result));
+            offset += page.size();
+            result.setPages(result.getPages() + 1);
+
+            if (page.size() < pageSize) {
+                window.forEach(future -> future.cancel(true));
+                break;
+            }
+
+            saveCheckpoint(checkpoint, offset, false);
+            window.add(submitFetch(fetchPool, nextFetch));
+            nextFetch += pageSize;
+        }
+
+        saveCheckpoint(checkpoint, 0, true);
+        result.setCompleted(true);
+
+        log.info("Keycloak reconciliation finished: {} scanned, {} created, {} updated, {} unchanged, {} skipped",
+                result.getScanned(), result.getCreated(), result.getUpdated(), result.getUnchanged(),
+                result.getSkipped());
+        return result;
+    }
+
+    private Future<List<KeycloakUser>> submitFetch(ExecutorService fetchPool, int first) {
+        return fetchPool.submit(() -> keycloakAdminService.listUsers(first, pageSize));
+    }
+
+    private <T> T await(Future<T> future, int offset) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconciliation interrupted at offset " + offset);
+        } catch (ExecutionException e) {
+            log.error("Reconciliation stopped at offset {}, will resume from there", offset, e.getCause());
+            throw new RuntimeException("Reconciliation failed at offset " + offset + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Realm roles of the users on the page that are not in the local table yet, fetched on the fetch pool
+     * before the page's transaction so it does not wait on Keycloak
+     */
+    private Map<String, Set<String>> fetchRolesOfNewUsers(ExecutorService fetchPool, List<KeycloakUser> page,
+                                                          int offset) {
+        Set<String> known = findLocal(page).keySet();
+        Map<String, Future<Set<String>>> pending = new HashMap<>();
+        for (KeycloakUser remote : page) {
+            if (!known.contains(remote.getId())) {
+                pending.put(remote.getId(), fetchPool.submit(() -> keycloakAdminService.getRealmRoles(remote.getId())));
+            }
+        }
+
+        Map<String, Set<String>> roles = new HashMap<>();
+        try {
+            for (Map.Entry<String, Future<Set<String>>> fetch : pending.entrySet()) {
+                roles.put(fetch.getKey(), await(fetch.getValue(), offset));
+            }
+        } finally {
+            pending.values().forEach(future -> future.cancel(true));
+        }
+        return roles;
+    }
+
+    private void applyPage(List<KeycloakUser> page, Map<String, Set<String>> newUserRoles,
+                           ReconciliationResult result) {
+        if (page.isEmpty()) {
+            return;
+        }
+        result.setScanned(result.getScanned() + page.size());
+
+        Map<String, UserProfileView> localByKeycloakId = findLocal(page);
+
+        List<KeycloakUser> missing = new ArrayList<>();
+        Map<Long, KeycloakUser> changed = new HashMap<>();
+
+        for (KeycloakUser remote : page) {
+            UserProfileView local = localByKeycloakId.get(remote.getId());
+            if (local == null) {
+                missing.add(remote);
+            } else if (!Arrays.equals(profileHash(remote), profileHash(local))) {
+                changed.put(local.getId(), remote);
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+        }
+
+        List<KeycloakUser> writes = new ArrayList<>(missing);
+        writes.addAll(changed.values());
+        if (writes.isEmpty()) {
+            return;
+        }
+        purgeCollidingTombstones(writes);
+        Set<String> conflicting = findConflicts(writes);
+
+        List<UserEntity> created = new ArrayList<>();
+        for (KeycloakUser remote : missing) {
+            Set<String> roles = newUserRoles.get(remote.getId());
+            if (conflicting.contains(remote.getId()) || roles == null) {
+                // Conflicting, or deleted locally since its roles were fetched; a later run picks it up
+                skip(result);
+            } else {
+                created.add(toNewEntity(remote, roles));
+            }
+        }
+
+        // Only the deltas are loaded as entities and written back, in one batch each
+        List<UserEntity> updated = new ArrayList<>();
+        if (!changed.isEmpty()) {
+            for (UserEntity entity : userRepository.findAllForUpdateByIds(changed.keySet())) {
+                KeycloakUser remote = changed.get(entity.getId());
+                if (conflicting.contains(remote.getId())) {
+                    skip(result);
+                    continue;
+                }
+                entity.setUsername(remote.getUsername());
+                entity.setEmail(remote.getEmail());
+                entity.setFirstName(remote.getFirstName());
+                entity.setLastName(remote.getLastName());
+                updated.add(entity);
+            }
+            userRepository.saveAll(updated);
+        }
+        if (!created.isEmpty()) {
+            created = userRepository.saveAll(created);
+        }
+
+        created.forEach(entity -> userChangePublisher.recordChange(UserChangeType.CREATED, entity));
+        updated.forEach(entity -> userChangePublisher.recordChange(UserChangeType.UPDATED, entity));
+
+        result.setCreated(result.getCreated() + created.size());
+        result.setUpdated(result.getUpdated() + updated.size());
+    }
+
+    private Map<String, UserProfileView> findLocal(List<KeycloakUser> page) {
+        String[] keycloakIds = page.stream().map(KeycloakUser::getId).toArray(String[]::new);
+        return userRepository.findProfilesByKeycloakIds(keycloakIds)
+                .stream()
+                .collect(Collectors.toMap(UserProfileView::getKeycloakId, Function.identity()));
+    }
+
+    /**
+     * Soft-deleted users not yet purged still hold their unique keycloak_id, username and email.
+     * Checked first so pages without tombstones stay a read instead of a locking DELETE.
+     */
+    private void purgeCollidingTombstones(List<KeycloakUser> writes) {
+        String[] keycloakIds = writes.stream().map(KeycloakUser::getId).toArray(String[]::new);
+        String[] usernames = writes.stream().map(KeycloakUser::getUsername).toArray(String[]::new);
+        String[] emails = writes.stream().map(KeycloakUser::getEmail).filter(Objects::nonNull).toArray(String[]::new);
+        if (userRepository.existsDeletedMatchingAny(keycloakIds, usernames, emails)) {
+            int purged = userRepository.purgeDeletedMatchingAny(keycloakIds, usernames, emails);
+            log.info("Purged {} soft-deleted users holding values of reconciled users", purged);
+        }
+    }
+
+    /**
+     * Keycloak ids of the given users whose username or email another live user holds;
+     * writing them would fail the page's transaction on a unique constraint
+     */
+    private Set<String> findConflicts(List<KeycloakUser> writes) {
+        String[] usernames = writes.stream().map(KeycloakUser::getUsername).toArray(String[]::new);
+        String[] emails = writes.stream().map(KeycloakUser::getEmail).filter(Objects::nonNull).toArray(String[]::new);
+
+        Map<String, String> usernameHolders = new HashMap<>();
+        Map<String, String> emailHolders = new HashMap<>();
+        for (UserProfileView holder : userRepository.findProfilesHoldingAny(usernames, emails)) {
+            usernameHolders.put(holder.getUsername(), holder.getKeycloakId());
+            if (holder.getEmail() != null) {
+                emailHolders.put(holder.getEmail(), holder.getKeycloakId());
+            }
+        }
+
+        Set<String> conflicting = new HashSet<>();
+        for (KeycloakUser remote : writes) {
+            String usernameHolder = usernameHolders.get(remote.getUsername());
+            String emailHolder = remote.getEmail() == null ? null : emailHolders.get(remote.getEmail());
+            if ((usernameHolder != null && !usernameHolder.equals(remote.getId()))
+                    || (emailHolder != null && !emailHolder.equals(remote.getId()))) {
+                log.warn("Skipping Keycloak user {}: username {} or email held by local user {}",
+                        remote.getId(), remote.getUsername(), usernameHolder != null ? usernameHolder : emailHolder);
+                conflicting.add(remote.getId());
+            }
+        }
+        return conflicting;
+    }
+
+    private static void skip(ReconciliationResult result) {
+        result.setSkipped(result.getSkipped() + 1);
+    }
+
+    private UserEntity toNewEntity(KeycloakUser remote, Set<String> roles) {
+        return UserEntity.builder()
+                .keycloakId(remote.getId())
+                .username(remote.getUsername())
+                .email(remote.getEmail())
+                .firstName(remote.getFirstName())
+                .lastName(remote.getLastName())
+                .roles(roles)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void saveCheckpoint(ReconciliationCheckpointEntity checkpoint, int nextOffset, boolean completed) {
+        checkpoint.setNextOffset(nextOffset);
+        checkpoint.setUpdatedAt(Instant.now());
+        if (completed) {
+            checkpoint.setLastCompletedAt(checkpoint.getUpdatedAt());
+        }
+        checkpointRepository.save(checkpoint);
+    }
+
+    private byte[] profileHash(KeycloakUser user) {
+        return profileHash(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName());
+    }
+
+    private byte[] profileHash(UserProfileView user) {
+        return profileHash(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName());
+    }
+
+    private byte[] profileHash(String... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                if (field != null) {
+                    digest.update(field.getBytes(StandardCharsets.UTF_8));
+                }
+                // Separator keeps ("ab", "c") and ("a", "bc") apart; null and "" hash the same
+                digest.update((byte) 0);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,40 +1,133 @@
 package org.example.business.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.business.UserChangePublisher;
 import org.example.business.UserRegister;
+import org.example.business.UserStatistics;
+import org.example.business.jfr.OperationEvents;
+import org.example.domain.Registration;
 import org.example.domain.User;
+import org.example.domain.UserChangeType;
 import org.example.persistance.UserRepository;
 import org.example.persistance.entity.UserEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserRegisterImpl implements UserRegister {
 
+    // Steps are recorded as JFR events; the controller records the whole operation
+    static final String OPERATION = "register";
+
     private final UserRepository userRepository;
+    private final UserChangePublisher userChangePublisher;
+    private final UserStatistics userStatistics;
 
     @Override
+    @Transactional
     public User register(String keycloakId, String username, String email,
                          String firstName, String lastName, Set<String> roles) {
 
-        UserEntity userEntity = userRepository.findByKeycloakId(keycloakId)
-                .orElse(UserEntity.builder()
+        Optional<UserEntity> existing = OperationEvents.execute(OPERATION, "lookup", keycloakId,
+                () -> userRepository.findByKeycloakId(keycloakId));
+
+        // A soft-deleted user not yet purged would still hold the unique columns.
+        // Checked first so the common case stays a read instead of a locking DELETE.
+        if (existing.isEmpty() && userRepository.existsDeletedMatching(keycloakId, username, email)) {
+            OperationEvents.run(OPERATION, "purge tombstone", keycloakId,
+                    () -> userRepository.purgeDeletedMatching(keycloakId, username, email));
+        }
+        return toUser(register(new Registration(keycloakId, username, email, firstName, lastName, roles), existing));
+    }
+
+    /**
+     * One lookup and one tombstone check for the whole batch, then the same steps as a single registration.
+     * A keycloakId repeated within the batch sees the user saved by its earlier occurrence.
+     */
+    @Override
+    @Transactional
+    public List<User> registerAll(List<Registration> registrations) {
+        Set<String> keycloakIds = registrations.stream()
+                .map(Registration::getKeycloakId)
+                .collect(Collectors.toSet());
+
+        Map<String, UserEntity> existing = new HashMap<>();
+        OperationEvents.execute(OPERATION, "batch lookup", null,
+                () -> userRepository.findAllByKeycloakIds(keycloakIds))
+                .forEach(entity -> existing.put(entity.getKeycloakId(), entity));
+
+        List<Registration> creations = registrations.stream()
+                .filter(registration -> !existing.containsKey(registration.getKeycloakId()))
+                .toList();
+        if (!creations.isEmpty()) {
+            purgeCollidingTombstones(creations);
+        }
+
+        List<User> users = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            UserEntity saved = register(registration, Optional.ofNullable(existing.get(registration.getKeycloakId())));
+            existing.put(saved.getKeycloakId(), saved);
+            users.add(toUser(saved));
+        }
+        return users;
+    }
+
+    /**
+     * Same tombstone check as a single registration, as one query for all users the batch creates
+     */
+    private void purgeCollidingTombstones(List<Registration> creations) {
+        String[] keycloakIds = creations.stream().map(Registration::getKeycloakId).toArray(String[]::new);
+        String[] usernames = creations.stream().map(Registration::getUsername).toArray(String[]::new);
+        String[] emails = creations.stream().map(Registration::getEmail).filter(Objects::nonNull).toArray(String[]::new);
+
+        if (userRepository.existsDeletedMatchingAny(keycloakIds, usernames, emails)) {
+            OperationEvents.run(OPERATION, "purge tombstones", null,
+                    () -> userRepository.purgeDeletedMatchingAny(keycloakIds, usernames, emails));
+        }
+    }
+
+    private UserEntity register(Registration registration, Optional<UserEntity> existing) {
+        String keycloakId = registration.getKeycloakId();
+        Set<String> roles = registration.getRoles();
+        Set<String> previousRoles = existing.map(UserEntity::getRoles).orElse(null);
+
+        UserEntity userEntity = existing
+                .orElseGet(() -> UserEntity.builder()
                         .keycloakId(keycloakId)
-                        .username(username)
-                        .email(email)
-                        .firstName(firstName)
-                        .lastName(lastName)
+                        .username(registration.getUsername())
+                        .email(registration.getEmail())
+                        .firstName(registration.getFirstName())
+                        .lastName(registration.getLastName())
                         .createdAt(LocalDateTime.now())
                         .build());
 
         userEntity.setRoles(roles);
 
-        UserEntity savedEntity = userRepository.save(userEntity);
+        UserEntity savedEntity = OperationEvents.execute(OPERATION, "save", keycloakId,
+                () -> userRepository.save(userEntity));
+
+        if (existing.isEmpty()) {
+            OperationEvents.run(OPERATION, "record change", keycloakId,
+                    () -> userChangePublisher.recordChange(UserChangeType.CREATED, savedEntity));
+            userStatistics.recordRegistered(roles, savedEntity.getCreatedAt());
+        } else if (!Objects.equals(previousRoles, roles)) {
+            OperationEvents.run(OPERATION, "record change", keycloakId,
+                    () -> userChangePublisher.recordChange(UserChangeType.ROLES_CHANGED, savedEntity));
+            userStatistics.recordRolesChanged(previousRoles, roles);
+        }
 
-        return toUser(savedEntity);
+        return savedEntity;
     }
 
     private User toUser(UserEntity entity) {
@@ -0,0 +1,46 @@
+package org.example.business.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.business.UserChangePublisher;
+import org.example.business.UserRemover;
+import org.example.business.jfr.OperationEvents;
+import org.example.domain.UserChangeType;
+import org.example.persistance.UserRepository;
+import org.example.persistance.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class UserRemoverImpl implements UserRemover {
+
+    // Steps are recorded as JFR events; the controller records the whole operation
+    static final String OPERATION = "delete";
+
+    private final UserRepository userRepository;
+    private final UserChangePublisher userChangePublisher;
+
+    @Value("${user-deletion.soft-delete:true}")
+    private boolean softDelete;
+
+    @Override
+    @Transactional
+    public void remove(UserEntity user) {
+        String keycloakId = user.getKeycloakId();
+
+        // Soft delete marks the row and leaves the cascade to UserPurger
+        OperationEvents.run(OPERATION, "local delete", keycloakId, () -> {
+            if (softDelete) {
+                userRepository.markDeleted(keycloakId, LocalDateTime.now());
+            } else {
+                userRepository.delete(user);
+            }
+        });
+
+        OperationEvents.run(OPERATION, "record change", keycloakId,
+                () -> userChangePublisher.recordChange(UserChangeType.DELETED, user));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.business.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-bounded JFR recordings of a live pod, one at a time.
+ * The JDK's "default" settings cost around 1% CPU, "profile" around 2% and add method sampling every 10 ms;
+ * the user operation and outbound call events are recorded in full with either.
+ */
+@Service
+@Slf4j
+public class JfrRecorder {
+
+    public static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final ReentrantLock recording = new ReentrantLock();
+    private final Duration maxDuration;
+
+    public JfrRecorder(@Value("${jfr.max-duration:PT5M}") Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Records for the given duration and returns the .jfr file; the caller deletes it once streamed
+     *
+     * @throws IllegalArgumentException for a duration outside (0, jfr.max-duration] or unknown settings
+     * @throws IllegalStateException    when another recording is in progress
+     */
+    public Path record(Duration duration, String settings) throws IOException, InterruptedException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 0 and " + maxDuration);
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Settings must be one of " + SETTINGS);
+        }
+        if (!recording.tryLock()) {
+            throw new IllegalStateException("A recording is already in progress");
+        }
+
+        try (Recording jfr = new Recording(Configuration.getConfiguration(settings))) {
+            jfr.setName("user-service-" + settings);
+            jfr.enable(UserOperationEvent.class).withThreshold(Duration.ZERO);
+            jfr.enable(OutboundCallEvent.class).withThreshold(Duration.ZERO);
+            jfr.setToDisk(true);
+
+            log.info("Starting {} JFR recording for {}", settings, duration);
+            jfr.start();
+            Thread.sleep(duration.toMillis());
+            jfr.stop();
+
+            Path file = Files.createTempFile("user-service-", ".jfr");
+            jfr.dump(file);
+            log.info("JFR recording written to {} ({} bytes)", file, Files.size(file));
+            return file;
+        } catch (ParseException e) {
+            throw new IllegalStateException("Unreadable JDK recording settings: " + settings, e);
+        } finally {
+            recording.unlock();
+        }
+    }
+}
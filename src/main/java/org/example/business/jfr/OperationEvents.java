@@ -0,0 +1,112 @@
+package org.example.business.jfr;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Emits JFR events for user operation steps and the outbound calls made inside them.
+ * The current step is kept per thread so outbound calls can be attributed to it; steps nest.
+ * When no recording has the events enabled, begin/commit are no-ops and the keycloakId is never hashed.
+ */
+public final class OperationEvents {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    private static final ThreadLocal<Step> CURRENT = new ThreadLocal<>();
+    private static final int HASH_HEX_CHARS = 16;
+
+    private OperationEvents() {
+    }
+
+    public static <T> T execute(String operation, String step, String keycloakId, Supplier<T> work) {
+        Step current = new Step(operation, step, keycloakId);
+        Step parent = CURRENT.get();
+        CURRENT.set(current);
+
+        UserOperationEvent event = new UserOperationEvent();
+        event.begin();
+        String outcome = FAILURE;
+        try {
+            T result = work.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.step = step;
+                event.keycloakIdHash = current.keycloakIdHash();
+                event.outcome = outcome;
+                event.commit();
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    public static void run(String operation, String step, String keycloakId, Runnable work) {
+        execute(operation, step, keycloakId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static OutboundCallEvent beginOutbound() {
+        OutboundCallEvent event = new OutboundCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitOutbound(OutboundCallEvent event, String dependency, String outcome) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.dependency = dependency;
+        event.outcome = outcome;
+        Step current = CURRENT.get();
+        if (current != null) {
+            event.operation = current.operation;
+            event.step = current.step;
+            event.keycloakIdHash = current.keycloakIdHash();
+        }
+        event.commit();
+    }
+
+    static String hash(String keycloakId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keycloakId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, HASH_HEX_CHARS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Step {
+        private final String operation;
+        private final String step;
+        private final String keycloakId;
+        private String keycloakIdHash;
+
+        private Step(String operation, String step, String keycloakId) {
+            this.operation = operation;
+            this.step = step;
+            this.keycloakId = keycloakId;
+        }
+
+        // Hashed on first use only: events are usually disabled
+        private String keycloakIdHash() {
+            if (keycloakIdHash == null && keycloakId != null) {
+                keycloakIdHash = hash(keycloakId);
+            }
+            return keycloakIdHash;
+        }
+    }
+}
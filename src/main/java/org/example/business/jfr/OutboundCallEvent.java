@@ -0,0 +1,33 @@
+package org.example.business.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call through a DependencyGuard, attributed to the user operation step running on the same thread
+ */
+@Name("org.example.OutboundCall")
+@Label("Outbound Call")
+@Description("A Keycloak or RabbitMQ call made through a DependencyGuard")
+@Category({"OpenLeaf", "User Service"})
+@StackTrace(false)
+public class OutboundCallEvent extends jdk.jfr.Event {
+
+    @Label("Dependency")
+    String dependency;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Step")
+    String step;
+
+    @Label("Keycloak ID Hash")
+    String keycloakIdHash;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,31 @@
+package org.example.business.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One step of a register or delete, emitted through {@link OperationEvents}
+ */
+@Name("org.example.UserOperation")
+@Label("User Operation")
+@Description("A step of a user register or delete")
+@Category({"OpenLeaf", "User Service"})
+@StackTrace(false)
+public class UserOperationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Step")
+    String step;
+
+    @Label("Keycloak ID Hash")
+    @Description("Truncated SHA-256 of the keycloakId, so recordings can be shared without user ids")
+    String keycloakIdHash;
+
+    @Label("Outcome")
+    String outcome;
+}
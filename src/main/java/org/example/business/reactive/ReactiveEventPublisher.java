@@ -0,0 +1,48 @@
+package org.example.business.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.DependencyGuard;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.OutboundMessage;
+import reactor.rabbitmq.Sender;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publishes events through reactor-rabbitmq. Messages are built with the same converter
+ * as RabbitTemplate, so consumers see identical bodies, content type and type-id headers.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveEventPublisher {
+
+    private final Sender rabbitSender;
+    private final MessageConverter messageConverter;
+
+    @Qualifier("rabbitGuard")
+    private final DependencyGuard rabbitGuard;
+
+    private final DefaultMessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public Mono<Void> publish(String exchange, String routingKey, Object event) {
+        return rabbitGuard.executeReactive(() -> Mono.fromCallable(() -> toOutbound(exchange, routingKey, event))
+                .flatMap(message -> rabbitSender.send(Mono.just(message))));
+    }
+
+    private OutboundMessage toOutbound(String exchange, String routingKey, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        return new OutboundMessage(exchange, routingKey,
+                propertiesConverter.fromMessageProperties(message.getMessageProperties(), StandardCharsets.UTF_8.name()),
+                message.getBody());
+    }
+}
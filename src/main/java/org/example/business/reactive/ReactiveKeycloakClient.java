@@ -0,0 +1,102 @@
+package org.example.business.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.DependencyGuard;
+import org.example.business.KeycloakAdminService;
+import org.example.exception.DependencyUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking Keycloak admin calls for the reactive stack, guarded like KeycloakAdminService
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveKeycloakClient {
+
+    // Refresh this long before the token expires, as KeycloakAdminService does
+    private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofSeconds(30);
+
+    private final WebClient keycloakWebClient;
+
+    @Qualifier("keycloakGuard")
+    private final DependencyGuard keycloakGuard;
+
+    private final AtomicReference<Mono<String>> adminToken = new AtomicReference<>();
+
+    @Value("${keycloak.auth-server-url}")
+    private String keycloakServerUrl;
+
+    @Value("${keycloak.realm}")
+    private String realm;
+
+    @Value("${keycloak.admin.client-id}")
+    private String adminClientId;
+
+    @Value("${keycloak.admin.client-secret}")
+    private String adminClientSecret;
+
+    public Mono<Void> deleteUser(String userKeycloakId) {
+        String deleteUrl = String.format("%s/admin/realms/%s/users/%s",
+                keycloakServerUrl, realm, userKeycloakId);
+
+        return getAdminToken()
+                .flatMap(token -> keycloakGuard.executeReactive(() -> keycloakWebClient.delete()
+                        .uri(deleteUrl)
+                        .headers(headers -> headers.setBearerAuth(token))
+                        .retrieve()
+                        .toBodilessEntity()))
+                // A 401 means the cached token was revoked or the signing keys rotated; the next call fetches a new one
+                .doOnError(WebClientResponseException.Unauthorized.class, e -> adminToken.set(null))
+                .doOnSuccess(response -> log.info("Successfully deleted user from Keycloak: {}", userKeycloakId))
+                .onErrorMap(e -> !(e instanceof DependencyUnavailableException),
+                        e -> new RuntimeException("Failed to delete user from Keycloak: " + e.getMessage(), e))
+                .then();
+    }
+
+    /**
+     * Client credentials grant, as in KeycloakAdminService.getAdminToken: concurrent callers share one fetch,
+     * and the token is reused until TOKEN_REFRESH_MARGIN before it expires
+     */
+    public Mono<String> getAdminToken() {
+        return adminToken.updateAndGet(cached -> cached != null ? cached : fetchAdminToken()
+                .cache(ReactiveKeycloakClient::reuseFor,
+                        error -> Duration.ZERO,
+                        () -> Duration.ZERO)
+                .map(KeycloakAdminService.TokenResponse::getAccessToken));
+    }
+
+    private Mono<KeycloakAdminService.TokenResponse> fetchAdminToken() {
+        String tokenUrl = String.format("%s/realms/%s/protocol/openid-connect/token",
+                keycloakServerUrl, realm);
+
+        return keycloakGuard.executeReactive(() -> keycloakWebClient.post()
+                        .uri(tokenUrl)
+                        .body(BodyInserters.fromFormData("grant_type", "client_credentials")
+                                .with("client_id", adminClientId)
+                                .with("client_secret", adminClientSecret))
+                        .retrieve()
+                        .bodyToMono(KeycloakAdminService.TokenResponse.class))
+                .flatMap(response -> response.getAccessToken() == null
+                        ? Mono.error(new RuntimeException("Failed to obtain admin token from Keycloak"))
+                        : Mono.just(response));
+    }
+
+    // A token too short-lived to outlast the margin is used once, as in KeycloakAdminService
+    private static Duration reuseFor(KeycloakAdminService.TokenResponse token) {
+        Duration reuse = Duration.ofSeconds(token.getExpiresIn()).minus(TOKEN_REFRESH_MARGIN);
+        return reuse.isNegative() ? Duration.ZERO : reuse;
+    }
+}
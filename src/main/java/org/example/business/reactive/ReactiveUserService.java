@@ -0,0 +1,263 @@
+package org.example.business.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.DeletionTracker;
+import org.example.business.UserChangePublisher;
+import org.example.business.UserStatistics;
+import org.example.business.dto.AccountDeletionEvent;
+import org.example.business.dto.UserChangeEvent;
+import org.example.business.impl.ResolveUsersImpl;
+import org.example.business.impl.SearchTherapistsImpl;
+import org.example.config.RabbitMQConfig;
+import org.example.domain.User;
+import org.example.domain.UserChangeType;
+import org.example.persistance.reactive.ReactiveUserChangeRepository;
+import org.example.persistance.reactive.ReactiveUserRepository;
+import org.example.persistance.reactive.UserChangeRow;
+import org.example.persistance.reactive.UserRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The user API on R2DBC, WebClient and reactor-rabbitmq, with the same semantics as the servlet
+ * implementations: soft delete, change feed, statistics and deletion tracking all behave identically.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserService {
+
+    static final String THERAPIST_ROLE = "client_therapist";
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveUserChangeRepository userChangeRepository;
+    private final ReactiveKeycloakClient keycloakClient;
+    private final ReactiveEventPublisher eventPublisher;
+    private final TransactionalOperator reactiveTransactionalOperator;
+    private final DeletionTracker deletionTracker;
+    private final UserStatistics userStatistics;
+
+    @Value("${user-deletion.soft-delete:true}")
+    private boolean softDelete;
+
+    public Flux<User> getAllTherapists() {
+        return withRoles(userRepository.findLiveByRole(THERAPIST_ROLE));
+    }
+
+    /**
+     * Fetches one row more than the page size to tell whether a next page exists
+     */
+    public Mono<Slice<User>> searchTherapists(String query, boolean contains, int page, int size) {
+        return Mono.fromCallable(() -> SearchTherapistsImpl.likePattern(query, contains))
+                .flatMap(pattern -> {
+                    PageRequest pageRequest = PageRequest.of(
+                            Math.max(page, 0),
+                            Math.min(Math.max(size, 1), SearchTherapistsImpl.MAX_PAGE_SIZE));
+
+                    return withRoles(userRepository.searchByRole(THERAPIST_ROLE, pattern,
+                            pageRequest.getPageSize() + 1, pageRequest.getOffset()))
+                            .collectList()
+                            .map(users -> users.size() > pageRequest.getPageSize()
+                                    ? new SliceImpl<>(users.subList(0, pageRequest.getPageSize()), pageRequest, true)
+                                    : new SliceImpl<>(users, pageRequest, false));
+                });
+    }
+
+    public Flux<User> resolveUsers(Collection<String> keycloakIds, boolean includeRoles) {
+        if (keycloakIds == null || keycloakIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        String[] ids = keycloakIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(String[]::new);
+
+        if (ids.length > ResolveUsersImpl.MAX_BATCH_SIZE) {
+            return Flux.error(new IllegalArgumentException(
+                    "Batch size " + ids.length + " exceeds the maximum of " + ResolveUsersImpl.MAX_BATCH_SIZE));
+        }
+
+        Flux<UserRow> rows = userRepository.findLiveByKeycloakIds(ids);
+        return includeRoles ? withRoles(rows) : rows.map(row -> toUser(row, null));
+    }
+
+    public Flux<UserChangeEvent> replayChanges(long afterSequence, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), UserChangePublisher.MAX_REPLAY_LIMIT);
+        return userChangeRepository.findAfter(afterSequence, pageSize).map(this::toEvent);
+    }
+
+    public Mono<User> register(String keycloakId, String username, String email,
+                               String firstName, String lastName, Set<String> roles) {
+        Set<String> newRoles = roles == null ? Set.of() : roles;
+
+        Mono<Registration> work = userRepository.findLiveByKeycloakId(keycloakId)
+                .flatMap(existing -> rolesOf(existing).flatMap(previous -> previous.equals(newRoles)
+                        ? Mono.just(new Registration(existing, previous, null))
+                        : userRepository.deleteRoles(existing.getId())
+                                .then(insertRoles(existing.getId(), newRoles))
+                                .then(recordChange(UserChangeType.ROLES_CHANGED, existing, newRoles))
+                                .map(change -> new Registration(existing, previous, change))))
+                .switchIfEmpty(Mono.defer(() -> userRepository.purgeDeletedMatching(keycloakId, username, email)
+                        .then(userRepository.save(UserRow.builder()
+                                .keycloakId(keycloakId)
+                                .username(username)
+                                .email(email)
+                                .firstName(firstName)
+                                .lastName(lastName)
+                                .createdAt(LocalDateTime.now())
+                                .build()))
+                        .flatMap(saved -> insertRoles(saved.getId(), newRoles)
+                                .then(recordChange(UserChangeType.CREATED, saved, newRoles))
+                                .map(change -> new Registration(saved, null, change)))));
+
+        // Publishing and statistics only happen once the transaction has committed
+        return reactiveTransactionalOperator.transactional(work)
+                .flatMap(registration -> publishChange(registration.change()).thenReturn(registration))
+                .doOnNext(registration -> {
+                    if (registration.previousRoles() == null) {
+                        userStatistics.recordRegistered(newRoles, registration.user().getCreatedAt());
+                    } else if (registration.change() != null) {
+                        userStatistics.recordRolesChanged(registration.previousRoles(), newRoles);
+                    }
+                })
+                .map(registration -> toUser(registration.user(), newRoles));
+    }
+
+    /**
+     * Same order as the servlet delete: announce, remove from Keycloak, then mark deleted locally
+     */
+    public Mono<Void> deleteUser(String keycloakId, String reason) {
+        return userRepository.findLiveByKeycloakId(keycloakId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))
+                .flatMap(user -> rolesOf(user).flatMap(roles -> eventPublisher.publish(
+                                RabbitMQConfig.ACCOUNT_DELETION_EXCHANGE,
+                                RabbitMQConfig.ACCOUNT_DELETION_ROUTING_KEY,
+                                new AccountDeletionEvent(keycloakId, LocalDateTime.now(), reason))
+                        .then(Mono.fromRunnable(() -> deletionTracker.track(keycloakId)))
+                        .then(keycloakClient.deleteUser(keycloakId))
+                        .then(Mono.defer(() -> reactiveTransactionalOperator.transactional(removeLocally(user)
+                                .then(recordChange(UserChangeType.DELETED, user, roles)))))
+                        .flatMap(this::publishChange)
+                        .then(Mono.fromRunnable(() -> userStatistics.recordDeleted(roles, user.getCreatedAt())))))
+                .then();
+    }
+
+    private Mono<Integer> removeLocally(UserRow user) {
+        if (softDelete) {
+            return userRepository.markDeleted(user.getKeycloakId(), LocalDateTime.now());
+        }
+        return userRepository.deleteRoles(user.getId())
+                .then(userRepository.deleteById(user.getId()))
+                .thenReturn(1);
+    }
+
+    private Mono<Integer> insertRoles(Long userId, Set<String> roles) {
+        if (roles.isEmpty()) {
+            return Mono.just(0);
+        }
+        return userRepository.insertRoles(userId, roles.toArray(String[]::new));
+    }
+
+    private Mono<UserChangeEvent> recordChange(UserChangeType type, UserRow user, Set<String> roles) {
+        return userChangeRepository.save(UserChangeRow.builder()
+                        .type(type)
+                        .keycloakId(user.getKeycloakId())
+                        .username(user.getUsername())
+                        .email(user.getEmail())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .roles(String.join(",", new TreeSet<>(roles)))
+                        .occurredAt(Instant.now())
+                        .build())
+                .map(this::toEvent);
+    }
+
+    private Mono<Void> publishChange(UserChangeEvent event) {
+        if (event == null) {
+            return Mono.empty();
+        }
+        return eventPublisher.publish(RabbitMQConfig.USER_CHANGE_EXCHANGE, event.getType().getRoutingKey(), event)
+                .onErrorResume(e -> {
+                    // The change is already in the log, consumers recover it through replay
+                    log.warn("Failed to publish user change #{} for user: {}",
+                            event.getSequence(), event.getKeycloakId(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Set<String>> rolesOf(UserRow user) {
+        return loadRoles(List.of(user)).map(roles -> roles.getOrDefault(user.getId(), Set.of()));
+    }
+
+    private Flux<User> withRoles(Flux<UserRow> rows) {
+        return rows.collectList().flatMapMany(list -> list.isEmpty()
+                ? Flux.empty()
+                : loadRoles(list).flatMapIterable(roles -> list.stream()
+                        .map(row -> toUser(row, roles.getOrDefault(row.getId(), Set.of())))
+                        .collect(Collectors.toList())));
+    }
+
+    private Mono<Map<Long, Set<String>>> loadRoles(List<UserRow> rows) {
+        Long[] userIds = rows.stream().map(UserRow::getId).toArray(Long[]::new);
+        return userRepository.findRolesByUserIds(userIds)
+                .collect(HashMap::new, (rolesByUser, role) -> rolesByUser
+                        .computeIfAbsent(role.getUserId(), id -> new HashSet<>())
+                        .add(role.getRole()));
+    }
+
+    private User toUser(UserRow row, Set<String> roles) {
+        return User.builder()
+                .id(row.getId())
+                .keycloakId(row.getKeycloakId())
+                .username(row.getUsername())
+                .email(row.getEmail())
+                .firstName(row.getFirstName())
+                .lastName(row.getLastName())
+                .createdAt(row.getCreatedAt())
+                .roles(roles)
+                .build();
+    }
+
+    private UserChangeEvent toEvent(UserChangeRow change) {
+        return UserChangeEvent.builder()
+                .schemaVersion(UserChangeEvent.SCHEMA_VERSION)
+                .sequence(change.getSequence())
+                .type(change.getType())
+                .keycloakId(change.getKeycloakId())
+                .username(change.getUsername())
+                .email(change.getEmail())
+                .firstName(change.getFirstName())
+                .lastName(change.getLastName())
+                .roles(change.getRoles() == null || change.getRoles().isEmpty()
+                        ? Set.of()
+                        : new HashSet<>(Arrays.asList(change.getRoles().split(","))))
+                .occurredAt(change.getOccurredAt())
+                .build();
+    }
+
+    private record Registration(UserRow user, Set<String> previousRoles, UserChangeEvent change) {
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.config;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.services.HealthStatusManager;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the internal gRPC services on grpc.port, next to the servlet (or WebFlux) server.
+ * Calls run on a fixed pool rather than gRPC's default unbounded one, since every call blocks on JDBC.
+ */
+@Configuration
+@ConditionalOnProperty(name = "grpc.server.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerConfig {
+
+    @Bean
+    public GrpcServerLifecycle grpcServer(List<BindableService> services,
+                                          ObservationRegistry observationRegistry,
+                                          @Value("${grpc.server.port:9090}") int port,
+                                          @Value("${grpc.server.threads:16}") int threads,
+                                          @Value("${grpc.server.max-inbound-message-size:4MB}") DataSize maxInboundMessageSize,
+                                          @Value("${grpc.server.shutdown-grace-period:PT20S}") Duration shutdownGracePeriod) {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        HealthStatusManager health = new HealthStatusManager();
+
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .maxInboundMessageSize((int) maxInboundMessageSize.toBytes())
+                .addService(health.getHealthService());
+        ObservationGrpcServerInterceptor observation = new ObservationGrpcServerInterceptor(observationRegistry);
+        services.forEach(service -> builder.addService(ServerInterceptors.intercept(service, observation)));
+
+        return new GrpcServerLifecycle(builder.build(), health, executor, shutdownGracePeriod);
+    }
+
+    @Slf4j
+    public static class GrpcServerLifecycle implements SmartLifecycle {
+
+        private final Server server;
+        private final HealthStatusManager health;
+        private final ExecutorService executor;
+        private final Duration shutdownGracePeriod;
+        private volatile boolean running;
+
+        GrpcServerLifecycle(Server server, HealthStatusManager health, ExecutorService executor,
+                            Duration shutdownGracePeriod) {
+            this.server = server;
+            this.health = health;
+            this.executor = executor;
+            this.shutdownGracePeriod = shutdownGracePeriod;
+        }
+
+        @Override
+        public void start() {
+            try {
+                server.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start the gRPC server", e);
+            }
+            health.setStatus(HealthStatusManager.SERVICE_NAME_ALL_SERVICES, ServingStatus.SERVING);
+            running = true;
+            log.info("gRPC server listening on port {}", server.getPort());
+        }
+
+        /**
+         * Stops accepting calls and lets in-flight ones finish within the grace period
+         */
+        @Override
+        public void stop() {
+            health.enterTerminalState();
+            server.shutdown();
+            try {
+                if (!server.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("gRPC calls still running after {}, cancelling them", shutdownGracePeriod);
+                    server.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                server.shutdownNow();
+            } finally {
+                executor.shutdown();
+                running = false;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package org.example.config;
 
+import org.example.business.AccountDeletionEventConverter;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * RabbitMQ Configuration for Account Deletion
  * This configuration should be included in all services that participate in account deletion
@@ -26,6 +34,30 @@ public class RabbitMQConfig {
     // Routing key
     public static final String ACCOUNT_DELETION_ROUTING_KEY = "account.deleted";
 
+    // Delayed retry and parking lot for deletion events
+    // A consumer that fails a message republishes it to the tier given by retryRoutingKey(queue, message), where it
+    // waits out the tier TTL and returns to <queue>, and acks it; once retries are exhausted it goes to <queue>.parking.
+    // The work queues carry no dead-letter arguments (other services declare them too): the deletion-dlx policies
+    // in k8s-infrastructure-deployment.yaml dead-letter plain rejects straight to the parking exchange
+    public static final String ACCOUNT_DELETION_RETRY_EXCHANGE = "account.deletion.retry.exchange";
+    public static final String ACCOUNT_DELETION_PARKING_EXCHANGE = "account.deletion.parking.exchange";
+    public static final long[] RETRY_DELAYS_MS = {10_000, 60_000, 600_000};
+    public static final List<String> DELETION_QUEUES =
+            List.of(ASSIGNMENT_DELETION_QUEUE, SCHEDULING_DELETION_QUEUE, JOURNAL_DELETION_QUEUE);
+
+    // Deletion acknowledgements, published by each service after it has purged a user
+    public static final String ACCOUNT_DELETION_ACK_EXCHANGE = "account.deletion.ack.exchange";
+    public static final String ACCOUNT_DELETION_ACK_ROUTING_KEY = "account.deletion.ack";
+
+    // User change feed exchange (routing keys user.created, user.updated, user.roles-changed, user.deleted)
+    public static final String USER_CHANGE_EXCHANGE = "user.change.exchange";
+
+    // Registrations published by the Keycloak event bridge, consumed in batches when registration.listener.enabled
+    // A failed registration waits out the retry queue TTL and returns; after max-attempts it is parked
+    public static final String USER_REGISTRATION_EXCHANGE = "user.registration.exchange";
+    public static final String USER_REGISTRATION_QUEUE = "user.registration.queue";
+    public static final String USER_REGISTRATION_ROUTING_KEY = "user.registered";
+
     /**
      * Declare the topic exchange for account deletion events
      */
@@ -34,6 +66,15 @@ public class RabbitMQConfig {
         return new TopicExchange(ACCOUNT_DELETION_EXCHANGE);
     }
 
+    /**
+     * Declare the topic exchange for the user change feed
+     * Consumers declare and bind their own queues
+     */
+    @Bean
+    public TopicExchange userChangeExchange() {
+        return new TopicExchange(USER_CHANGE_EXCHANGE);
+    }
+
     /**
      * Queue for Assignment Service to process deletions
      */
@@ -92,20 +133,140 @@ public class RabbitMQConfig {
     }
 
     /**
-     * JSON message converter for serializing/deserializing messages
+     * Retry tiers and parking-lot queues for every deletion queue
+     */
+    @Bean
+    public Declarables deletionRetryTopology() {
+        DirectExchange retryExchange = new DirectExchange(ACCOUNT_DELETION_RETRY_EXCHANGE);
+        DirectExchange parkingExchange = new DirectExchange(ACCOUNT_DELETION_PARKING_EXCHANGE);
+
+        List<Declarable> declarables = new ArrayList<>(List.of(retryExchange, parkingExchange));
+        for (String queue : DELETION_QUEUES) {
+            for (int tier = 1; tier <= RETRY_DELAYS_MS.length; tier++) {
+                // Expired messages go back to the work queue through the default exchange
+                Queue retryQueue = QueueBuilder.durable(retryQueueName(queue, tier))
+                        .ttl((int) RETRY_DELAYS_MS[tier - 1])
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build();
+                declarables.add(retryQueue);
+                declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange).with(retryQueue.getName()));
+            }
+
+            Queue parkingQueue = QueueBuilder.durable(parkingQueueName(queue)).build();
+            declarables.add(parkingQueue);
+            declarables.add(BindingBuilder.bind(parkingQueue).to(parkingExchange).with(queue));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * Routing key on the retry exchange for the given failed attempt (1-based),
+     * or null once retries are exhausted and the message belongs on the parking exchange
+     */
+    public static String retryRoutingKey(String queue, int attempt) {
+        return attempt <= RETRY_DELAYS_MS.length ? retryQueueName(queue, attempt) : null;
+    }
+
+    /**
+     * Routing key on the retry exchange for a message that just failed on the given work queue,
+     * or null once it has been through every retry tier and belongs on the parking exchange
+     */
+    public static String retryRoutingKey(String queue, Message failed) {
+        return retryRoutingKey(queue, (int) Math.min(retries(failed, queue), RETRY_DELAYS_MS.length) + 1);
+    }
+
+    /**
+     * Times the message has waited out a retry tier of the queue, from the x-death header
+     */
+    static long retries(Message message, String queue) {
+        List<Map<String, ?>> deaths = message.getMessageProperties().getXDeathHeader();
+        if (deaths == null) {
+            return 0;
+        }
+        String tierPrefix = queue + ".retry.";
+        return deaths.stream()
+                .filter(death -> death.get("queue") instanceof String name && name.startsWith(tierPrefix))
+                .filter(death -> "expired".equals(death.get("reason")))
+                .mapToLong(death -> death.get("count") instanceof Number count ? count.longValue() : 0)
+                .sum();
+    }
+
+    public static String retryQueueName(String queue, int tier) {
+        return queue + ".retry." + tier;
+    }
+
+    public static String parkingQueueName(String queue) {
+        return queue + ".parking";
+    }
+
+    /**
+     * Declare the topic exchange for deletion acknowledgements
+     */
+    @Bean
+    public TopicExchange accountDeletionAckExchange() {
+        return new TopicExchange(ACCOUNT_DELETION_ACK_EXCHANGE);
+    }
+
+    /**
+     * Per-instance, auto-delete queue for deletion acknowledgements
+     * Every user-service pod sees every ack and keeps the ones for deletions it started
+     */
+    @Bean
+    public Queue deletionAckQueue() {
+        return new AnonymousQueue();
+    }
+
+    /**
+     * Bind the per-instance ack queue to the ack exchange
+     */
+    @Bean
+    public Binding deletionAckBinding(Queue deletionAckQueue, TopicExchange accountDeletionAckExchange) {
+        return BindingBuilder
+                .bind(deletionAckQueue)
+                .to(accountDeletionAckExchange)
+                .with(ACCOUNT_DELETION_ACK_ROUTING_KEY);
+    }
+
+    /**
+     * Listener container for the ack queue: acks are tiny and cheap, so use a high prefetch
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory deletionAckContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${deletion-tracking.listener.prefetch:250}") int prefetch,
+            @Value("${deletion-tracking.listener.concurrency:2}") int concurrency,
+            @Value("${deletion-tracking.listener.max-concurrency:8}") int maxConcurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setObservationEnabled(true);
+        return factory;
+    }
+
+    /**
+     * JSON for every message, except account deletion events when messaging.account-deletion.format is protobuf
+     * Incoming messages are decoded by content type, so either format is accepted regardless of the setting
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(
+            @Value("${messaging.account-deletion.format:json}") String accountDeletionFormat) {
+        return new AccountDeletionEventConverter(new Jackson2JsonMessageConverter(),
+                "protobuf".equalsIgnoreCase(accountDeletionFormat));
     }
 
     /**
-     * RabbitTemplate configured with JSON converter
+     * RabbitTemplate configured with the message converter
+     * Observation adds a producer span and carries the trace context in the message headers (traceparent)
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter);
+        template.setObservationEnabled(true);
         return template;
     }
 }
@@ -0,0 +1,84 @@
+package org.example.config;
+
+import io.netty.channel.ChannelOption;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+import java.time.Duration;
+
+/**
+ * Reactive stack, enabled with the "reactive" profile (see application-reactive.yml)
+ * The R2DBC auto-configuration is excluded in application.yml so the servlet stack never needs an R2DBC URL;
+ * no ReactiveTransactionManager bean is exposed, which keeps @Transactional bound to the JPA transaction manager.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackages = "org.example.persistance.reactive")
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+
+    @Value("${reactive.r2dbc.url}")
+    private String r2dbcUrl;
+
+    @Value("${reactive.r2dbc.username}")
+    private String r2dbcUsername;
+
+    @Value("${reactive.r2dbc.password}")
+    private String r2dbcPassword;
+
+    @Override
+    @Bean
+    public ConnectionFactory connectionFactory() {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, r2dbcUsername)
+                .option(ConnectionFactoryOptions.PASSWORD, r2dbcPassword)
+                .build());
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory()));
+    }
+
+    /**
+     * Same timeouts as the servlet RestTemplate
+     */
+    @Bean
+    public WebClient keycloakWebClient(WebClient.Builder builder,
+                                       @Value("${keycloak.connect-timeout:PT2S}") Duration connectTimeout,
+                                       @Value("${keycloak.read-timeout:PT5S}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Non-blocking AMQP sender on the broker settings already configured for RabbitTemplate
+     */
+    @Bean(destroyMethod = "close")
+    public Sender rabbitSender(CachingConnectionFactory connectionFactory) {
+        return RabbitFlux.createSender(new SenderOptions()
+                .connectionFactory(connectionFactory.getRabbitConnectionFactory())
+                .resourceManagementScheduler(Schedulers.boundedElastic()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.config;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static org.example.config.RabbitMQConfig.USER_REGISTRATION_EXCHANGE;
+import static org.example.config.RabbitMQConfig.USER_REGISTRATION_QUEUE;
+import static org.example.config.RabbitMQConfig.USER_REGISTRATION_ROUTING_KEY;
+import static org.example.config.RabbitMQConfig.parkingQueueName;
+import static org.example.config.RabbitMQConfig.retryQueueName;
+
+/**
+ * Queue topology and batch listener container for registrations arriving over AMQP
+ */
+@Configuration
+@ConditionalOnProperty(name = "registration.listener.enabled", havingValue = "true")
+public class RegistrationQueueConfig {
+
+    /**
+     * Work queue, its retry queue and parking queue
+     * Rejected messages dead-letter to the retry queue, which returns them to the work queue after its TTL
+     */
+    @Bean
+    public Declarables registrationTopology(
+            @Value("${registration.listener.retry-delay:PT30S}") Duration retryDelay) {
+        TopicExchange exchange = new TopicExchange(USER_REGISTRATION_EXCHANGE);
+
+        Queue queue = QueueBuilder.durable(USER_REGISTRATION_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(retryQueueName(USER_REGISTRATION_QUEUE, 1))
+                .build();
+        Queue retryQueue = QueueBuilder.durable(retryQueueName(USER_REGISTRATION_QUEUE, 1))
+                .ttl((int) retryDelay.toMillis())
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(USER_REGISTRATION_QUEUE)
+                .build();
+        Queue parkingQueue = QueueBuilder.durable(parkingQueueName(USER_REGISTRATION_QUEUE)).build();
+        Binding binding = BindingBuilder.bind(queue).to(exchange).with(USER_REGISTRATION_ROUTING_KEY);
+
+        return new Declarables(exchange, queue, retryQueue, parkingQueue, binding);
+    }
+
+    /**
+     * spring.rabbitmq.listener.simple settings (concurrency, prefetch, ...) plus consumer-side batching:
+     * deliveries are handed over in lists of up to batch-size, or whatever arrived within batch-timeout,
+     * and acknowledged manually by the listener. Prefetch is raised to the batch size if it is lower.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory registrationContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RabbitProperties rabbitProperties,
+            @Value("${registration.listener.batch-size:100}") int batchSize,
+            @Value("${registration.listener.batch-timeout:PT0.2S}") Duration batchTimeout) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        Integer prefetch = rabbitProperties.getListener().getSimple().getPrefetch();
+        if (prefetch == null || prefetch < batchSize) {
+            factory.setPrefetchCount(batchSize);
+        }
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchTimeout.toMillis());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.config;
+
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.business.DependencyGuard;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Per-dependency bulkheads for Keycloak and RabbitMQ
+ * Limits adapt to observed latency (Gradient2), breakers open on failure or slow-call rate
+ */
+@Configuration
+public class ResilienceConfig {
+
+    public static final String KEYCLOAK = "keycloak";
+    public static final String RABBITMQ = "rabbitmq";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${resilience.circuit-breaker.slow-call-duration:PT2S}") Duration slowCallDuration,
+            @Value("${resilience.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(80)
+                .slowCallDurationThreshold(slowCallDuration)
+                .waitDurationInOpenState(openDuration)
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(10)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                // A 4xx from Keycloak (unknown user, bad request) says nothing about its health
+                .ignoreExceptions(HttpClientErrorException.class)
+                .ignoreException(e -> e instanceof WebClientResponseException response
+                        && response.getStatusCode().is4xxClientError())
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public DependencyGuard keycloakGuard(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${resilience.keycloak.initial-limit:10}") int initialLimit,
+            @Value("${resilience.keycloak.max-limit:50}") int maxLimit) {
+
+        return new DependencyGuard(
+                KEYCLOAK,
+                limiter(KEYCLOAK, initialLimit, maxLimit),
+                circuitBreakerRegistry.circuitBreaker(KEYCLOAK),
+                e -> e instanceof ResourceAccessException || e instanceof WebClientRequestException,
+                meterRegistry);
+    }
+
+    @Bean
+    public DependencyGuard rabbitGuard(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${resilience.rabbitmq.initial-limit:20}") int initialLimit,
+            @Value("${resilience.rabbitmq.max-limit:100}") int maxLimit) {
+
+        return new DependencyGuard(
+                RABBITMQ,
+                limiter(RABBITMQ, initialLimit, maxLimit),
+                circuitBreakerRegistry.circuitBreaker(RABBITMQ),
+                e -> e instanceof AmqpConnectException || e instanceof AmqpTimeoutException
+                        || e instanceof IOException,
+                meterRegistry);
+    }
+
+    private SimpleLimiter<Void> limiter(String name, int initialLimit, int maxLimit) {
+        return SimpleLimiter.newBuilder()
+                .named(name)
+                .limit(Gradient2Limit.newBuilder()
+                        .initialLimit(initialLimit)
+                        .minLimit(1)
+                        .maxConcurrency(maxLimit)
+                        .build())
+                .build();
+    }
+}
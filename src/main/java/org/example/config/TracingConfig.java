@@ -0,0 +1,32 @@
+package org.example.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.example.business.RecentSpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spans for HTTP, RestTemplate/WebClient and JDBC come from auto-configuration;
+ * this adds @Observed support for the service methods and the optional in-memory exporter.
+ * The OTLP exporter is enabled by setting management.otlp.tracing.endpoint.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Exported alongside OTLP (if configured) by the SDK's batch processor
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.in-memory.enabled", havingValue = "true")
+    public RecentSpanExporter recentSpanExporter(@Value("${tracing.in-memory.capacity:2000}") int capacity) {
+        return new RecentSpanExporter(capacity);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.ParkedDeletionReplayer;
+import org.example.business.RecentSpanExporter;
+import org.example.business.UserBulkTransfer;
+import org.example.business.dto.RecordedSpan;
+import org.example.business.dto.UserImportResult;
+import org.example.domain.UserCopyFormat;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final ParkedDeletionReplayer parkedDeletionReplayer;
+    private final ObjectProvider<RecentSpanExporter> recentSpanExporter;
+    private final UserBulkTransfer userBulkTransfer;
+
+    /**
+     * Number of parked deletion events per work queue
+     */
+    @GetMapping("/deletion-events/parked")
+    public ResponseEntity<Map<String, Integer>> countParkedDeletionEvents() {
+        return ResponseEntity.ok(parkedDeletionReplayer.countParked());
+    }
+
+    /**
+     * Move a batch of parked deletion events back to their work queue, where they get every retry tier again
+     */
+    @PostMapping("/deletion-events/parked/{queue}/replay")
+    public ResponseEntity<String> replayParkedDeletionEvents(
+            @PathVariable String queue,
+            @RequestParam(required = false, defaultValue = "100") int batchSize) {
+
+        try {
+            int replayed = parkedDeletionReplayer.replay(queue, batchSize);
+            return ResponseEntity.ok("Replayed " + replayed + " parked events to " + queue);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Recently finished spans, newest first; only available with tracing.in-memory.enabled
+     */
+    @GetMapping("/traces")
+    public ResponseEntity<List<RecordedSpan>> recentSpans(
+            @RequestParam(required = false) String traceId,
+            @RequestParam(required = false, defaultValue = "200") int limit) {
+
+        RecentSpanExporter exporter = recentSpanExporter.getIfAvailable();
+        if (exporter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(exporter.recent(traceId, limit));
+    }
+
+    /**
+     * Streams every live user and their roles as COPY csv (with a header row) or binary.
+     * Written straight to the response rather than asynchronously, so large exports are not cut off by the async timeout.
+     */
+    @GetMapping("/users/export")
+    public void exportUsers(@RequestParam(required = false, defaultValue = "csv") String format,
+                            HttpServletResponse response) throws IOException {
+        UserCopyFormat copyFormat;
+        try {
+            copyFormat = UserCopyFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        response.setContentType(copyFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + copyFormat.getExtension());
+        userBulkTransfer.export(copyFormat, response.getOutputStream());
+    }
+
+    /**
+     * Creates or overwrites the users in a file produced by /users/export, all or nothing
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<UserImportResult> importUsers(
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            HttpServletRequest request) throws IOException {
+
+        try {
+            return ResponseEntity.ok(userBulkTransfer.importUsers(
+                    UserCopyFormat.fromParameter(format), request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected user import: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (DataIntegrityViolationException e) {
+            // Malformed rows, missing usernames, usernames or emails held by users outside the file
+            log.warn("User import rolled back: {}", e.getMostSpecificCause().getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Requires "Authorization: Bearer ${admin.token}" on the /admin endpoints, which the gateway also forwards.
+ * Without a configured token every request is refused.
+ */
+@Component
+@Profile("!reactive")
+public class AdminTokenFilter extends BearerTokenFilter {
+
+    static final List<String> PROTECTED_PATHS = List.of(
+            "/admin/deletion-events",
+            "/admin/traces",
+            "/admin/users");
+
+    public AdminTokenFilter(@Value("${admin.token:}") String token) {
+        super(token, PROTECTED_PATHS);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.AdmissionControl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts register and delete requests through {@link AdmissionControl}
+ * Reads (including POST /users/batch) are always admitted.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    @Value("${admission.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        if (!admissionControl.isEnabled() || !isWrite(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdmissionControl.Decision decision = admissionControl.tryAdmitWrite();
+        if (decision != AdmissionControl.Decision.ADMITTED) {
+            log.warn("Shedding {} {} ({})", request.getMethod(), request.getRequestURI(), decision);
+            response.setStatus(decision == AdmissionControl.Decision.QUEUE_FULL
+                    ? HttpStatus.TOO_MANY_REQUESTS.value()
+                    : HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write("Service is busy, please retry later");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionControl.release();
+        }
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.DELETE.matches(method)
+                || (HttpMethod.POST.matches(method) && "/register".equals(request.getServletPath()));
+    }
+}
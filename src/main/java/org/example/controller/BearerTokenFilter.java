@@ -0,0 +1,58 @@
+package org.example.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Requires "Authorization: Bearer <token>" on every path under the given prefixes.
+ * Without a configured token every such request is refused.
+ * Paths are matched after decoding and removing duplicate slashes and ;-parameters,
+ * the same normalization the handler mapping sees, so //actuator/jfr or /actuator/%6Afr are caught too.
+ */
+@Slf4j
+public abstract class BearerTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final byte[] token;
+    private final List<String> pathPrefixes;
+
+    protected BearerTokenFilter(String token, List<String> pathPrefixes) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.pathPrefixes = List.copyOf(pathPrefixes);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        return pathPrefixes.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (token.length == 0 || authorization == null || !authorization.startsWith(BEARER)
+                || !MessageDigest.isEqual(token, authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Refused {} {} from {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
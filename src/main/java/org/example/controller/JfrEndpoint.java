@@ -0,0 +1,87 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.jfr.JfrRecorder;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * GET /actuator/jfr?duration=PT30S&settings=profile records the running pod and returns the .jfr file.
+ * Disabled unless management.endpoint.jfr.enabled is set, and guarded by {@link JfrEndpointTokenFilter}.
+ */
+@Component
+@Profile("!reactive")
+@WebEndpoint(id = "jfr", enableByDefault = false)
+@RequiredArgsConstructor
+@Slf4j
+public class JfrEndpoint {
+
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+
+    private final JfrRecorder jfrRecorder;
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration, @Nullable String settings) {
+        Path file;
+        try {
+            file = jfrRecorder.record(duration == null ? DEFAULT_DURATION : duration,
+                    settings == null ? "profile" : settings);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            log.warn("JFR recording refused: {}", e.getMessage());
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        } catch (IOException e) {
+            log.error("Failed to write JFR recording", e);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Deletes the recording once it has been streamed, as the heapdump endpoint does with its dump
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Forces streaming through getInputStream rather than a zero-copy transfer of the file
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Requires "Authorization: Bearer ${jfr.token}" on the JFR actuator endpoint.
+ * Without a configured token every request is refused, so enabling the endpoint alone never exposes it.
+ */
+@Component
+@Profile("!reactive")
+public class JfrEndpointTokenFilter extends BearerTokenFilter {
+
+    public JfrEndpointTokenFilter(@Value("${jfr.token:}") String token,
+                                  @Value("${management.endpoints.web.base-path:/actuator}") String basePath) {
+        super(token, List.of(basePath + "/jfr"));
+    }
+}
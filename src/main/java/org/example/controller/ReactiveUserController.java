@@ -0,0 +1,189 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.IdempotencyStore;
+import org.example.business.UserStatistics;
+import org.example.business.dto.BatchUserRequest;
+import org.example.business.dto.RegisterRequest;
+import org.example.business.dto.RegisterResponse;
+import org.example.business.dto.TherapistSearchResponse;
+import org.example.business.dto.UserChangeEvent;
+import org.example.business.dto.UserListResponse;
+import org.example.business.dto.UserStatsResponse;
+import org.example.business.reactive.ReactiveUserService;
+import org.example.domain.User;
+import org.example.exception.DependencyUnavailableException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The endpoints of UserController on the reactive stack
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserController {
+
+    static final String IDEMPOTENCY_UNSUPPORTED = IdempotencyStore.HEADER + " is not supported by the reactive stack";
+
+    private final ReactiveUserService reactiveUserService;
+    private final UserStatistics userStatistics;
+
+    /**
+     * Idempotency-Key is refused rather than ignored: the reactive stack keeps no responses to replay,
+     * so a client relying on it must not believe its retry is safe
+     */
+    @DeleteMapping("/{keycloakId}")
+    public Mono<ResponseEntity<String>> deleteUser(
+            @PathVariable String keycloakId,
+            @RequestParam(required = false, defaultValue = "User requested") String reason,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            return Mono.just(ResponseEntity.badRequest().body(IDEMPOTENCY_UNSUPPORTED));
+        }
+
+        log.info("Processing deletion request for user: {} - Reason: {}", keycloakId, reason);
+
+        return reactiveUserService.deleteUser(keycloakId, reason)
+                .then(Mono.fromCallable(() -> ResponseEntity.ok("User account deleted successfully from all systems")))
+                .onErrorResume(DependencyUnavailableException.class, e -> {
+                    log.warn("Deletion of user {} refused, {} unavailable: {}",
+                            keycloakId, e.getDependency(), e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "30")
+                            .body("Failed to delete user account: " + e.getDependency() + " is temporarily unavailable"));
+                })
+                .onErrorResume(e -> !(e instanceof DependencyUnavailableException), e -> {
+                    log.error("Failed to delete user: {} - Error: {}", keycloakId, e.getMessage(), e);
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body("Failed to delete user account: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * Health check endpoint
+     */
+    @GetMapping("/health")
+    public Mono<ResponseEntity<String>> health() {
+        return Mono.just(ResponseEntity.ok("User Service is running"));
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<RegisterResponse>> register(
+            @RequestBody RegisterRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+
+        if (idempotencyKey != null) {
+            // Refused for the same reason as on deleteUser
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return reactiveUserService.register(
+                        request.getKeycloakId(),
+                        request.getUsername(),
+                        request.getEmail(),
+                        request.getFirstName(),
+                        request.getLastName(),
+                        request.getRoles())
+                .map(user -> ResponseEntity.ok(RegisterResponse.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .email(user.getEmail())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .createdAt(user.getCreatedAt())
+                        .roles(user.getRoles())
+                        .message("User registered successfully")
+                        .build()));
+    }
+
+    @GetMapping("/therapists")
+    public Mono<ResponseEntity<List<UserListResponse>>> getAllUsers() {
+        return reactiveUserService.getAllTherapists()
+                .map(this::toUserListResponse)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Paginated therapist search by name, username or email
+     */
+    @GetMapping("/therapists/search")
+    public Mono<ResponseEntity<TherapistSearchResponse>> searchTherapists(
+            @RequestParam("q") String query,
+            @RequestParam(required = false, defaultValue = "false") boolean contains,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        return reactiveUserService.searchTherapists(query, contains, page, size)
+                .map(users -> ResponseEntity.ok(TherapistSearchResponse.builder()
+                        .results(users.getContent().stream()
+                                .map(this::toUserListResponse)
+                                .collect(Collectors.toList()))
+                        .page(users.getNumber())
+                        .size(users.getSize())
+                        .hasNext(users.hasNext())
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
+    /**
+     * Batch profile lookup for other services, resolved with a single query
+     */
+    @PostMapping("/users/batch")
+    public Mono<ResponseEntity<List<UserListResponse>>> resolveUsers(@RequestBody BatchUserRequest request) {
+        return reactiveUserService.resolveUsers(request.getKeycloakIds(), request.isIncludeRoles())
+                .map(this::toUserListResponse)
+                .collectList()
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Rejected batch lookup: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                });
+    }
+
+    /**
+     * Replays the user change feed after the change with the given sequence number, in feed order
+     */
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<List<UserChangeEvent>>> replayChanges(
+            @RequestParam(required = false, defaultValue = "0") long afterSequence,
+            @RequestParam(required = false, defaultValue = "500") int limit) {
+        return reactiveUserService.replayChanges(afterSequence, limit)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * User counts from in-memory counters, cheap enough for dashboards to poll.
+     * Counts are this pod's view and approximate: writes through other pods appear once
+     * reconciledAt moves past them (user-stats.reconcile-interval).
+     */
+    @GetMapping("/stats/users")
+    public Mono<ResponseEntity<UserStatsResponse>> getUserStats() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(userStatistics.snapshot()));
+    }
+
+    private UserListResponse toUserListResponse(User user) {
+        return UserListResponse.builder()
+                .id(user.getId())
+                .keycloakId(user.getKeycloakId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .createdAt(user.getCreatedAt())
+                .roles(user.getRoles())
+                .build();
+    }
+}
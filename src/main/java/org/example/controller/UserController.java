@@ -3,15 +3,32 @@ package org.example.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.business.AccountDeletionPublisher;
+import org.example.business.DeletionTracker;
 import org.example.business.GetAllTherapists;
+import org.example.business.IdempotencyStore;
 import org.example.business.KeycloakAdminService;
+import org.example.business.ResolveUsers;
+import org.example.business.SearchTherapists;
+import org.example.business.UserChangePublisher;
 import org.example.business.UserRegister;
+import org.example.business.UserRemover;
+import org.example.business.UserStatistics;
+import org.example.business.dto.BatchUserRequest;
 import org.example.business.dto.RegisterRequest;
 import org.example.business.dto.RegisterResponse;
+import org.example.business.dto.TherapistSearchResponse;
+import org.example.business.dto.UserChangeEvent;
 import org.example.business.dto.UserListResponse;
+import org.example.business.dto.UserStatsResponse;
+import org.example.business.jfr.OperationEvents;
 import org.example.domain.User;
+import org.example.exception.DependencyUnavailableException;
 import org.example.persistance.UserRepository;
 import org.example.persistance.entity.UserEntity;
+import org.springframework.data.domain.Slice;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,47 +36,76 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
 
     private final UserRegister userRegister;
     private final GetAllTherapists getAllTherapists;
+    private final SearchTherapists searchTherapists;
+    private final ResolveUsers resolveUsers;
     private final UserRepository userRepository;
     private final AccountDeletionPublisher accountDeletionPublisher;
     private final KeycloakAdminService keycloakAdminService;
+    private final UserChangePublisher userChangePublisher;
+    private final UserRemover userRemover;
+    private final DeletionTracker deletionTracker;
+    private final UserStatistics userStatistics;
+    private final IdempotencyStore idempotencyStore;
 
+    /**
+     * Retries carrying the same Idempotency-Key get the first response back instead of a second deletion
+     */
     @DeleteMapping("/{keycloakId}")
     public ResponseEntity<String> deleteUser(
             @PathVariable String keycloakId,
-            @RequestParam(required = false, defaultValue = "User requested") String reason) {
+            @RequestParam(required = false, defaultValue = "User requested") String reason,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+
+        return idempotencyStore.execute("delete", idempotencyKey, keycloakId, String.class,
+                () -> OperationEvents.execute("delete", "total", keycloakId, () -> deleteUser(keycloakId, reason)));
+    }
 
+    private ResponseEntity<String> deleteUser(String keycloakId, String reason) {
         try {
             log.info("Processing deletion request for user: {} - Reason: {}", keycloakId, reason);
 
             // 1. Find the user
-            UserEntity user = userRepository.findByKeycloakId(keycloakId)
+            UserEntity user = OperationEvents.execute("delete", "lookup", keycloakId,
+                    () -> userRepository.findByKeycloakId(keycloakId))
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             // 2. Publish deletion event to RabbitMQ first
             // This ensures other services (Assignment, Scheduling, Journal) can clean up their data
             log.info("Publishing account deletion event to RabbitMQ for user: {}", keycloakId);
-            accountDeletionPublisher.publishAccountDeletion(keycloakId, reason);
+            OperationEvents.run("delete", "publish deletion", keycloakId,
+                    () -> accountDeletionPublisher.publishAccountDeletion(keycloakId, reason));
+            deletionTracker.track(keycloakId);
             log.info("Account deletion event published successfully");
 
             // 3. Delete the user from Keycloak
             log.info("Deleting user from Keycloak: {}", keycloakId);
-            keycloakAdminService.deleteUserFromKeycloak(keycloakId);
+            OperationEvents.run("delete", "keycloak delete", keycloakId,
+                    () -> keycloakAdminService.deleteUserFromKeycloak(keycloakId));
             log.info("User deleted from Keycloak successfully");
 
-            // 4. Delete the user from User Profile Service database
+            // 4. Delete the user from User Profile Service database and record it on the user change feed
             log.info("Deleting user from User Profile Service database: {}", keycloakId);
-            userRepository.delete(user);
+            userRemover.remove(user);
             log.info("User deleted from User Profile Service successfully");
 
+            userStatistics.recordDeleted(user.getRoles(), user.getCreatedAt());
+
             log.info("Account deletion completed successfully for user: {}", keycloakId);
             return ResponseEntity.ok("User account deleted successfully from all systems");
 
+        } catch (DependencyUnavailableException e) {
+            log.warn("Deletion of user {} refused, {} unavailable: {}", keycloakId, e.getDependency(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Failed to delete user account: " + e.getDependency() + " is temporarily unavailable");
+
         } catch (Exception e) {
             log.error("Failed to delete user: {} - Error: {}", keycloakId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -76,8 +122,16 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<RegisterResponse> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<RegisterResponse> register(
+            @RequestBody RegisterRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
 
+        return idempotencyStore.execute("register", idempotencyKey, idempotencyStore.fingerprint(request),
+                RegisterResponse.class,
+                () -> OperationEvents.execute("register", "total", request.getKeycloakId(), () -> register(request)));
+    }
+
+    private ResponseEntity<RegisterResponse> register(RegisterRequest request) {
         User user = userRegister.register(
                 request.getKeycloakId(),
                 request.getUsername(),
@@ -106,18 +160,91 @@ public class UserController {
         List<User> users = getAllTherapists.getAllTherapists();
 
         List<UserListResponse> responses = users.stream()
-                .map(user -> UserListResponse.builder()
-                        .id(user.getId())
-                        .keycloakId(user.getKeycloakId())
-                        .username(user.getUsername())
-                        .email(user.getEmail())
-                        .firstName(user.getFirstName())
-                        .lastName(user.getLastName())
-                        .createdAt(user.getCreatedAt())
-                        .roles(user.getRoles())
-                        .build())
+                .map(this::toUserListResponse)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(responses);
     }
+
+    /**
+     * Paginated therapist search by name, username or email
+     */
+    @GetMapping("/therapists/search")
+    public ResponseEntity<TherapistSearchResponse> searchTherapists(
+            @RequestParam("q") String query,
+            @RequestParam(required = false, defaultValue = "false") boolean contains,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+
+        Slice<User> users;
+        try {
+            users = searchTherapists.searchTherapists(query, contains, page, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TherapistSearchResponse response = TherapistSearchResponse.builder()
+                .results(users.getContent().stream()
+                        .map(this::toUserListResponse)
+                        .collect(Collectors.toList()))
+                .page(users.getNumber())
+                .size(users.getSize())
+                .hasNext(users.hasNext())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Batch profile lookup for other services, resolved with a single query
+     */
+    @PostMapping("/users/batch")
+    public ResponseEntity<List<UserListResponse>> resolveUsers(@RequestBody BatchUserRequest request) {
+        List<User> users;
+        try {
+            users = resolveUsers.resolveUsers(request.getKeycloakIds(), request.isIncludeRoles());
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch lookup: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<UserListResponse> responses = users.stream()
+                .map(this::toUserListResponse)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Replays the user change feed after the change with the given sequence number, in feed order
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<UserChangeEvent>> replayChanges(
+            @RequestParam(required = false, defaultValue = "0") long afterSequence,
+            @RequestParam(required = false, defaultValue = "500") int limit) {
+        return ResponseEntity.ok(userChangePublisher.replay(afterSequence, limit));
+    }
+
+    /**
+     * User counts from in-memory counters, cheap enough for dashboards to poll.
+     * Counts are this pod's view and approximate: writes through other pods appear once
+     * reconciledAt moves past them (user-stats.reconcile-interval).
+     */
+    @GetMapping("/stats/users")
+    public ResponseEntity<UserStatsResponse> getUserStats() {
+        return ResponseEntity.ok(userStatistics.snapshot());
+    }
+
+    private UserListResponse toUserListResponse(User user) {
+        return UserListResponse.builder()
+                .id(user.getId())
+                .keycloakId(user.getKeycloakId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .createdAt(user.getCreatedAt())
+                .roles(user.getRoles())
+                .build();
+    }
 }
\ No newline at end of file
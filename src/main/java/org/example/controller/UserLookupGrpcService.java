@@ -0,0 +1,125 @@
+package org.example.controller;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.business.GetAllTherapists;
+import org.example.business.ResolveUsers;
+import org.example.domain.User;
+import org.example.grpc.proto.BatchGetUsersRequest;
+import org.example.grpc.proto.BatchGetUsersResponse;
+import org.example.grpc.proto.GetUserRequest;
+import org.example.grpc.proto.StreamTherapistsRequest;
+import org.example.grpc.proto.UserLookupGrpc;
+import org.example.grpc.proto.UserProfile;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * gRPC counterpart of the read endpoints in {@link UserController} for internal callers.
+ * Delegates to the same business services, so results and caching match the REST API.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserLookupGrpcService extends UserLookupGrpc.UserLookupImplBase {
+
+    private final GetAllTherapists getAllTherapists;
+    private final ResolveUsers resolveUsers;
+
+    @Override
+    public void getUser(GetUserRequest request, StreamObserver<UserProfile> responseObserver) {
+        if (request.getKeycloakId().isEmpty()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("keycloak_id is required").asRuntimeException());
+            return;
+        }
+
+        List<User> users = resolveUsers.resolveUsers(List.of(request.getKeycloakId()), request.getIncludeRoles());
+        if (users.isEmpty()) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("User not found").asRuntimeException());
+            return;
+        }
+
+        responseObserver.onNext(toProfile(users.get(0)));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void batchGetUsers(BatchGetUsersRequest request, StreamObserver<BatchGetUsersResponse> responseObserver) {
+        List<User> users;
+        try {
+            users = resolveUsers.resolveUsers(request.getKeycloakIdsList(), request.getIncludeRoles());
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected gRPC batch lookup: {}", e.getMessage());
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+
+        BatchGetUsersResponse.Builder response = BatchGetUsersResponse.newBuilder();
+        users.forEach(user -> response.addUsers(toProfile(user)));
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Sends one message per therapist, only while the transport is ready, so a slow
+     * caller applies HTTP/2 flow control instead of the whole list being buffered here
+     */
+    @Override
+    public void streamTherapists(StreamTherapistsRequest request, StreamObserver<UserProfile> responseObserver) {
+        ServerCallStreamObserver<UserProfile> call = (ServerCallStreamObserver<UserProfile>) responseObserver;
+        Iterator<User> therapists = getAllTherapists.getAllTherapists().iterator();
+
+        call.setOnCancelHandler(() -> log.debug("Therapist stream cancelled by the caller"));
+        call.setOnReadyHandler(new Runnable() {
+            private boolean completed;
+
+            @Override
+            public void run() {
+                while (!completed && call.isReady() && therapists.hasNext()) {
+                    call.onNext(toProfile(therapists.next()));
+                }
+                if (!completed && !therapists.hasNext() && !call.isCancelled()) {
+                    completed = true;
+                    call.onCompleted();
+                }
+            }
+        });
+    }
+
+    static UserProfile toProfile(User user) {
+        UserProfile.Builder profile = UserProfile.newBuilder()
+                .setId(user.getId())
+                .setKeycloakId(user.getKeycloakId())
+                .setUsername(user.getUsername());
+        if (user.getEmail() != null) {
+            profile.setEmail(user.getEmail());
+        }
+        if (user.getFirstName() != null) {
+            profile.setFirstName(user.getFirstName());
+        }
+        if (user.getLastName() != null) {
+            profile.setLastName(user.getLastName());
+        }
+        if (user.getCreatedAt() != null) {
+            Instant createdAt = user.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+            profile.setCreatedAt(Timestamp.newBuilder()
+                    .setSeconds(createdAt.getEpochSecond())
+                    .setNanos(createdAt.getNano()));
+        }
+        if (user.getRoles() != null) {
+            profile.addAllRoles(user.getRoles());
+        }
+        return profile.build();
+    }
+}
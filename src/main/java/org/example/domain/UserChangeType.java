@@ -0,0 +1,18 @@
+package org.example.domain;
+
+public enum UserChangeType {
+    CREATED("user.created"),
+    UPDATED("user.updated"),
+    ROLES_CHANGED("user.roles-changed"),
+    DELETED("user.deleted");
+
+    private final String routingKey;
+
+    UserChangeType(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.domain;
+
+/**
+ * File formats of the bulk user export and import, both native PostgreSQL COPY formats
+ */
+public enum UserCopyFormat {
+    CSV("FORMAT csv, HEADER", "text/csv", "csv"),
+    BINARY("FORMAT binary", "application/octet-stream", "bin");
+
+    private final String copyOptions;
+    private final String contentType;
+    private final String extension;
+
+    UserCopyFormat(String copyOptions, String contentType, String extension) {
+        this.copyOptions = copyOptions;
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static UserCopyFormat fromParameter(String format) {
+        for (UserCopyFormat value : values()) {
+            if (value.name().equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format " + format + ", expected csv or binary");
+    }
+
+    public String getCopyOptions() {
+        return copyOptions;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
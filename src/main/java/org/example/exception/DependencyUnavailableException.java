@@ -0,0 +1,24 @@
+package org.example.exception;
+
+/**
+ * Thrown when a call to a downstream dependency is refused locally,
+ * because its concurrency limit is reached or its circuit breaker is open
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+
+    public DependencyUnavailableException(String dependency, String message) {
+        super(message);
+        this.dependency = dependency;
+    }
+
+    public DependencyUnavailableException(String dependency, String message, Throwable cause) {
+        super(message, cause);
+        this.dependency = dependency;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+}
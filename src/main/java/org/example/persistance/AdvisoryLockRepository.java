@@ -0,0 +1,92 @@
+package org.example.persistance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Cluster-wide locks on PostgreSQL session-level advisory locks, for jobs that must run on one instance at a time.
+ * A held lock keeps its own pooled connection until it is closed; if the instance dies, the server drops the
+ * session and the lock with it.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class AdvisoryLockRepository {
+
+    private final DataSource dataSource;
+
+    /**
+     * @return the lock, or empty if another session holds it
+     */
+    public Optional<Lock> tryLock(String name) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            if (query(connection, "SELECT pg_try_advisory_lock(hashtext(?))", name)) {
+                return Optional.of(new Lock(name, connection));
+            }
+            connection.close();
+            return Optional.empty();
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new DataAccessResourceFailureException("Could not take advisory lock " + name, e);
+        }
+    }
+
+    private static boolean query(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close connection", e);
+            }
+        }
+    }
+
+    public static class Lock implements AutoCloseable {
+
+        private final String name;
+        private final Connection connection;
+
+        Lock(String name, Connection connection) {
+            this.name = name;
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() {
+            try {
+                query(connection, "SELECT pg_advisory_unlock(hashtext(?))", name);
+                connection.close();
+            } catch (SQLException e) {
+                // The pool must not hand out a session that still holds the lock
+                log.warn("Could not release advisory lock {}, discarding its connection", name, e);
+                try {
+                    connection.abort(Runnable::run);
+                } catch (SQLException abortFailure) {
+                    log.debug("Could not abort connection", abortFailure);
+                } finally {
+                    closeQuietly(connection);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.persistance;
+
+import org.example.persistance.entity.IdempotencyRecordEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    /**
+     * First writer wins: two pods completing the same key concurrently keep the earlier response
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_keys (id, fingerprint, status, body, created_at)
+            VALUES (:id, :fingerprint, :status, :body, :createdAt)
+            ON CONFLICT (id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("fingerprint") String fingerprint,
+                       @Param("status") int status,
+                       @Param("body") String body,
+                       @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecordEntity r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
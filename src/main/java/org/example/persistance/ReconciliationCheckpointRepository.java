@@ -0,0 +1,9 @@
+package org.example.persistance;
+
+import org.example.persistance.entity.ReconciliationCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationCheckpointRepository extends JpaRepository<ReconciliationCheckpointEntity, String> {
+}
@@ -0,0 +1,25 @@
+package org.example.persistance;
+
+import org.example.persistance.entity.UserChangeEntity;
+
+import java.util.List;
+
+/**
+ * Reads of the change log in feed order: by writing transaction, then sequence number, and only entries of
+ * transactions older than every transaction still running, so a reader never skips one that commits later
+ * (V5__change_log_transaction_ids.sql). Sequence numbers identify entries but are not always increasing in this order.
+ */
+public interface UserChangeFeedRepository {
+
+    /**
+     * Entries after the one with the given sequence number, in feed order.
+     * 0, or a sequence number not in the log, reads from the start.
+     */
+    List<UserChangeEntity> findFeedAfter(long afterSequence, int limit);
+
+    /**
+     * Sequence number of the last entry in feed order, 0 when there is none; every user mutation appends
+     * to the log, so this works as a version stamp for anything derived from the users tables
+     */
+    long findFeedEnd();
+}
@@ -0,0 +1,54 @@
+package org.example.persistance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.persistance.entity.UserChangeEntity;
+
+import java.util.List;
+
+/**
+ * xid8 and row comparisons have no JPQL equivalent, so these are native queries issued through the EntityManager
+ */
+public class UserChangeFeedRepositoryImpl implements UserChangeFeedRepository {
+
+    private static final String VISIBLE = "c.xid < pg_snapshot_xmin(pg_current_snapshot())";
+
+    private static final String FIND_FEED_AFTER = """
+            SELECT c.sequence_number, c.type, c.keycloak_id, c.username, c.email, c.first_name, c.last_name,
+                   c.roles, c.occurred_at
+            FROM user_change_log c
+            WHERE %s
+              AND (c.xid, c.sequence_number) > (
+                    COALESCE((SELECT a.xid FROM user_change_log a WHERE a.sequence_number = :afterSequence),
+                             CAST('0' AS xid8)),
+                    :afterSequence)
+            ORDER BY c.xid, c.sequence_number
+            LIMIT :limit
+            """.formatted(VISIBLE);
+
+    private static final String FIND_FEED_END = """
+            SELECT c.sequence_number
+            FROM user_change_log c
+            WHERE %s
+            ORDER BY c.xid DESC, c.sequence_number DESC
+            LIMIT 1
+            """.formatted(VISIBLE);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserChangeEntity> findFeedAfter(long afterSequence, int limit) {
+        return entityManager.createNativeQuery(FIND_FEED_AFTER, UserChangeEntity.class)
+                .setParameter("afterSequence", afterSequence)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    @Override
+    public long findFeedEnd() {
+        List<?> end = entityManager.createNativeQuery(FIND_FEED_END).getResultList();
+        return end.isEmpty() ? 0 : ((Number) end.get(0)).longValue();
+    }
+}
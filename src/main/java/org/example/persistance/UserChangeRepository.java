@@ -0,0 +1,9 @@
+package org.example.persistance;
+
+import org.example.persistance.entity.UserChangeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChangeEntity, Long>, UserChangeFeedRepository {
+}
@@ -0,0 +1,214 @@
+package org.example.persistance;
+
+import lombok.RequiredArgsConstructor;
+import org.example.domain.UserChangeType;
+import org.example.domain.UserCopyFormat;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bulk export and import of live users and their roles over the COPY protocol, one row per user:
+ * keycloak_id, username, email, first_name, last_name, created_at, roles (varchar[]).
+ * Database ids are not part of the file; imported users get ids from the target database.
+ *
+ * An import copies the file into the users_import temp table and merges it into users and user_roles with a
+ * handful of set-based statements, which must all run in the caller's transaction (the temp tables drop at commit).
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserCopyRepository {
+
+    private static final String EXPORT = """
+            COPY (
+                SELECT u.keycloak_id, u.username, u.email, u.first_name, u.last_name, u.created_at,
+                       ARRAY(SELECT r.role FROM user_roles r WHERE r.user_id = u.id ORDER BY r.role) AS roles
+                FROM users u
+                WHERE u.deleted_at IS NULL
+            ) TO STDOUT WITH (%s)
+            """;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE users_import (
+                keycloak_id varchar(255) NOT NULL,
+                username    varchar(255) NOT NULL,
+                email       varchar(255),
+                first_name  varchar(255),
+                last_name   varchar(255),
+                created_at  timestamp(6),
+                roles       varchar(255)[]
+            ) ON COMMIT DROP
+            """;
+
+    private static final String CREATE_CHANGES = """
+            CREATE TEMP TABLE users_import_changes (
+                user_id bigint       PRIMARY KEY,
+                type    varchar(255) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String IMPORT = "COPY users_import FROM STDIN WITH (%s)";
+
+    private static final String FIND_DUPLICATE = """
+            SELECT keycloak_id FROM users_import GROUP BY keycloak_id HAVING count(*) > 1 LIMIT 1
+            """;
+
+    /**
+     * Tombstones still hold their unique keycloak_id, username and email until the purger removes them.
+     * Joins rather than IN (subquery): a hashed subplan over a large file would not fit in work_mem.
+     */
+    private static final String PURGE_COLLIDING_TOMBSTONES = """
+            WITH doomed AS (
+                SELECT u.id FROM users u JOIN users_import s ON s.keycloak_id = u.keycloak_id
+                WHERE u.deleted_at IS NOT NULL
+                UNION
+                SELECT u.id FROM users u JOIN users_import s ON s.username = u.username
+                WHERE u.deleted_at IS NOT NULL
+                UNION
+                SELECT u.id FROM users u JOIN users_import s ON s.email = u.email
+                WHERE u.deleted_at IS NOT NULL
+            ), roles AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """;
+
+    /**
+     * Rows that are already identical are left alone, so they write no new row version and no change log entry.
+     * The outer query still sees users as of before the statement, which tells created rows from updated ones
+     * (xmax cannot be read from a partitioned table).
+     */
+    private static final String MERGE_USERS = """
+            WITH merged AS (
+                INSERT INTO users AS u (keycloak_id, username, email, first_name, last_name, created_at)
+                SELECT keycloak_id, username, email, first_name, last_name, created_at FROM users_import
+                ON CONFLICT (keycloak_id) DO UPDATE
+                SET username = EXCLUDED.username, email = EXCLUDED.email, first_name = EXCLUDED.first_name,
+                    last_name = EXCLUDED.last_name, created_at = EXCLUDED.created_at
+                WHERE (u.username, u.email, u.first_name, u.last_name, u.created_at)
+                      IS DISTINCT FROM (EXCLUDED.username, EXCLUDED.email, EXCLUDED.first_name,
+                                        EXCLUDED.last_name, EXCLUDED.created_at)
+                RETURNING u.id, u.keycloak_id
+            )
+            INSERT INTO users_import_changes (user_id, type)
+            SELECT m.id, CASE WHEN EXISTS (SELECT 1 FROM users o WHERE o.keycloak_id = m.keycloak_id)
+                              THEN 'UPDATED' ELSE 'CREATED' END
+            FROM merged m
+            """;
+
+    /**
+     * Makes each imported user's roles exactly those of the file, touching only the rows that differ.
+     * Users already logged as created or updated, or with several role changes, are skipped by ON CONFLICT.
+     */
+    private static final String MERGE_ROLES = """
+            WITH imported AS (
+                SELECT u.id AS user_id, COALESCE(s.roles, '{}') AS roles
+                FROM users_import s JOIN users u ON u.keycloak_id = s.keycloak_id
+            ), removed AS (
+                DELETE FROM user_roles r USING imported i
+                WHERE r.user_id = i.user_id AND r.role <> ALL (i.roles)
+                RETURNING r.user_id
+            ), added AS (
+                INSERT INTO user_roles (user_id, role)
+                SELECT i.user_id, role FROM imported i CROSS JOIN unnest(i.roles) AS role
+                ON CONFLICT DO NOTHING
+                RETURNING user_id
+            )
+            INSERT INTO users_import_changes (user_id, type)
+            SELECT user_id, 'ROLES_CHANGED' FROM removed
+            UNION ALL
+            SELECT user_id, 'ROLES_CHANGED' FROM added
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    /**
+     * Same entries as UserChangePublisher.recordChange, roles sorted like its TreeSet
+     */
+    private static final String LOG_CHANGES = """
+            INSERT INTO user_change_log (type, keycloak_id, username, email, first_name, last_name, roles, occurred_at)
+            SELECT c.type, u.keycloak_id, u.username, u.email, u.first_name, u.last_name,
+                   COALESCE((SELECT string_agg(r.role, ',' ORDER BY r.role COLLATE "C")
+                             FROM user_roles r WHERE r.user_id = u.id), ''),
+                   now()
+            FROM users_import_changes c JOIN users u ON u.id = c.user_id
+            ORDER BY u.id
+            """;
+
+    private static final String COUNT_CHANGES = "SELECT type, count(*) FROM users_import_changes GROUP BY type";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of users written
+     */
+    public long export(UserCopyFormat format, OutputStream out) {
+        return copy(connection -> connection.getCopyAPI().copyOut(EXPORT.formatted(format.getCopyOptions()), out));
+    }
+
+    public void createStaging() {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute(CREATE_CHANGES);
+    }
+
+    /**
+     * @return number of rows copied into users_import
+     */
+    public long copyIn(UserCopyFormat format, InputStream in) {
+        long rows = copy(connection -> connection.getCopyAPI().copyIn(IMPORT.formatted(format.getCopyOptions()), in));
+        jdbcTemplate.execute("ANALYZE users_import");
+        return rows;
+    }
+
+    public Optional<String> findDuplicateKeycloakId() {
+        return jdbcTemplate.queryForList(FIND_DUPLICATE, String.class).stream().findFirst();
+    }
+
+    public int purgeCollidingTombstones() {
+        return jdbcTemplate.update(PURGE_COLLIDING_TOMBSTONES);
+    }
+
+    public void mergeUsers() {
+        jdbcTemplate.update(MERGE_USERS);
+    }
+
+    public void mergeRoles() {
+        jdbcTemplate.update(MERGE_ROLES);
+    }
+
+    public void logChanges() {
+        jdbcTemplate.update(LOG_CHANGES);
+    }
+
+    public Map<UserChangeType, Long> countChanges() {
+        Map<UserChangeType, Long> counts = new EnumMap<>(UserChangeType.class);
+        jdbcTemplate.query(COUNT_CHANGES,
+                row -> { counts.put(UserChangeType.valueOf(row.getString(1)), row.getLong(2)); });
+        return counts;
+    }
+
+    private long copy(CopyOperation operation) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return operation.run(connection.unwrap(PGConnection.class));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    @FunctionalInterface
+    private interface CopyOperation {
+        long run(PGConnection connection) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.persistance;
+
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Native column reads of live users and their roles, mapped straight into the projection values
+ */
+public interface UserProfileRepository {
+
+    /**
+     * Pattern must already be lower-cased and LIKE-escaped.
+     * The lower(...) expressions match the trigram indexes in V3__search_and_listing_indexes.sql.
+     */
+    Slice<UserProfileView> searchByRole(String role, String pattern, Pageable pageable);
+
+    /**
+     * Resolves many users with a single array parameter instead of an IN list,
+     * so the statement text stays the same whatever the batch size.
+     */
+    List<UserProfileView> findProfilesByKeycloakIds(String[] keycloakIds);
+
+    List<UserRoleView> findRolesByUserIds(Long[] userIds);
+
+    /**
+     * Live users holding any of the given usernames or emails
+     */
+    List<UserProfileView> findProfilesHoldingAny(String[] usernames, String[] emails);
+}
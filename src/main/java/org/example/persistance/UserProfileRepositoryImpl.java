@@ -0,0 +1,113 @@
+package org.example.persistance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Spring Data JPA can only return interface projections from native queries, so these are mapped here.
+ */
+public class UserProfileRepositoryImpl implements UserProfileRepository {
+
+    private static final String PROFILE_COLUMNS = """
+            SELECT u.id, u.keycloak_id, u.username, u.email, u.first_name, u.last_name, u.created_at
+            FROM users u
+            """;
+
+    // Fetches one row past the page to tell whether there is a next slice, without a COUNT(*)
+    private static final String SEARCH_BY_ROLE = PROFILE_COLUMNS + """
+            WHERE u.deleted_at IS NULL
+              AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :role)
+              AND (lower(u.username) LIKE :pattern
+                OR lower(u.email) LIKE :pattern
+                OR lower(u.first_name) LIKE :pattern
+                OR lower(u.last_name) LIKE :pattern)
+            ORDER BY u.username
+            LIMIT :limit OFFSET :offset
+            """;
+
+    private static final String FIND_BY_KEYCLOAK_IDS = PROFILE_COLUMNS + """
+            WHERE u.keycloak_id = ANY(:keycloakIds)
+              AND u.deleted_at IS NULL
+            """;
+
+    private static final String FIND_HOLDING_ANY = PROFILE_COLUMNS + """
+            WHERE u.deleted_at IS NULL
+              AND (u.username = ANY(:usernames) OR u.email = ANY(:emails))
+            """;
+
+    private static final String FIND_ROLES = """
+            SELECT r.user_id, r.role
+            FROM user_roles r
+            WHERE r.user_id = ANY(:userIds)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<UserProfileView> searchByRole(String role, String pattern, Pageable pageable) {
+        List<UserProfileView> profiles = profiles(profileQuery(SEARCH_BY_ROLE)
+                .setParameter("role", role)
+                .setParameter("pattern", pattern)
+                .setParameter("limit", pageable.getPageSize() + 1)
+                .setParameter("offset", pageable.getOffset()));
+
+        boolean hasNext = profiles.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? profiles.subList(0, pageable.getPageSize()) : profiles, pageable, hasNext);
+    }
+
+    @Override
+    public List<UserProfileView> findProfilesByKeycloakIds(String[] keycloakIds) {
+        return profiles(profileQuery(FIND_BY_KEYCLOAK_IDS)
+                .setParameter("keycloakIds", keycloakIds));
+    }
+
+    @Override
+    public List<UserProfileView> findProfilesHoldingAny(String[] usernames, String[] emails) {
+        return profiles(profileQuery(FIND_HOLDING_ANY)
+                .setParameter("usernames", usernames)
+                .setParameter("emails", emails));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UserRoleView> findRolesByUserIds(Long[] userIds) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(FIND_ROLES)
+                .unwrap(NativeQuery.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("role", String.class)
+                .setParameter("userIds", userIds);
+        return query.getResultList().stream()
+                .map(row -> new UserRoleView((Long) row[0], (String) row[1]))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> profileQuery(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("keycloak_id", String.class)
+                .addScalar("username", String.class)
+                .addScalar("email", String.class)
+                .addScalar("first_name", String.class)
+                .addScalar("last_name", String.class)
+                .addScalar("created_at", LocalDateTime.class);
+    }
+
+    private static List<UserProfileView> profiles(NativeQuery<Object[]> query) {
+        return query.getResultList().stream()
+                .map(row -> new UserProfileView((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], (String) row[5], (LocalDateTime) row[6]))
+                .toList();
+    }
+}
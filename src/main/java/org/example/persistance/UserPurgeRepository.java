@@ -0,0 +1,26 @@
+package org.example.persistance;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hard deletes of tombstoned users together with their roles, one statement each.
+ * The matching variants are only called once existsDeletedMatching or existsDeletedMatchingAny
+ * has found a tombstone, so the common case does not take row locks.
+ */
+public interface UserPurgeRepository {
+
+    /**
+     * Removes up to limit tombstoned users older than cutoff, and their roles
+     */
+    int purgeDeleted(LocalDateTime cutoff, int limit);
+
+    /**
+     * Frees the unique keycloak_id/username/email values still held by tombstones ahead of a new registration
+     */
+    int purgeDeletedMatching(String keycloakId, String username, String email);
+
+    /**
+     * Batch form of purgeDeletedMatching
+     */
+    int purgeDeletedMatchingAny(String[] keycloakIds, String[] usernames, String[] emails);
+}
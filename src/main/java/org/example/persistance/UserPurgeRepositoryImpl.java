@@ -0,0 +1,84 @@
+package org.example.persistance;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * The roles go in a data-modifying CTE, which JSqlParser (pulled in by Spring Data R2DBC) cannot parse:
+ * Spring Data JPA runs every native @Query through it when it is on the classpath, so these are issued
+ * through the EntityManager instead. The foreign key from user_roles is checked at the end of the statement,
+ * after both deletes.
+ */
+public class UserPurgeRepositoryImpl implements UserPurgeRepository {
+
+    // SKIP LOCKED lets several instances purge side by side without waiting on each other
+    private static final String PURGE_DELETED = """
+            WITH doomed AS (
+                SELECT id FROM users
+                WHERE deleted_at IS NOT NULL AND deleted_at < :cutoff
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ), roles AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """;
+
+    private static final String PURGE_DELETED_MATCHING = """
+            WITH doomed AS (
+                SELECT id FROM users
+                WHERE deleted_at IS NOT NULL
+                  AND (keycloak_id = :keycloakId OR username = :username OR email = :email)
+            ), roles AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """;
+
+    private static final String PURGE_DELETED_MATCHING_ANY = """
+            WITH doomed AS (
+                SELECT id FROM users
+                WHERE deleted_at IS NOT NULL
+                  AND (keycloak_id = ANY(:keycloakIds) OR username = ANY(:usernames) OR email = ANY(:emails))
+            ), roles AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int purgeDeleted(LocalDateTime cutoff, int limit) {
+        return entityManager.createNativeQuery(PURGE_DELETED)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int purgeDeletedMatching(String keycloakId, String username, String email) {
+        return entityManager.createNativeQuery(PURGE_DELETED_MATCHING)
+                .setParameter("keycloakId", keycloakId)
+                .setParameter("username", username)
+                .setParameter("email", email)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int purgeDeletedMatchingAny(String[] keycloakIds, String[] usernames, String[] emails) {
+        return entityManager.createNativeQuery(PURGE_DELETED_MATCHING_ANY)
+                .setParameter("keycloakIds", keycloakIds)
+                .setParameter("usernames", usernames)
+                .setParameter("emails", emails)
+                .executeUpdate();
+    }
+}
@@ -1,17 +1,101 @@
 package org.example.persistance;
 
+import jakarta.persistence.QueryHint;
 import org.example.domain.User;
 import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.DayCountView;
+import org.example.persistance.projection.RoleCountView;
+import org.example.persistance.projection.UserProfileView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
-    Optional<UserEntity> findByKeycloakId(String keycloakId);
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserProfileRepository, UserPurgeRepository {
+    /**
+     * Roles are fetched in the same query instead of a second select per user
+     */
+    @Query("SELECT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.keycloakId = :keycloakId")
+    Optional<UserEntity> findByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    /**
+     * Live users among the given keycloak ids, unknown ids are skipped
+     */
+    @Query("SELECT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.keycloakId IN :keycloakIds")
+    List<UserEntity> findAllByKeycloakIds(@Param("keycloakIds") Collection<String> keycloakIds);
+
+    /**
+     * For updates of loaded entities: read from Postgres even if a second-level cache is configured,
+     * so a stale copy is never written back
+     */
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
+    @Query("SELECT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<UserEntity> findAllForUpdateByIds(@Param("ids") Collection<Long> ids);
+
     boolean existsByKeycloakId(String keycloakId);
     List<UserEntity> findByRolesContaining(String role); // For therapists
     List<UserEntity> findAllByRoles(String role);
+
+    /**
+     * Column projection for the listing paths: no managed entities, no EAGER roles load
+     */
+    @Query("""
+            SELECT new org.example.persistance.projection.UserProfileView(
+                   u.id, u.keycloakId, u.username, u.email, u.firstName, u.lastName, u.createdAt)
+            FROM UserEntity u JOIN u.roles r
+            WHERE r = :role
+            ORDER BY u.id
+            """)
+    List<UserProfileView> findProfilesByRole(@Param("role") String role);
+
+    /**
+     * Soft delete: a single UPDATE, roles are left for the purger.
+     * Keyed on keycloak_id so the update prunes to one partition when users is hash-partitioned.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.deletedAt = :deletedAt WHERE u.keycloakId = :keycloakId")
+    int markDeleted(@Param("keycloakId") String keycloakId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM users
+                WHERE deleted_at IS NOT NULL
+                  AND (keycloak_id = :keycloakId OR username = :username OR email = :email)
+            )
+            """, nativeQuery = true)
+    boolean existsDeletedMatching(@Param("keycloakId") String keycloakId,
+                                  @Param("username") String username,
+                                  @Param("email") String email);
+
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM users
+                WHERE deleted_at IS NOT NULL
+                  AND (keycloak_id = ANY(:keycloakIds) OR username = ANY(:usernames) OR email = ANY(:emails))
+            )
+            """, nativeQuery = true)
+    boolean existsDeletedMatchingAny(@Param("keycloakIds") String[] keycloakIds,
+                                     @Param("usernames") String[] usernames,
+                                     @Param("emails") String[] emails);
+
+    @Query("SELECT r AS role, COUNT(u) AS total FROM UserEntity u JOIN u.roles r GROUP BY r")
+    List<RoleCountView> countByRole();
+
+    @Query("""
+            SELECT CAST(u.createdAt AS LocalDate) AS day, COUNT(u) AS total
+            FROM UserEntity u
+            WHERE u.createdAt >= :since
+            GROUP BY CAST(u.createdAt AS LocalDate)
+            """)
+    List<DayCountView> countRegistrationsByDaySince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,36 @@
+package org.example.persistance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Response of a completed request, kept under its Idempotency-Key so retries landing on another pod replay it
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecordEntity {
+    // Operation and client key, e.g. "register:3f2a..."
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    private int status;
+
+    // JSON of the response body
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package org.example.persistance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of a paged reconciliation run, so a restarted pod resumes instead of starting over
+ */
+@Entity
+@Table(name = "reconciliation_checkpoint")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationCheckpointEntity {
+    @Id
+    private String name;
+
+    // Keycloak "first" offset of the next page to process; 0 when no run is in progress
+    private int nextOffset;
+
+    private Instant updatedAt;
+    private Instant lastCompletedAt;
+}
@@ -0,0 +1,44 @@
+package org.example.persistance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.domain.UserChangeType;
+
+import java.time.Instant;
+
+/**
+ * Append-only log of user changes; the identity column is the feed sequence number
+ */
+@Entity
+@Table(name = "user_change_log")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sequence_number")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserChangeType type;
+
+    @Column(nullable = false)
+    private String keycloakId;
+
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+
+    // Comma-separated, the log is never queried by role
+    private String roles;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+}
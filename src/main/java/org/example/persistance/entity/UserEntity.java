@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,6 +15,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@SQLRestriction("deleted_at IS NULL") // Tombstoned users are invisible to entity loads and JPQL
+@DynamicUpdate // Updates write only the changed columns, never a deleted_at read before a concurrent soft delete
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,4 +47,7 @@ public class UserEntity {
     private Set<String> roles;
 
     private LocalDateTime createdAt;
+
+    // Set by a soft delete; the row and its roles are removed later by UserPurger
+    private LocalDateTime deletedAt;
 }
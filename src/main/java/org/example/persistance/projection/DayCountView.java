@@ -0,0 +1,11 @@
+package org.example.persistance.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Number of live users registered on a day
+ */
+public interface DayCountView {
+    LocalDate getDay();
+    Long getTotal();
+}
@@ -0,0 +1,9 @@
+package org.example.persistance.projection;
+
+/**
+ * Number of live users holding a role
+ */
+public interface RoleCountView {
+    String getRole();
+    Long getTotal();
+}
@@ -0,0 +1,21 @@
+package org.example.persistance.projection;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of the users columns, without the roles collection.
+ * A plain value, not an interface projection: Spring Data backs those with a proxy per row whose getters
+ * resolve types reflectively, which allocated more per listing than the managed entities they replaced.
+ */
+@Value
+public class UserProfileView {
+    Long id;
+    String keycloakId;
+    String username;
+    String email;
+    String firstName;
+    String lastName;
+    LocalDateTime createdAt;
+}
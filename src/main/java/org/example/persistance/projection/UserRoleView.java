@@ -0,0 +1,12 @@
+package org.example.persistance.projection;
+
+import lombok.Value;
+
+/**
+ * Single row of the user_roles collection table
+ */
+@Value
+public class UserRoleView {
+    Long userId;
+    String role;
+}
@@ -0,0 +1,26 @@
+package org.example.persistance.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveUserChangeRepository extends ReactiveCrudRepository<UserChangeRow, Long> {
+
+    /**
+     * Feed order, as UserChangeFeedRepository.findFeedAfter
+     */
+    @Query("""
+            SELECT c.sequence_number, c.type, c.keycloak_id, c.username, c.email, c.first_name, c.last_name,
+                   c.roles, c.occurred_at
+            FROM user_change_log c
+            WHERE c.xid < pg_snapshot_xmin(pg_current_snapshot())
+              AND (c.xid, c.sequence_number) > (
+                    COALESCE((SELECT a.xid FROM user_change_log a WHERE a.sequence_number = :afterSequence),
+                             CAST('0' AS xid8)),
+                    :afterSequence)
+            ORDER BY c.xid, c.sequence_number
+            LIMIT :limit
+            """)
+    Flux<UserChangeRow> findAfter(@Param("afterSequence") long afterSequence, @Param("limit") int limit);
+}
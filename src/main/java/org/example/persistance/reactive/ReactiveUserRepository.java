@@ -0,0 +1,82 @@
+package org.example.persistance.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive counterpart of UserRepository; every read filters out soft-deleted users explicitly
+ */
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+    @Query("SELECT * FROM users WHERE keycloak_id = :keycloakId AND deleted_at IS NULL")
+    Mono<UserRow> findLiveByKeycloakId(@Param("keycloakId") String keycloakId);
+
+    @Query("""
+            SELECT u.* FROM users u
+            WHERE u.deleted_at IS NULL
+              AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :role)
+            ORDER BY u.id
+            """)
+    Flux<UserRow> findLiveByRole(@Param("role") String role);
+
+    /**
+     * Pattern must already be lower-cased and LIKE-escaped, see SearchTherapistsImpl.likePattern
+     */
+    @Query("""
+            SELECT u.* FROM users u
+            WHERE u.deleted_at IS NULL
+              AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = u.id AND r.role = :role)
+              AND (lower(u.username) LIKE :pattern
+                OR lower(u.email) LIKE :pattern
+                OR lower(u.first_name) LIKE :pattern
+                OR lower(u.last_name) LIKE :pattern)
+            ORDER BY u.username
+            LIMIT :limit OFFSET :offset
+            """)
+    Flux<UserRow> searchByRole(@Param("role") String role,
+                               @Param("pattern") String pattern,
+                               @Param("limit") int limit,
+                               @Param("offset") long offset);
+
+    @Query("SELECT * FROM users WHERE keycloak_id = ANY(:keycloakIds) AND deleted_at IS NULL")
+    Flux<UserRow> findLiveByKeycloakIds(@Param("keycloakIds") String[] keycloakIds);
+
+    @Query("SELECT user_id, role FROM user_roles WHERE user_id = ANY(:userIds)")
+    Flux<UserRoleRow> findRolesByUserIds(@Param("userIds") Long[] userIds);
+
+    @Modifying
+    @Query("DELETE FROM user_roles WHERE user_id = :userId")
+    Mono<Integer> deleteRoles(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("INSERT INTO user_roles (user_id, role) SELECT :userId, unnest(CAST(:roles AS varchar[]))")
+    Mono<Integer> insertRoles(@Param("userId") Long userId, @Param("roles") String[] roles);
+
+    @Modifying
+    @Query("UPDATE users SET deleted_at = :deletedAt WHERE keycloak_id = :keycloakId AND deleted_at IS NULL")
+    Mono<Integer> markDeleted(@Param("keycloakId") String keycloakId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Same as UserRepository.purgeDeletedMatching
+     */
+    @Modifying
+    @Query("""
+            WITH doomed AS (
+                SELECT id FROM users
+                WHERE deleted_at IS NOT NULL
+                  AND (keycloak_id = :keycloakId OR username = :username OR email = :email)
+            ), roles AS (
+                DELETE FROM user_roles WHERE user_id IN (SELECT id FROM doomed)
+            )
+            DELETE FROM users WHERE id IN (SELECT id FROM doomed)
+            """)
+    Mono<Integer> purgeDeletedMatching(@Param("keycloakId") String keycloakId,
+                                       @Param("username") String username,
+                                       @Param("email") String email);
+}
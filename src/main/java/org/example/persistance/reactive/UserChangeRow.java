@@ -0,0 +1,35 @@
+package org.example.persistance.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.domain.UserChangeType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * R2DBC mapping of the user_change_log table
+ */
+@Table("user_change_log")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeRow {
+    @Id
+    @Column("sequence_number")
+    private Long sequence;
+
+    private UserChangeType type;
+    private String keycloakId;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String roles;
+    private Instant occurredAt;
+}
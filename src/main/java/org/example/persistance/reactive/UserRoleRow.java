@@ -0,0 +1,16 @@
+package org.example.persistance.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row of the user_roles collection table
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRoleRow {
+    private Long userId;
+    private String role;
+}
@@ -0,0 +1,31 @@
+package org.example.persistance.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the users table; roles live in user_roles and are queried separately
+ */
+@Table("users")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRow {
+    @Id
+    private Long id;
+
+    private String keycloakId;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private LocalDateTime createdAt;
+    private LocalDateTime deletedAt;
+}
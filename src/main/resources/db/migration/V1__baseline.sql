@@ -0,0 +1,25 @@
+-- Schema exactly as Hibernate's ddl-auto: update created it before Flyway took over, constraint names included.
+-- Databases that already have these tables are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and start at V2, which brings every later ddl-auto state to the same schema.
+
+CREATE TABLE users (
+    id          bigserial    NOT NULL,
+    created_at  timestamp(6),
+    email       varchar(255),
+    first_name  varchar(255),
+    keycloak_id varchar(255) NOT NULL,
+    last_name   varchar(255),
+    username    varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_roles (
+    user_id bigint NOT NULL,
+    role    varchar(255)
+);
+
+ALTER TABLE users ADD CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email);
+ALTER TABLE users ADD CONSTRAINT UK_366dgrd625s5659shyen79mmw UNIQUE (keycloak_id);
+ALTER TABLE users ADD CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username);
+
+ALTER TABLE user_roles ADD CONSTRAINT FKhfh9dx7w3ubf1co1vdev94g3f FOREIGN KEY (user_id) REFERENCES users;
@@ -0,0 +1,45 @@
+-- Tables and columns that ddl-auto added after the V1 baseline. IF NOT EXISTS throughout: a database baselined
+-- at V1 may already have any of them, depending on the release that last ran ddl-auto against it.
+
+-- Soft delete (UserPurger removes the row later)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+
+-- Older ddl-auto runs never gave the roles collection a key; the bulk import and partitioning rely on one.
+-- Releases on Hibernate 6 already created user_roles_pkey, so the key is only added where none exists.
+DELETE FROM user_roles WHERE role IS NULL;
+DELETE FROM user_roles r USING user_roles d
+WHERE r.user_id = d.user_id AND r.role = d.role AND r.ctid > d.ctid;
+ALTER TABLE user_roles ALTER COLUMN role SET NOT NULL;
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'user_roles'::regclass AND contype = 'p') THEN
+        ALTER TABLE user_roles ADD CONSTRAINT user_roles_pkey PRIMARY KEY (user_id, role);
+    END IF;
+END $$;
+
+-- Versioned change feed (UserChangePublisher)
+CREATE TABLE IF NOT EXISTS user_change_log (
+    sequence_number bigserial    NOT NULL,
+    keycloak_id     varchar(255) NOT NULL,
+    type            varchar(255) NOT NULL,
+    username        varchar(255),
+    email           varchar(255),
+    first_name      varchar(255),
+    last_name       varchar(255),
+    roles           varchar(255),
+    occurred_at     timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (sequence_number)
+);
+
+-- ddl-auto pinned the change types in a check constraint; new types are added in code only
+ALTER TABLE user_change_log DROP CONSTRAINT IF EXISTS user_change_log_type_check;
+
+-- Resumable Keycloak reconciliation (UserReconciliationImpl)
+CREATE TABLE IF NOT EXISTS reconciliation_checkpoint (
+    name              varchar(255) NOT NULL,
+    next_offset       integer      NOT NULL,
+    updated_at        timestamp(6) with time zone,
+    last_completed_at timestamp(6) with time zone,
+    PRIMARY KEY (name)
+);
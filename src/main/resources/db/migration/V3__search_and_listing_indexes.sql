@@ -0,0 +1,28 @@
+-- IF NOT EXISTS: databases that ran on ddl-auto already have the indexes that schema.sql used to create
+
+-- Therapist search: trigram indexes serve both prefix (LIKE 'x%') and substring (LIKE '%x%') matching
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+
+-- Soft delete: live-row lookups go through the unique indexes with a cheap deleted_at recheck,
+-- the purger finds tombstones through this partial index, which stays as small as the backlog
+CREATE INDEX IF NOT EXISTS idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- Listing by role and counting per role: an index-only scan instead of reading every user_roles row
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_user_id ON user_roles (role, user_id);
+
+-- Therapist listing: covers every column of the profile projection, so the join on id
+-- is answered from the index alone once the visibility map is current
+CREATE INDEX IF NOT EXISTS idx_users_live_profile ON users (id)
+    INCLUDE (keycloak_id, username, email, first_name, last_name, created_at)
+    WHERE deleted_at IS NULL;
+
+-- Search results are ordered by username
+CREATE INDEX IF NOT EXISTS idx_users_live_username ON users (username) WHERE deleted_at IS NULL;
+
+-- Registrations per day for the statistics reconciliation
+CREATE INDEX IF NOT EXISTS idx_users_live_created_at ON users (created_at) WHERE deleted_at IS NULL;
@@ -0,0 +1,11 @@
+-- Optional shared tier of the idempotency store (idempotency.persistent.enabled)
+CREATE TABLE idempotency_keys (
+    id          varchar(320) PRIMARY KEY,
+    fingerprint varchar(255) NOT NULL,
+    status      integer      NOT NULL,
+    body        text,
+    created_at  timestamp(6) with time zone NOT NULL
+);
+
+-- Expiry sweep
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
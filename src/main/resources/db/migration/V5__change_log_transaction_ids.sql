@@ -0,0 +1,9 @@
+-- Change feed readers (replay, the read model) resume after the last change they have returned. Sequence numbers
+-- are drawn at insert, not at commit, so a lower number can become visible after a higher one. Every entry records
+-- the id of the transaction that wrote it: readers only return entries whose transaction is older than every
+-- transaction still running (pg_snapshot_xmin), in (xid, sequence_number) order. No later commit can add an entry
+-- before the end of that prefix, and writers never wait on each other.
+
+ALTER TABLE user_change_log ADD COLUMN IF NOT EXISTS xid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_user_change_log_xid ON user_change_log (xid, sequence_number);
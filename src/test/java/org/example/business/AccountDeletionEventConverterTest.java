@@ -0,0 +1,144 @@
+package org.example.business;
+
+import org.example.business.dto.AccountDeletionEvent;
+import org.example.business.dto.UserChangeEvent;
+import org.example.business.dto.proto.AccountDeletionMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountDeletionEventConverterTest {
+
+    private final AccountDeletionEvent event = new AccountDeletionEvent(
+            "user-123", LocalDateTime.of(2024, 1, 15, 10, 0, 0, 123_000_000), "User requested deletion");
+
+    @Test
+    void toMessage_shouldEncodeProtobuf_whenBinaryEnabled() {
+        // Arrange
+        AccountDeletionEventConverter converter = converter(true);
+
+        // Act
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        // Assert
+        assertEquals(AccountDeletionEventConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals("openleaf.user.events.v1.AccountDeletionMessage",
+                message.getMessageProperties().getHeader(AccountDeletionEventConverter.MESSAGE_TYPE_HEADER));
+        assertEquals(event, converter.fromMessage(message));
+    }
+
+    @Test
+    void toMessage_shouldBeSmallerThanJson() {
+        // Act
+        Message binary = converter(true).toMessage(event, new MessageProperties());
+        Message json = converter(false).toMessage(event, new MessageProperties());
+
+        // Assert
+        assertTrue(binary.getBody().length < json.getBody().length / 2);
+    }
+
+    @Test
+    void toMessage_shouldUseJson_whenBinaryDisabled() {
+        // Act
+        Message message = converter(false).toMessage(event, new MessageProperties());
+
+        // Assert
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+
+    @Test
+    void toMessage_shouldUseJson_forOtherEvents() {
+        // Arrange
+        UserChangeEvent change = UserChangeEvent.builder().keycloakId("user-123").build();
+
+        // Act
+        Message message = converter(true).toMessage(change, new MessageProperties());
+
+        // Assert
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+
+    @Test
+    void fromMessage_shouldDecodeJson_whenBinaryEnabled() {
+        // Arrange
+        Message json = converter(false).toMessage(event, new MessageProperties());
+
+        // Act
+        Object decoded = converter(true).fromMessage(json);
+
+        // Assert
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void fromMessage_shouldRejectNewerSchemaVersion() {
+        // Arrange
+        byte[] body = AccountDeletionMessage.newBuilder()
+                .setSchemaVersion(AccountDeletionEventConverter.SCHEMA_VERSION + 1)
+                .setUserKeycloakId("user-123")
+                .build()
+                .toByteArray();
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(AccountDeletionEventConverter.CONTENT_TYPE);
+        AccountDeletionEventConverter converter = converter(true);
+        Message message = new Message(body, properties);
+
+        // Act & Assert
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    void fromMessage_shouldRejectOtherProtobufTypes() {
+        // Arrange
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(AccountDeletionEventConverter.CONTENT_TYPE);
+        properties.setHeader(AccountDeletionEventConverter.MESSAGE_TYPE_HEADER, "openleaf.other.v1.Something");
+        AccountDeletionEventConverter converter = converter(true);
+        Message message = new Message(new byte[0], properties);
+
+        // Act & Assert
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    void encode_shouldCarryTheLocalDeletionTimeAsAnInstant() throws Exception {
+        // Arrange
+        LocalDateTime deletedAt = LocalDateTime.of(2024, 1, 15, 10, 30, 0, 5_000);
+        AccountDeletionEvent event = new AccountDeletionEvent("user-123", deletedAt, null);
+
+        // Act
+        AccountDeletionMessage message = AccountDeletionMessage.parseFrom(AccountDeletionEventConverter.encode(event));
+
+        // Assert
+        Instant expected = deletedAt.atZone(ZoneId.systemDefault()).toInstant();
+        assertEquals(expected.getEpochSecond(), message.getDeletedAt().getSeconds());
+        assertEquals(expected.getNano(), message.getDeletedAt().getNanos());
+        assertEquals(deletedAt, AccountDeletionEventConverter.decode(message.toByteArray()).getDeletionTimestamp());
+    }
+
+    @Test
+    void decode_shouldLeaveMissingFieldsNull() {
+        // Arrange
+        byte[] body = AccountDeletionMessage.newBuilder().setUserKeycloakId("user-123").build().toByteArray();
+
+        // Act
+        AccountDeletionEvent decoded = AccountDeletionEventConverter.decode(body);
+
+        // Assert
+        assertEquals("user-123", decoded.getUserKeycloakId());
+        assertNull(decoded.getDeletionTimestamp());
+        assertNull(decoded.getReason());
+    }
+
+    private AccountDeletionEventConverter converter(boolean binary) {
+        return new AccountDeletionEventConverter(new Jackson2JsonMessageConverter(), binary);
+    }
+}
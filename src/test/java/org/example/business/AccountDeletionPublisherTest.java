@@ -1,5 +1,8 @@
 package org.example.business;
 
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.business.dto.AccountDeletionEvent;
 import org.example.config.RabbitMQConfig;
 import org.junit.jupiter.api.Test;
@@ -7,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
@@ -23,6 +27,10 @@ class AccountDeletionPublisherTest {
     @Mock
     private RabbitTemplate rabbitTemplate;
 
+    @Spy
+    private DependencyGuard rabbitGuard = new DependencyGuard("rabbitmq", SimpleLimiter.newBuilder().build(),
+            CircuitBreaker.ofDefaults("rabbitmq"), e -> false, new SimpleMeterRegistry());
+
     @InjectMocks
     private AccountDeletionPublisher publisher;
 
@@ -0,0 +1,76 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAdmitWrite_shouldAdmit_whenSlotsAvailable() {
+        // Arrange
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, true, 2, 0, Duration.ZERO);
+
+        // Act & Assert
+        assertEquals(AdmissionControl.Decision.ADMITTED, admissionControl.tryAdmitWrite());
+        assertEquals(AdmissionControl.Decision.ADMITTED, admissionControl.tryAdmitWrite());
+        assertEquals(2.0, meterRegistry.get("admission.inflight").gauge().value());
+    }
+
+    @Test
+    void tryAdmitWrite_shouldShed_whenQueueFull() {
+        // Arrange
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, true, 1, 0, Duration.ofSeconds(5));
+        admissionControl.tryAdmitWrite();
+
+        // Act
+        AdmissionControl.Decision decision = admissionControl.tryAdmitWrite();
+
+        // Assert
+        assertEquals(AdmissionControl.Decision.QUEUE_FULL, decision);
+        assertEquals(1.0, meterRegistry.get("admission.shed").tag("reason", "queue_full").counter().count());
+        assertEquals(0, admissionControl.getQueueDepth());
+    }
+
+    @Test
+    void tryAdmitWrite_shouldTimeOut_whenNoSlotFreesUp() {
+        // Arrange
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, true, 1, 10, Duration.ofMillis(20));
+        admissionControl.tryAdmitWrite();
+
+        // Act
+        AdmissionControl.Decision decision = admissionControl.tryAdmitWrite();
+
+        // Assert
+        assertEquals(AdmissionControl.Decision.TIMED_OUT, decision);
+        assertEquals(1.0, meterRegistry.get("admission.shed").tag("reason", "timed_out").counter().count());
+        assertEquals(0, admissionControl.getQueueDepth());
+    }
+
+    @Test
+    void tryAdmitWrite_shouldAdmitQueuedWrite_whenSlotReleased() throws Exception {
+        // Arrange
+        AdmissionControl admissionControl = new AdmissionControl(meterRegistry, true, 1, 10, Duration.ofSeconds(5));
+        admissionControl.tryAdmitWrite();
+
+        Thread releaser = new Thread(() -> {
+            while (admissionControl.getQueueDepth() == 0) {
+                Thread.onSpinWait();
+            }
+            admissionControl.release();
+        });
+        releaser.start();
+
+        // Act
+        AdmissionControl.Decision decision = admissionControl.tryAdmitWrite();
+
+        // Assert
+        releaser.join();
+        assertEquals(AdmissionControl.Decision.ADMITTED, decision);
+    }
+}
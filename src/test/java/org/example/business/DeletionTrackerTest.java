@@ -0,0 +1,168 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.dto.DeletionAckEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeletionTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    private DeletionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new DeletionTracker(meterRegistry, clock, Duration.ofMinutes(5), Duration.ofHours(1), 100);
+    }
+
+    @Test
+    void acknowledge_shouldRecordCompletion_whenAllServicesAck() {
+        // Arrange
+        tracker.track("user-123");
+
+        // Act
+        clock.advance(Duration.ofSeconds(2));
+        tracker.acknowledge(ack("user-123", "assignment", true));
+        tracker.acknowledge(ack("user-123", "journal", true));
+        clock.advance(Duration.ofSeconds(3));
+        tracker.acknowledge(ack("user-123", "scheduling", true));
+
+        // Assert
+        assertEquals(0, tracker.getPendingCount());
+        Timer completion = meterRegistry.get("deletion.completion.latency").tag("outcome", "success").timer();
+        assertEquals(1, completion.count());
+        assertEquals(5000, completion.totalTime(TimeUnit.MILLISECONDS), 0.1);
+        assertEquals(3, meterRegistry.get("deletion.service.latency").timers().size());
+    }
+
+    @Test
+    void acknowledge_shouldStayPending_untilAllServicesAck() {
+        // Arrange
+        tracker.track("user-123");
+
+        // Act
+        tracker.acknowledge(ack("user-123", "assignment", true));
+        tracker.acknowledge(ack("user-123", "assignment", true)); // redelivery
+
+        // Assert
+        assertEquals(1, tracker.getPendingCount());
+        assertEquals(1, meterRegistry.get("deletion.service.latency").timer().count());
+        assertTrue(meterRegistry.find("deletion.completion.latency").timers().isEmpty());
+    }
+
+    @Test
+    void acknowledge_shouldTagFailedOutcome_whenAnyServiceFails() {
+        // Arrange
+        tracker.track("user-123");
+
+        // Act
+        tracker.acknowledge(ack("user-123", "assignment", true));
+        tracker.acknowledge(ack("user-123", "scheduling", false));
+        tracker.acknowledge(ack("user-123", "journal", true));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("deletion.completion.latency").tag("outcome", "failed").timer().count());
+    }
+
+    @Test
+    void acknowledge_shouldIgnoreUntrackedDeletionsAndUnknownServices() {
+        // Arrange
+        tracker.track("user-123");
+
+        // Act
+        tracker.acknowledge(ack("someone-else", "assignment", true));
+        tracker.acknowledge(ack("user-123", "billing", true));
+
+        // Assert
+        assertEquals(1, tracker.getPendingCount());
+        assertTrue(meterRegistry.find("deletion.service.latency").timers().isEmpty());
+    }
+
+    @Test
+    void countStuck_shouldCountDeletionsOlderThanThreshold() {
+        // Arrange
+        tracker.track("old-user");
+        clock.advance(Duration.ofMinutes(6));
+        tracker.track("new-user");
+
+        // Act & Assert
+        assertEquals(1.0, meterRegistry.get("deletion.stuck").gauge().value());
+        assertEquals(2.0, meterRegistry.get("deletion.pending").gauge().value());
+    }
+
+    @Test
+    void expireStale_shouldDropExpiredDeletions() {
+        // Arrange
+        tracker.track("old-user");
+        clock.advance(Duration.ofHours(2));
+        tracker.track("new-user");
+
+        // Act
+        tracker.expireStale();
+
+        // Assert
+        assertEquals(1, tracker.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("deletion.expired").counter().count());
+    }
+
+    @Test
+    void track_shouldStopTracking_whenMaxReached() {
+        // Arrange
+        DeletionTracker small = new DeletionTracker(meterRegistry, clock, Duration.ofMinutes(5), Duration.ofHours(1), 1);
+
+        // Act
+        small.track("user-1");
+        small.track("user-2");
+
+        // Assert
+        assertEquals(1, small.getPendingCount());
+        assertEquals(1.0, meterRegistry.get("deletion.untracked").counter().count());
+    }
+
+    private DeletionAckEvent ack(String userKeycloakId, String service, boolean success) {
+        return DeletionAckEvent.builder()
+                .userKeycloakId(userKeycloakId)
+                .service(service)
+                .success(success)
+                .completedAt(clock.instant())
+                .build();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.business;
+
+import com.netflix.concurrency.limits.limit.FixedLimit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.exception.DependencyUnavailableException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_shouldReturnResult_whenCallSucceeds() {
+        // Arrange
+        DependencyGuard guard = guard(10, CircuitBreaker.ofDefaults("test"));
+
+        // Act
+        String result = guard.execute(() -> "ok");
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(0, meterRegistry.get("dependency.concurrency.inflight").gauge().value());
+    }
+
+    @Test
+    void execute_shouldRejectFast_whenConcurrencyLimitReached() throws Exception {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread blocker = new Thread(() -> guard.run(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        blocker.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        DependencyUnavailableException exception = assertThrows(DependencyUnavailableException.class,
+                () -> guard.execute(() -> "second"));
+        assertEquals("test", exception.getDependency());
+        assertEquals(1.0, meterRegistry.get("dependency.rejected").tag("reason", "concurrency_limit").counter().count());
+
+        release.countDown();
+        blocker.join();
+    }
+
+    @Test
+    void execute_shouldRejectFast_whenCircuitOpen() {
+        // Arrange
+        CircuitBreaker breaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        DependencyGuard guard = guard(10, breaker);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.execute(() -> {
+                throw new IllegalStateException("boom");
+            }));
+        }
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreakerState());
+        assertThrows(DependencyUnavailableException.class, () -> guard.execute(() -> "never called"));
+        assertEquals(1.0, meterRegistry.get("dependency.rejected").tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void execute_shouldPropagateCallFailure_andReleasePermit() {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> guard.execute(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Assert
+        assertEquals("ok", guard.execute(() -> "ok"));
+    }
+
+    @Test
+    void executeReactive_shouldHoldPermitUntilCompletion() {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+        Sinks.One<String> pending = Sinks.one();
+
+        // Act & Assert
+        StepVerifier.create(guard.executeReactive(pending::asMono))
+                .then(() -> StepVerifier.create(guard.executeReactive(() -> Mono.just("second")))
+                        .expectError(DependencyUnavailableException.class)
+                        .verify())
+                .then(() -> pending.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+
+        StepVerifier.create(guard.executeReactive(() -> Mono.just("third")))
+                .expectNext("third")
+                .verifyComplete();
+    }
+
+    @Test
+    void executeReactive_shouldRejectFast_whenCircuitOpen() {
+        // Arrange
+        CircuitBreaker breaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        DependencyGuard guard = guard(10, breaker);
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(guard.executeReactive(() -> Mono.error(new IllegalStateException("boom"))))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+        }
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreakerState());
+        StepVerifier.create(guard.executeReactive(() -> Mono.just("never called")))
+                .expectError(DependencyUnavailableException.class)
+                .verify();
+    }
+
+    @Test
+    void executeReactive_shouldReleasePermit_whenCancelled() {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+
+        // Act
+        StepVerifier.create(guard.executeReactive(Mono::never))
+                .thenCancel()
+                .verify();
+
+        // Assert
+        StepVerifier.create(guard.executeReactive(() -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_shouldReleasePermit_whenCallThrowsError() {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+
+        // Act
+        assertThrows(StackOverflowError.class, () -> guard.execute(() -> {
+            throw new StackOverflowError();
+        }));
+
+        // Assert
+        assertEquals("ok", guard.execute(() -> "ok"));
+        assertEquals(0, meterRegistry.get("dependency.concurrency.inflight").gauge().value());
+    }
+
+    @Test
+    void executeReactive_shouldReleasePermit_whenAssemblyFails() {
+        // Arrange
+        DependencyGuard guard = guard(1, CircuitBreaker.ofDefaults("test"));
+
+        // Act
+        StepVerifier.create(guard.executeReactive(() -> {
+                    throw new IllegalArgumentException("bad request");
+                }))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        // Assert
+        StepVerifier.create(guard.executeReactive(() -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    private DependencyGuard guard(int limit, CircuitBreaker breaker) {
+        return new DependencyGuard("test",
+                SimpleLimiter.newBuilder().limit(FixedLimit.of(limit)).build(),
+                breaker,
+                e -> e instanceof IllegalStateException,
+                meterRegistry);
+    }
+}
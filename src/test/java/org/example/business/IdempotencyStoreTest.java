@@ -0,0 +1,464 @@
+package org.example.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.persistance.IdempotencyRecordRepository;
+import org.example.persistance.entity.IdempotencyRecordEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void execute_shouldRunEveryTime_whenNoKey() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+
+        // Act
+        store.execute("delete", null, "user-1", String.class, ok("deleted"));
+        store.execute("delete", " ", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(2, calls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void execute_shouldReplayFirstResponse_forDuplicateKey() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        ResponseEntity<String> first = store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Act
+        ResponseEntity<String> second = store.execute("delete", "key-1", "user-1", String.class, ok("deleted again"));
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals("deleted", first.getBody());
+        assertEquals("deleted", second.getBody());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, meterRegistry.get("idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void execute_shouldRejectKey_reusedForDifferentRequest() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Act
+        ResponseEntity<String> response = store.execute("delete", "key-1", "user-2", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_shouldScopeKeysByOperation() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+
+        // Act
+        store.execute("register", "key-1", "user-1", String.class, ok("registered"));
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_shouldNotKeepServerErrors() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        store.execute("delete", "key-1", "user-1", String.class, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("unavailable");
+        });
+
+        // Act
+        ResponseEntity<String> retry = store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(2, calls.get());
+        assertEquals("deleted", retry.getBody());
+    }
+
+    @Test
+    void execute_shouldForgetKey_whenActionThrows() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        Supplier<ResponseEntity<String>> failing = () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        };
+        assertThrows(IllegalStateException.class, () -> store.execute("register", "key-1", "f", String.class, failing));
+
+        // Act
+        ResponseEntity<String> retry = store.execute("register", "key-1", "f", String.class, ok("registered"));
+
+        // Assert
+        assertEquals("registered", retry.getBody());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentDuplicates() throws Exception {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() ->
+                    store.execute("delete", "key-1", "user-1", String.class, () -> {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        await(release);
+                        return ResponseEntity.ok("deleted");
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            Thread releaser = new Thread(() -> {
+                sleep(100);
+                release.countDown();
+            });
+            releaser.start();
+            ResponseEntity<String> duplicate = store.execute("delete", "key-1", "user-1", String.class, ok("again"));
+
+            // Assert
+            assertEquals("deleted", first.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("deleted", duplicate.getBody());
+            assertEquals(1, calls.get());
+            assertEquals(1, meterRegistry.get("idempotency.requests").tag("outcome", "coalesced").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldAnswerConflict_whenDuplicateWaitsTooLong() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(recordRepository, new ObjectMapper(), meterRegistry, clock,
+                Duration.ofHours(1), 100, Duration.ofMillis(50), false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> store.execute("delete", "key-1", "user-1", String.class, () -> {
+                started.countDown();
+                await(release);
+                return ResponseEntity.ok("deleted");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            ResponseEntity<String> duplicate = store.execute("delete", "key-1", "user-1", String.class, ok("again"));
+
+            // Assert
+            assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+            assertNotNull(duplicate.getHeaders().getFirst("Retry-After"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldRunAgain_afterTtl() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Act
+        clock.advance(Duration.ofHours(2));
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_shouldEvictOldestCompleted_whenFull() {
+        // Arrange
+        IdempotencyStore store = store(2, false);
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+        clock.advance(Duration.ofMinutes(1));
+        store.execute("delete", "key-2", "user-2", String.class, ok("deleted"));
+
+        // Act
+        store.execute("delete", "key-3", "user-3", String.class, ok("deleted"));
+        ResponseEntity<String> retried = store.execute("delete", "key-3", "user-3", String.class, ok("again"));
+        store.execute("delete", "key-2", "user-2", String.class, ok("again"));
+
+        // Assert
+        assertEquals(3, calls.get());
+        assertEquals("true", retried.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void execute_shouldRunUntracked_whenFullOfRequestsInFlight() throws Exception {
+        // Arrange
+        IdempotencyStore store = store(1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> store.execute("delete", "key-1", "user-1", String.class, () -> {
+                started.countDown();
+                await(release);
+                return ResponseEntity.ok("deleted");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            store.execute("delete", "key-2", "user-2", String.class, ok("deleted"));
+            store.execute("delete", "key-2", "user-2", String.class, ok("deleted"));
+
+            // Assert
+            assertEquals(2, calls.get());
+            assertEquals(1, store.size());
+            assertEquals(2, meterRegistry.get("idempotency.requests").tag("outcome", "untracked").counter().count());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_whenFullOfRequestsInFlight() throws Exception {
+        // Arrange
+        IdempotencyStore store = store(1, true);
+        when(recordRepository.findById("delete:key-1")).thenReturn(Optional.empty());
+        when(recordRepository.findById("delete:key-2")).thenReturn(Optional.of(IdempotencyRecordEntity.builder()
+                .id("delete:key-2")
+                .fingerprint("user-2")
+                .status(200)
+                .body("\"deleted\"")
+                .createdAt(clock.instant())
+                .build()));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> store.execute("delete", "key-1", "user-1", String.class, () -> {
+                started.countDown();
+                await(release);
+                return ResponseEntity.ok("deleted");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            ResponseEntity<String> response = store.execute("delete", "key-2", "user-2", String.class, ok("again"));
+
+            // Assert
+            assertEquals(0, calls.get());
+            assertEquals("deleted", response.getBody());
+            assertEquals("true", response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fingerprint_shouldDifferForDifferentBodies() {
+        // Arrange
+        IdempotencyStore store = store(100, false);
+
+        // Act
+        String first = store.fingerprint(Map.of("username", "alice"));
+        String same = store.fingerprint(Map.of("username", "alice"));
+        String other = store.fingerprint(Map.of("username", "bob"));
+
+        // Assert
+        assertEquals(64, first.length());
+        assertEquals(first, same);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void expireStale_shouldDropExpiredEntries() {
+        // Arrange
+        IdempotencyStore store = store(100, true);
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+        clock.advance(Duration.ofMinutes(30));
+        store.execute("delete", "key-2", "user-2", String.class, ok("deleted"));
+
+        // Act
+        clock.advance(Duration.ofMinutes(45));
+        store.expireStale();
+
+        // Assert
+        assertEquals(1, store.size());
+        verify(recordRepository).deleteCreatedBefore(Instant.parse("2024-01-15T10:15:00Z"));
+    }
+
+    @Test
+    void execute_shouldPersistResponse_whenPersistent() {
+        // Arrange
+        IdempotencyStore store = store(100, true);
+        when(recordRepository.findById("delete:key-1")).thenReturn(Optional.empty());
+
+        // Act
+        store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        verify(recordRepository).insertIfAbsent("delete:key-1", "user-1", 200, "\"deleted\"", clock.instant());
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_fromAnotherInstance() {
+        // Arrange
+        IdempotencyStore store = store(100, true);
+        when(recordRepository.findById("delete:key-1")).thenReturn(Optional.of(IdempotencyRecordEntity.builder()
+                .id("delete:key-1")
+                .fingerprint("user-1")
+                .status(200)
+                .body("\"deleted\"")
+                .createdAt(clock.instant().minusSeconds(60))
+                .build()));
+
+        // Act
+        ResponseEntity<String> response = store.execute("delete", "key-1", "user-1", String.class, ok("again"));
+
+        // Assert
+        assertEquals(0, calls.get());
+        assertEquals("deleted", response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        verify(recordRepository, never()).insertIfAbsent(anyString(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void execute_shouldRejectStoredKey_reusedForDifferentRequest() {
+        // Arrange
+        IdempotencyStore store = store(100, true);
+        when(recordRepository.findById("delete:key-1")).thenReturn(Optional.of(IdempotencyRecordEntity.builder()
+                .id("delete:key-1")
+                .fingerprint("user-1")
+                .status(200)
+                .createdAt(clock.instant())
+                .build()));
+
+        // Act
+        ResponseEntity<String> response = store.execute("delete", "key-1", "user-2", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(0, calls.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void execute_shouldKeepServing_whenPersistFails() {
+        // Arrange
+        IdempotencyStore store = store(100, true);
+        when(recordRepository.findById("delete:key-1")).thenReturn(Optional.empty());
+        when(recordRepository.insertIfAbsent(eq("delete:key-1"), anyString(), anyInt(), any(), any()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        // Act
+        ResponseEntity<String> response = store.execute("delete", "key-1", "user-1", String.class, ok("deleted"));
+
+        // Assert
+        assertEquals("deleted", response.getBody());
+        assertEquals(1, store.size());
+    }
+
+    private IdempotencyStore store(int maxEntries, boolean persistent) {
+        return new IdempotencyStore(recordRepository, new ObjectMapper(), meterRegistry, clock,
+                Duration.ofHours(1), maxEntries, Duration.ofSeconds(5), persistent);
+    }
+
+    private Supplier<ResponseEntity<String>> ok(String body) {
+        return () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(body);
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package org.example.business;
 
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.dto.KeycloakUser;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.*;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +35,13 @@ class KeycloakAdminServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private DependencyGuard keycloakGuard = new DependencyGuard("keycloak", SimpleLimiter.newBuilder().build(),
+            CircuitBreaker.ofDefaults("keycloak"), e -> false, new SimpleMeterRegistry());
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private KeycloakAdminService keycloakAdminService;
 
@@ -178,6 +196,137 @@ class KeycloakAdminServiceTest {
         assertNotNull(headers.get("Authorization"));
     }
 
+    @Test
+    void listUsers_shouldRequestPageWithOffsetAndLimit() {
+        // Arrange
+        setupKeycloakService();
+        mockToken("list-token");
+
+        KeycloakUser user = KeycloakUser.builder().id("user-1").username("alice").build();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(KeycloakUser[].class)))
+                .thenReturn(ResponseEntity.ok(new KeycloakUser[]{user}));
+
+        // Act
+        List<KeycloakUser> users = keycloakAdminService.listUsers(100, 50);
+
+        // Assert
+        assertEquals(List.of(user), users);
+        ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate).exchange(urlCaptor.capture(), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(KeycloakUser[].class));
+        assertTrue(urlCaptor.getValue().contains("/admin/realms/test-realm/users?first=100&max=50"));
+    }
+
+    @Test
+    void listUsers_shouldThrowException_whenRequestFails() {
+        // Arrange
+        setupKeycloakService();
+        mockToken("list-token");
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(KeycloakUser[].class)))
+                .thenThrow(new RuntimeException("Connection refused"));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                keycloakAdminService.listUsers(0, 50)
+        );
+
+        assertTrue(exception.getMessage().contains("Failed to list users from Keycloak"));
+    }
+
+    @Test
+    void getRealmRoles_shouldReturnRoleNames() {
+        // Arrange
+        setupKeycloakService();
+        mockToken("roles-token");
+
+        KeycloakAdminService.RoleRepresentation therapist = new KeycloakAdminService.RoleRepresentation();
+        therapist.setName("client_therapist");
+
+        when(restTemplate.exchange(contains("/users/user-1/role-mappings/realm"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(KeycloakAdminService.RoleRepresentation[].class)))
+                .thenReturn(ResponseEntity.ok(new KeycloakAdminService.RoleRepresentation[]{therapist}));
+
+        // Act
+        Set<String> roles = keycloakAdminService.getRealmRoles("user-1");
+
+        // Assert
+        assertEquals(Set.of("client_therapist"), roles);
+    }
+
+    @Test
+    void getAdminToken_shouldReuseToken_untilShortlyBeforeExpiry() {
+        // Arrange
+        setupKeycloakService();
+        Instant issuedAt = Instant.parse("2024-01-15T10:00:00Z");
+        KeycloakAdminService.TokenResponse first = new KeycloakAdminService.TokenResponse();
+        first.setAccess_token("token-1");
+        first.setExpires_in(300);
+        KeycloakAdminService.TokenResponse second = new KeycloakAdminService.TokenResponse();
+        second.setAccess_token("token-2");
+        second.setExpires_in(300);
+
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class),
+                eq(KeycloakAdminService.TokenResponse.class)))
+                .thenReturn(ResponseEntity.ok(first), ResponseEntity.ok(second));
+        when(clock.instant()).thenReturn(
+                issuedAt,                    // first fetch
+                issuedAt.plusSeconds(100),   // still fresh
+                issuedAt.plusSeconds(280),   // inside the refresh margin
+                issuedAt.plusSeconds(280),   // re-checked under the lock
+                issuedAt.plusSeconds(280));  // second fetch
+
+        // Act
+        String issued = keycloakAdminService.getAdminToken();
+        String reused = keycloakAdminService.getAdminToken();
+        String refreshed = keycloakAdminService.getAdminToken();
+
+        // Assert
+        assertEquals("token-1", issued);
+        assertEquals("token-1", reused);
+        assertEquals("token-2", refreshed);
+        verify(restTemplate, times(2)).postForEntity(anyString(), any(HttpEntity.class),
+                eq(KeycloakAdminService.TokenResponse.class));
+    }
+
+    @Test
+    void listUsers_shouldForgetToken_whenKeycloakRejectsIt() {
+        // Arrange
+        setupKeycloakService();
+        KeycloakAdminService.TokenResponse tokenResponse = new KeycloakAdminService.TokenResponse();
+        tokenResponse.setAccess_token("revoked-token");
+        tokenResponse.setExpires_in(300);
+
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class),
+                eq(KeycloakAdminService.TokenResponse.class)))
+                .thenReturn(ResponseEntity.ok(tokenResponse));
+        when(clock.instant()).thenReturn(Instant.parse("2024-01-15T10:00:00Z"));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(KeycloakUser[].class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized",
+                        HttpHeaders.EMPTY, null, null))
+                .thenReturn(ResponseEntity.ok(new KeycloakUser[0]));
+
+        // Act
+        assertThrows(RuntimeException.class, () -> keycloakAdminService.listUsers(0, 50));
+        keycloakAdminService.listUsers(0, 50);
+
+        // Assert
+        verify(restTemplate, times(2)).postForEntity(anyString(), any(HttpEntity.class),
+                eq(KeycloakAdminService.TokenResponse.class));
+    }
+
+    private void mockToken(String token) {
+        KeycloakAdminService.TokenResponse tokenResponse = new KeycloakAdminService.TokenResponse();
+        tokenResponse.setAccess_token(token);
+
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class),
+                eq(KeycloakAdminService.TokenResponse.class)))
+                .thenReturn(ResponseEntity.ok(tokenResponse));
+    }
+
     private void setupKeycloakService() {
         ReflectionTestUtils.setField(keycloakAdminService, "keycloakServerUrl", "http://localhost:8080");
         ReflectionTestUtils.setField(keycloakAdminService, "realm", "test-realm");
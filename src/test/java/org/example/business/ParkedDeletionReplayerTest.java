@@ -0,0 +1,154 @@
+package org.example.business;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.example.config.RabbitMQConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParkedDeletionReplayerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    @Mock
+    private Channel channel;
+
+    @InjectMocks
+    private ParkedDeletionReplayer replayer;
+
+    @Test
+    void replay_shouldRepublishAndAckEachParkedMessage() throws Exception {
+        // Arrange
+        runCallbackOnChannel();
+        GetResponse first = parked(1L);
+        GetResponse second = parked(2L);
+        when(channel.basicGet("journal.deletion.queue.parking", false))
+                .thenReturn(first, second, null);
+
+        // Act
+        int replayed = replayer.replay(RabbitMQConfig.JOURNAL_DELETION_QUEUE, 10);
+
+        // Assert
+        assertEquals(2, replayed);
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).confirmSelect();
+        inOrder.verify(channel, times(2)).basicPublish(eq(""), eq("journal.deletion.queue"), any(), any());
+        inOrder.verify(channel).waitForConfirmsOrDie(ParkedDeletionReplayer.CONFIRM_TIMEOUT_MS);
+        inOrder.verify(channel).basicAck(2L, true);
+        verify(channel, times(1)).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void replay_shouldNotAck_whenBrokerDoesNotConfirm() throws Exception {
+        // Arrange
+        runCallbackOnChannel();
+        when(channel.basicGet("journal.deletion.queue.parking", false)).thenReturn(parked(1L), (GetResponse) null);
+        doThrow(new IOException("nack")).when(channel).waitForConfirmsOrDie(anyLong());
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> replayer.replay(RabbitMQConfig.JOURNAL_DELETION_QUEUE, 10));
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void replay_shouldDropDeathHistory_andKeepOtherHeaders() throws Exception {
+        // Arrange
+        runCallbackOnChannel();
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .headers(Map.of(
+                        "x-death", List.of(Map.of("queue", "journal.deletion.queue.retry.3", "count", 1L)),
+                        "x-first-death-queue", "journal.deletion.queue",
+                        "x-last-death-reason", "rejected",
+                        "traceparent", "00-abc-def-01"))
+                .build();
+        Envelope envelope = new Envelope(1L, false, "", "journal.deletion.queue.parking");
+        when(channel.basicGet("journal.deletion.queue.parking", false))
+                .thenReturn(new GetResponse(envelope, properties, new byte[]{1}, 0), (GetResponse) null);
+
+        // Act
+        replayer.replay(RabbitMQConfig.JOURNAL_DELETION_QUEUE, 10);
+
+        // Assert
+        ArgumentCaptor<AMQP.BasicProperties> published = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(""), eq("journal.deletion.queue"), published.capture(), any());
+        assertEquals(Map.of("traceparent", "00-abc-def-01"), published.getValue().getHeaders());
+        assertEquals("application/json", published.getValue().getContentType());
+    }
+
+    @Test
+    void replay_shouldStopAtBatchSize() throws Exception {
+        // Arrange
+        runCallbackOnChannel();
+        GetResponse message = parked(1L);
+        when(channel.basicGet(anyString(), anyBoolean())).thenReturn(message);
+
+        // Act
+        int replayed = replayer.replay(RabbitMQConfig.ASSIGNMENT_DELETION_QUEUE, 3);
+
+        // Assert
+        assertEquals(3, replayed);
+        verify(channel, times(3)).basicGet(anyString(), anyBoolean());
+    }
+
+    @Test
+    void replay_shouldRejectUnknownQueue() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay("billing.deletion.queue", 10));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void countParked_shouldReportEveryDeletionQueue() {
+        // Arrange
+        when(amqpAdmin.getQueueInfo("assignment.deletion.queue.parking"))
+                .thenReturn(new QueueInformation("assignment.deletion.queue.parking", 4, 0));
+
+        // Act
+        Map<String, Integer> counts = replayer.countParked();
+
+        // Assert
+        assertEquals(3, counts.size());
+        assertEquals(4, counts.get(RabbitMQConfig.ASSIGNMENT_DELETION_QUEUE));
+        assertEquals(0, counts.get(RabbitMQConfig.JOURNAL_DELETION_QUEUE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runCallbackOnChannel() {
+        when(rabbitTemplate.execute(any(ChannelCallback.class))).thenAnswer(invocation ->
+                ((ChannelCallback<Integer>) invocation.getArgument(0)).doInRabbit(channel));
+    }
+
+    private GetResponse parked(long deliveryTag) {
+        Envelope envelope = new Envelope(deliveryTag, false, "", "journal.deletion.queue.parking");
+        return new GetResponse(envelope, new AMQP.BasicProperties(), new byte[]{1}, 0);
+    }
+}
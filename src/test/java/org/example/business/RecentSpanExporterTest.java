@@ -0,0 +1,78 @@
+package org.example.business;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.example.business.dto.RecordedSpan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentSpanExporterTest {
+
+    private final RecentSpanExporter exporter = new RecentSpanExporter(3);
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void recent_shouldReturnParentAndChildOfOneTrace_newestFirst() {
+        // Arrange
+        Span parent = tracer.spanBuilder("DELETE /{keycloakId}").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            Span child = tracer.spanBuilder("keycloak delete user").startSpan();
+            child.setAttribute("user", "kc-1");
+            child.end();
+        }
+        parent.end();
+
+        // Act
+        List<RecordedSpan> spans = exporter.recent(parent.getSpanContext().getTraceId(), 10);
+
+        // Assert
+        assertEquals(2, spans.size());
+        assertEquals("DELETE /{keycloakId}", spans.get(0).getName());
+        assertNull(spans.get(0).getParentSpanId());
+        assertEquals("keycloak delete user", spans.get(1).getName());
+        assertEquals(spans.get(0).getSpanId(), spans.get(1).getParentSpanId());
+        assertEquals("kc-1", spans.get(1).getAttributes().get("user"));
+    }
+
+    @Test
+    void export_shouldKeepOnlyMostRecentSpans() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+
+        // Act
+        List<RecordedSpan> spans = exporter.recent(null, 10);
+
+        // Assert
+        assertEquals(List.of("span-4", "span-3", "span-2"), spans.stream().map(RecordedSpan::getName).toList());
+    }
+
+    @Test
+    void shutdown_shouldDropSpansAndRejectExports() {
+        // Arrange
+        tracer.spanBuilder("before").startSpan().end();
+
+        // Act
+        exporter.shutdown();
+
+        // Assert
+        assertTrue(exporter.recent(null, 10).isEmpty());
+        assertFalse(exporter.export(List.of()).isSuccess());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.impl.UserRegisterImpl;
+import org.example.domain.Registration;
+import org.example.domain.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationBatcherTest {
+
+    @Mock
+    private UserRegisterImpl userRegister;
+
+    private RegistrationBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    @Test
+    void register_shouldDelegate_whenDisabled() {
+        // Arrange
+        batcher = batcher(false, Duration.ZERO);
+        when(userRegister.register("kc-1", "kc-1", null, null, null, Set.of())).thenReturn(user("kc-1"));
+
+        // Act
+        User user = batcher.register("kc-1", "kc-1", null, null, null, Set.of());
+
+        // Assert
+        assertEquals("kc-1", user.getKeycloakId());
+        verify(userRegister, never()).registerAll(anyList());
+    }
+
+    @Test
+    void register_shouldWriteConcurrentRegistrationsTogether() throws Exception {
+        // Arrange
+        batcher = batcher(true, Duration.ofMillis(500));
+        when(userRegister.registerAll(anyList())).thenAnswer(invocation -> {
+            List<Registration> registrations = invocation.getArgument(0);
+            return registrations.stream().map(r -> user(r.getKeycloakId())).toList();
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+
+        // Act
+        List<CompletableFuture<User>> results = List.of("kc-1", "kc-2", "kc-3").stream()
+                .map(id -> CompletableFuture.supplyAsync(
+                        () -> batcher.register(id, id, null, null, null, Set.of()), callers))
+                .toList();
+
+        // Assert
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("kc-" + (i + 1), results.get(i).get(5, TimeUnit.SECONDS).getKeycloakId());
+        }
+        verify(userRegister, never()).register(anyString(), anyString(), any(), any(), any(), any());
+        callers.shutdown();
+    }
+
+    @Test
+    void register_shouldRethrowTheRegistrationFailure() {
+        // Arrange
+        batcher = batcher(true, Duration.ZERO);
+        when(userRegister.register(eq("kc-1"), anyString(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate username"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> batcher.register("kc-1", "taken", null, null, null, Set.of()));
+    }
+
+    @Test
+    void write_shouldCompleteEachCaller_fromOneBatch() throws Exception {
+        // Arrange
+        batcher = batcher(false, Duration.ZERO);
+        RegistrationBatcher.Pending first = pending("kc-1");
+        RegistrationBatcher.Pending second = pending("kc-2");
+        when(userRegister.registerAll(anyList())).thenReturn(List.of(user("kc-1"), user("kc-2")));
+
+        // Act
+        batcher.write(List.of(first, second));
+
+        // Assert
+        assertEquals("kc-1", first.result().get().getKeycloakId());
+        assertEquals("kc-2", second.result().get().getKeycloakId());
+    }
+
+    @Test
+    void write_shouldRetryOneByOne_whenTheBatchFails() throws Exception {
+        // Arrange
+        batcher = batcher(false, Duration.ZERO);
+        RegistrationBatcher.Pending good = pending("kc-1");
+        RegistrationBatcher.Pending bad = pending("kc-2");
+        when(userRegister.registerAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRegister.register(eq("kc-1"), anyString(), any(), any(), any(), any())).thenReturn(user("kc-1"));
+        when(userRegister.register(eq("kc-2"), anyString(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        batcher.write(List.of(good, bad));
+
+        // Assert
+        assertEquals("kc-1", good.result().get().getKeycloakId());
+        ExecutionException e = assertThrows(ExecutionException.class, () -> bad.result().get());
+        assertInstanceOf(DataIntegrityViolationException.class, e.getCause());
+    }
+
+    @Test
+    void collect_shouldReturnAfterMaxDelay_whenNothingElseArrives() throws Exception {
+        // Arrange
+        batcher = batcher(false, Duration.ofMillis(10));
+
+        // Act
+        List<RegistrationBatcher.Pending> batch = batcher.collect(pending("kc-1"));
+
+        // Assert
+        assertEquals(1, batch.size());
+    }
+
+    private RegistrationBatcher batcher(boolean enabled, Duration maxDelay) {
+        return new RegistrationBatcher(userRegister, new SimpleMeterRegistry(),
+                enabled, 3, maxDelay, 10, 1, Duration.ofSeconds(5));
+    }
+
+    private RegistrationBatcher.Pending pending(String keycloakId) {
+        return new RegistrationBatcher.Pending(Registration.builder()
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .roles(Set.of())
+                .build());
+    }
+
+    private User user(String keycloakId) {
+        return User.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.dto.UserRegisteredEvent;
+import org.example.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistrationListenerTest {
+
+    private static final String PARKING_QUEUE = "user.registration.queue.parking";
+
+    @Mock
+    private UserRegister userRegister;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private Channel channel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RegistrationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new RegistrationListener(userRegister, rabbitTemplate, objectMapper, meterRegistry, 3);
+    }
+
+    @Test
+    void onRegistrations_shouldRegisterBatch_andAckOnce() throws Exception {
+        // Arrange
+        when(userRegister.registerAll(anyList())).thenReturn(List.of(user("kc-1"), user("kc-2")));
+
+        // Act
+        listener.onRegistrations(List.of(message(1, "kc-1"), message(2, "kc-2")), channel);
+
+        // Assert
+        verify(channel).basicAck(2, true);
+        verifyNoMoreInteractions(channel);
+        assertEquals(2.0, meterRegistry.counter("registration.consumed", "outcome", "registered").count());
+    }
+
+    @Test
+    void onRegistrations_shouldRejectOnlyTheFailedRegistration() throws Exception {
+        // Arrange
+        when(userRegister.registerAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRegister.register(eq("kc-1"), anyString(), any(), any(), any(), any())).thenReturn(user("kc-1"));
+        when(userRegister.register(eq("kc-2"), anyString(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        listener.onRegistrations(List.of(message(1, "kc-1"), message(2, "kc-2")), channel);
+
+        // Assert
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicAck(1, false);
+        verifyNoMoreInteractions(channel);
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void onRegistrations_shouldPark_whenAttemptsAreUsedUp() throws Exception {
+        // Arrange
+        Message message = message(1, "kc-1");
+        message.getMessageProperties().setHeader("x-death", List.of(
+                Map.of("queue", "user.registration.queue", "reason", "rejected", "count", 2L),
+                Map.of("queue", "user.registration.queue.retry.1", "reason", "expired", "count", 2L)));
+        when(userRegister.registerAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRegister.register(eq("kc-1"), anyString(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        listener.onRegistrations(List.of(message), channel);
+
+        // Assert
+        verify(rabbitTemplate).send("", PARKING_QUEUE, message);
+        verify(channel).basicAck(1, true);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void onRegistrations_shouldParkUnreadableMessages_andRegisterTheRest() throws Exception {
+        // Arrange
+        Message garbage = new Message("not json".getBytes(StandardCharsets.UTF_8), properties(1));
+        when(userRegister.registerAll(anyList())).thenReturn(List.of(user("kc-2")));
+
+        // Act
+        listener.onRegistrations(List.of(garbage, message(2, "kc-2")), channel);
+
+        // Assert
+        verify(rabbitTemplate).send("", PARKING_QUEUE, garbage);
+        verify(userRegister).registerAll(argThat(registrations ->
+                registrations.size() == 1 && registrations.get(0).getKeycloakId().equals("kc-2")));
+        verify(channel).basicAck(2, true);
+    }
+
+    @Test
+    void onRegistrations_shouldPark_whenKeycloakIdIsMissing() throws Exception {
+        // Arrange
+        Message message = message(1, " ");
+
+        // Act
+        listener.onRegistrations(List.of(message), channel);
+
+        // Assert
+        verify(rabbitTemplate).send("", PARKING_QUEUE, message);
+        verifyNoInteractions(userRegister);
+        verify(channel).basicAck(1, true);
+    }
+
+    private Message message(long deliveryTag, String keycloakId) throws Exception {
+        UserRegisteredEvent event = UserRegisteredEvent.builder()
+                .keycloakId(keycloakId)
+                .username("user-" + deliveryTag)
+                .email("user" + deliveryTag + "@example.com")
+                .roles(Set.of("client"))
+                .build();
+        return new Message(objectMapper.writeValueAsBytes(event), properties(deliveryTag));
+    }
+
+    private MessageProperties properties(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return properties;
+    }
+
+    private User user(String keycloakId) {
+        return User.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.dto.UserImportResult;
+import org.example.domain.UserChangeType;
+import org.example.domain.UserCopyFormat;
+import org.example.persistance.UserCopyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBulkTransferTest {
+
+    @Mock
+    private UserCopyRepository userCopyRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserBulkTransfer bulkTransfer;
+
+    private final InputStream file = new ByteArrayInputStream(new byte[0]);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkTransfer = new UserBulkTransfer(userCopyRepository, meterRegistry);
+    }
+
+    @Test
+    void export_shouldReturnRowsWritten() {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(userCopyRepository.export(UserCopyFormat.BINARY, out)).thenReturn(42L);
+
+        // Act
+        long rows = bulkTransfer.export(UserCopyFormat.BINARY, out);
+
+        // Assert
+        assertEquals(42, rows);
+        assertEquals(1, meterRegistry.timer("users.bulk.export").count());
+    }
+
+    @Test
+    void importUsers_shouldMergeInOrder_andReportChanges() {
+        // Arrange
+        when(userCopyRepository.copyIn(UserCopyFormat.CSV, file)).thenReturn(10L);
+        when(userCopyRepository.findDuplicateKeycloakId()).thenReturn(Optional.empty());
+        when(userCopyRepository.countChanges()).thenReturn(Map.of(
+                UserChangeType.CREATED, 3L,
+                UserChangeType.UPDATED, 2L,
+                UserChangeType.ROLES_CHANGED, 1L));
+
+        // Act
+        UserImportResult result = bulkTransfer.importUsers(UserCopyFormat.CSV, file);
+
+        // Assert
+        assertEquals(UserImportResult.builder()
+                .rows(10).created(3).updated(2).rolesChanged(1).unchanged(4)
+                .build(), result);
+        InOrder inOrder = inOrder(userCopyRepository);
+        inOrder.verify(userCopyRepository).createStaging();
+        inOrder.verify(userCopyRepository).copyIn(UserCopyFormat.CSV, file);
+        inOrder.verify(userCopyRepository).purgeCollidingTombstones();
+        inOrder.verify(userCopyRepository).mergeUsers();
+        inOrder.verify(userCopyRepository).mergeRoles();
+        inOrder.verify(userCopyRepository).logChanges();
+        assertEquals(3.0, meterRegistry.counter("users.imported", "outcome", "created").count());
+    }
+
+    @Test
+    void importUsers_shouldRejectDuplicateKeycloakIds_beforeMerging() {
+        // Arrange
+        when(userCopyRepository.copyIn(UserCopyFormat.CSV, file)).thenReturn(2L);
+        when(userCopyRepository.findDuplicateKeycloakId()).thenReturn(Optional.of("kc-1"));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> bulkTransfer.importUsers(UserCopyFormat.CSV, file));
+        assertTrue(e.getMessage().contains("kc-1"));
+        verify(userCopyRepository, never()).mergeUsers();
+    }
+
+    @Test
+    void fromParameter_shouldIgnoreCase_andRejectUnknownFormats() {
+        // Act & Assert
+        assertEquals(UserCopyFormat.BINARY, UserCopyFormat.fromParameter("Binary"));
+        assertThrows(IllegalArgumentException.class, () -> UserCopyFormat.fromParameter("parquet"));
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.business;
+
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.dto.UserChangeEvent;
+import org.example.config.RabbitMQConfig;
+import org.example.domain.UserChangeType;
+import org.example.persistance.UserChangeRepository;
+import org.example.persistance.entity.UserChangeEntity;
+import org.example.persistance.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangePublisherTest {
+
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Spy
+    private DependencyGuard rabbitGuard = new DependencyGuard("rabbitmq", SimpleLimiter.newBuilder().build(),
+            CircuitBreaker.ofDefaults("rabbitmq"), e -> false, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private UserChangePublisher publisher;
+
+    @Test
+    void recordChange_shouldLogAndPublishWithSequence() {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .keycloakId("user-123")
+                .username("john")
+                .email("john@example.com")
+                .roles(Set.of("client_user", "client_therapist"))
+                .build();
+
+        when(userChangeRepository.save(any(UserChangeEntity.class))).thenAnswer(invocation -> {
+            UserChangeEntity change = invocation.getArgument(0);
+            change.setSequence(42L);
+            return change;
+        });
+
+        // Act
+        UserChangeEvent event = publisher.recordChange(UserChangeType.CREATED, user);
+
+        // Assert
+        ArgumentCaptor<UserChangeEntity> changeCaptor = ArgumentCaptor.forClass(UserChangeEntity.class);
+        verify(userChangeRepository).save(changeCaptor.capture());
+        assertEquals("client_therapist,client_user", changeCaptor.getValue().getRoles());
+
+        verify(rabbitTemplate).convertAndSend(
+                eq(RabbitMQConfig.USER_CHANGE_EXCHANGE),
+                eq("user.created"),
+                eq(event)
+        );
+        assertEquals(42L, event.getSequence());
+        assertEquals(UserChangeEvent.SCHEMA_VERSION, event.getSchemaVersion());
+        assertEquals(Set.of("client_user", "client_therapist"), event.getRoles());
+        assertNotNull(event.getOccurredAt());
+    }
+
+    @Test
+    void recordChange_shouldNotThrow_whenRabbitMQFails() {
+        // Arrange
+        UserEntity user = UserEntity.builder().keycloakId("user-123").build();
+        when(userChangeRepository.save(any(UserChangeEntity.class))).thenAnswer(invocation -> {
+            UserChangeEntity change = invocation.getArgument(0);
+            change.setSequence(1L);
+            return change;
+        });
+        doThrow(new RuntimeException("RabbitMQ connection error"))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(UserChangeEvent.class));
+
+        // Act & Assert
+        UserChangeEvent event = assertDoesNotThrow(() -> publisher.recordChange(UserChangeType.DELETED, user));
+        assertEquals(Set.of(), event.getRoles());
+    }
+
+    @Test
+    void replay_shouldReturnChangesAfterSequence() {
+        // Arrange
+        UserChangeEntity change = UserChangeEntity.builder()
+                .sequence(11L)
+                .type(UserChangeType.ROLES_CHANGED)
+                .keycloakId("user-123")
+                .roles("client_therapist")
+                .occurredAt(Instant.now())
+                .build();
+
+        when(userChangeRepository.findFeedAfter(10L, 50)).thenReturn(List.of(change));
+
+        // Act
+        List<UserChangeEvent> events = publisher.replay(10L, 50);
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(11L, events.get(0).getSequence());
+        assertEquals(UserChangeType.ROLES_CHANGED, events.get(0).getType());
+        assertEquals(Set.of("client_therapist"), events.get(0).getRoles());
+    }
+
+    @Test
+    void replay_shouldCapLimit() {
+        // Arrange
+        when(userChangeRepository.findFeedAfter(anyLong(), anyInt())).thenReturn(List.of());
+
+        // Act
+        publisher.replay(0L, 1_000_000);
+
+        // Assert
+        verify(userChangeRepository).findFeedAfter(0L, UserChangePublisher.MAX_REPLAY_LIMIT);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.persistance.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-10T03:00:00Z");
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new UserPurger(userRepository, meterRegistry, Clock.fixed(NOW, ZoneId.of("UTC")),
+                true, Duration.ofHours(1), 100, 5);
+    }
+
+    @Test
+    void purge_shouldKeepGoingWhileBatchesAreFull() {
+        // Arrange
+        when(userRepository.purgeDeleted(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 37);
+
+        // Act
+        int purged = purger.purge();
+
+        // Assert
+        assertEquals(237, purged);
+        verify(userRepository, times(3)).purgeDeleted(any(LocalDateTime.class), eq(100));
+        assertEquals(237, meterRegistry.get("users.purged").counter().count());
+    }
+
+    @Test
+    void purge_shouldStopAfterMaxBatches() {
+        // Arrange
+        when(userRepository.purgeDeleted(any(LocalDateTime.class), eq(100))).thenReturn(100);
+
+        // Act
+        int purged = purger.purge();
+
+        // Assert
+        assertEquals(500, purged);
+        verify(userRepository, times(5)).purgeDeleted(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void purge_shouldOnlyTakeTombstonesOlderThanGracePeriod() {
+        // Arrange
+        LocalDateTime expectedCutoff = LocalDateTime.ofInstant(NOW, ZoneId.systemDefault()).minusHours(1);
+        when(userRepository.purgeDeleted(expectedCutoff, 100)).thenReturn(0);
+
+        // Act
+        int purged = purger.purge();
+
+        // Assert
+        assertEquals(0, purged);
+        verify(userRepository).purgeDeleted(expectedCutoff, 100);
+    }
+
+    @Test
+    void scheduledPurge_shouldDoNothing_whenDisabled() {
+        // Arrange
+        UserPurger disabled = new UserPurger(userRepository, meterRegistry, Clock.fixed(NOW, ZoneId.of("UTC")),
+                false, Duration.ofHours(1), 100, 5);
+
+        // Act
+        disabled.scheduledPurge();
+
+        // Assert
+        verifyNoInteractions(userRepository);
+    }
+}
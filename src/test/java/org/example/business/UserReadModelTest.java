@@ -0,0 +1,286 @@
+package org.example.business;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.impl.GetAllTherapistsImpl;
+import org.example.business.impl.ResolveUsersImpl;
+import org.example.domain.User;
+import org.example.domain.UserChangeType;
+import org.example.persistance.UserChangeRepository;
+import org.example.persistance.entity.UserChangeEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserReadModelTest {
+
+    @Mock
+    private GetAllTherapistsImpl therapistLoader;
+
+    @Mock
+    private ResolveUsersImpl profileLoader;
+
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    @TempDir
+    private Path directory;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-01-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void getAllTherapists_shouldDelegate_whenDisabled() {
+        // Arrange
+        UserReadModel readModel = readModel(false);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+
+        // Act
+        readModel.getAllTherapists();
+        readModel.getAllTherapists();
+
+        // Assert
+        verify(therapistLoader, times(2)).getAllTherapists();
+    }
+
+    @Test
+    void getAllTherapists_shouldLoadOnce() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+
+        // Act
+        readModel.getAllTherapists();
+        List<User> therapists = readModel.getAllTherapists();
+
+        // Assert
+        assertEquals("kc-1", therapists.get(0).getKeycloakId());
+        verify(therapistLoader).getAllTherapists();
+    }
+
+    @Test
+    void resolveUsers_shouldLoadOnlyMissingProfiles_withRoles() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(profileLoader.resolveUsers(List.of("kc-1"), true)).thenReturn(List.of(user("kc-1")));
+        when(profileLoader.resolveUsers(List.of("kc-2"), true)).thenReturn(List.of(user("kc-2")));
+        readModel.resolveUsers(List.of("kc-1"), true);
+
+        // Act
+        List<User> users = readModel.resolveUsers(List.of("kc-1", "kc-2"), false);
+
+        // Assert
+        assertEquals(2, users.size());
+        assertNull(users.get(0).getRoles());
+        verify(profileLoader).resolveUsers(List.of("kc-1"), true);
+        verify(profileLoader).resolveUsers(List.of("kc-2"), true);
+    }
+
+    @Test
+    void resolveUsers_shouldRejectOversizedBatch() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        List<String> ids = java.util.stream.IntStream.rangeClosed(0, ResolveUsersImpl.MAX_BATCH_SIZE)
+                .mapToObj(i -> "kc-" + i)
+                .toList();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> readModel.resolveUsers(ids, false));
+        verifyNoInteractions(profileLoader);
+    }
+
+    @Test
+    void refresh_shouldInvalidateChangedUsers_andReloadTherapists() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        when(profileLoader.resolveUsers(List.of("kc-1"), true)).thenReturn(List.of(user("kc-1")));
+        when(userChangeRepository.findFeedEnd()).thenReturn(10L);
+        readModel.refresh();
+        readModel.resolveUsers(List.of("kc-1"), true);
+        when(userChangeRepository.existsById(10L)).thenReturn(true);
+        when(userChangeRepository.findFeedAfter(anyLong(), anyInt())).thenReturn(List.of(change(11L, "kc-1")));
+
+        // Act
+        readModel.refresh();
+        readModel.resolveUsers(List.of("kc-1"), true);
+
+        // Assert
+        verify(profileLoader, times(2)).resolveUsers(List.of("kc-1"), true);
+        verify(therapistLoader, times(2)).getAllTherapists();
+    }
+
+    @Test
+    void refresh_shouldKeepModel_whenNothingChanged() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        when(userChangeRepository.findFeedEnd()).thenReturn(10L);
+        when(userChangeRepository.existsById(10L)).thenReturn(true);
+        when(userChangeRepository.findFeedAfter(anyLong(), anyInt())).thenReturn(List.of());
+        readModel.refresh();
+
+        // Act
+        readModel.refresh();
+
+        // Assert
+        verify(therapistLoader).getAllTherapists();
+    }
+
+    @Test
+    void refresh_shouldReadOn_fromTheLastEntryInFeedOrder() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of());
+        when(userChangeRepository.findFeedEnd()).thenReturn(10L);
+        readModel.refresh();
+        when(userChangeRepository.existsById(anyLong())).thenReturn(true);
+        // 11 was drawn by a transaction that committed after the one that drew 12
+        when(userChangeRepository.findFeedAfter(anyLong(), anyInt()))
+                .thenReturn(List.of(change(12L, "kc-2"), change(11L, "kc-1")))
+                .thenReturn(List.of());
+        readModel.refresh();
+
+        // Act
+        readModel.refresh();
+
+        // Assert
+        int limit = UserReadModel.MAX_CHANGES_PER_REFRESH + 1;
+        verify(userChangeRepository).findFeedAfter(10L, limit);
+        verify(userChangeRepository).findFeedAfter(11L, limit);
+    }
+
+    @Test
+    void refresh_shouldKeepServing_whenDatabaseFails() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        readModel.getAllTherapists();
+        when(userChangeRepository.findFeedEnd()).thenThrow(new RuntimeException("database down"));
+
+        // Act
+        readModel.refresh();
+
+        // Assert
+        assertEquals(1, readModel.getAllTherapists().size());
+        verify(therapistLoader).getAllTherapists();
+    }
+
+    @Test
+    void snapshot_shouldServeReadsAfterRestart_andValidateWithoutReloading() {
+        // Arrange
+        UserReadModel writer = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        when(profileLoader.resolveUsers(List.of("kc-2"), true)).thenReturn(List.of(user("kc-2")));
+        when(userChangeRepository.findFeedEnd()).thenReturn(10L);
+        writer.refresh();
+        writer.resolveUsers(List.of("kc-2"), true);
+        writer.writeSnapshot();
+        clearInvocations(therapistLoader, profileLoader);
+        when(userChangeRepository.existsById(10L)).thenReturn(true);
+        when(userChangeRepository.findFeedAfter(anyLong(), anyInt())).thenReturn(List.of());
+
+        // Act
+        UserReadModel restarted = readModel(true);
+        restarted.loadSnapshot();
+        List<User> therapists = restarted.getAllTherapists();
+        List<User> users = restarted.resolveUsers(List.of("kc-2"), true);
+        restarted.refresh();
+
+        // Assert
+        assertEquals(user("kc-1"), therapists.get(0));
+        assertEquals(user("kc-2"), users.get(0));
+        verifyNoInteractions(therapistLoader, profileLoader);
+    }
+
+    @Test
+    void snapshot_shouldBeDiscarded_whenItsLastEntryIsNotInTheChangeLog() {
+        // Arrange
+        UserReadModel writer = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        when(userChangeRepository.findFeedEnd()).thenReturn(10L, 3L);
+        when(userChangeRepository.existsById(10L)).thenReturn(false);
+        writer.refresh();
+        writer.writeSnapshot();
+
+        // Act
+        UserReadModel restarted = readModel(true);
+        restarted.loadSnapshot();
+        restarted.refresh();
+
+        // Assert
+        verify(therapistLoader, times(2)).getAllTherapists();
+        verify(userChangeRepository, never()).findFeedAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void loadSnapshot_shouldIgnoreUnreadableFile() throws Exception {
+        // Arrange
+        Files.write(directory.resolve("read-model.snapshot"), new byte[]{1, 2, 3});
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(Collections.emptyList());
+
+        // Act
+        readModel.loadSnapshot();
+        readModel.getAllTherapists();
+
+        // Assert
+        verify(therapistLoader).getAllTherapists();
+    }
+
+    @Test
+    void writeSnapshot_shouldSkip_beforeValidation() {
+        // Arrange
+        UserReadModel readModel = readModel(true);
+        when(therapistLoader.getAllTherapists()).thenReturn(List.of(user("kc-1")));
+        readModel.getAllTherapists();
+
+        // Act
+        readModel.writeSnapshot();
+
+        // Assert
+        assertFalse(Files.exists(directory.resolve("read-model.snapshot")));
+    }
+
+    private UserReadModel readModel(boolean enabled) {
+        return new UserReadModel(therapistLoader, profileLoader, userChangeRepository, new SimpleMeterRegistry(),
+                clock, enabled, directory.resolve("read-model.snapshot").toString(), Duration.ofHours(24), 1000);
+    }
+
+    private User user(String keycloakId) {
+        return User.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .firstName("Jane")
+                .createdAt(LocalDateTime.of(2024, 1, 10, 9, 30, 15, 500))
+                .roles(Set.of("client_therapist"))
+                .build();
+    }
+
+    private UserChangeEntity change(long sequence, String keycloakId) {
+        return UserChangeEntity.builder()
+                .sequence(sequence)
+                .type(UserChangeType.UPDATED)
+                .keycloakId(keycloakId)
+                .occurredAt(Instant.parse("2024-01-15T09:59:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.business;
+
+import org.example.business.dto.UserStatsResponse;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.DayCountView;
+import org.example.persistance.projection.RoleCountView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatisticsTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-10T12:00:00Z");
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserStatistics statistics;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new UserStatistics(userRepository, Clock.fixed(NOW, ZoneId.of("UTC")), 31);
+        today = LocalDate.ofInstant(NOW, ZoneId.systemDefault());
+    }
+
+    @Test
+    void snapshot_shouldReflectRegistrationsAndDeletions() {
+        // Arrange
+        statistics.recordRegistered(Set.of("client_therapist"), today.atTime(9, 0));
+        statistics.recordRegistered(Set.of("client_user"), today.atTime(10, 0));
+        statistics.recordRegistered(Set.of("client_user"), today.minusDays(3).atTime(10, 0));
+        statistics.recordRegistered(Set.of("client_user"), today.minusDays(20).atTime(10, 0));
+        statistics.recordDeleted(Set.of("client_user"), today.atTime(10, 0));
+
+        // Act
+        UserStatsResponse stats = statistics.snapshot();
+
+        // Assert
+        assertEquals(3, stats.getTotalUsers());
+        assertEquals(1L, stats.getUsersByRole().get("client_therapist"));
+        assertEquals(2L, stats.getUsersByRole().get("client_user"));
+        assertEquals(1, stats.getRegisteredToday());
+        assertEquals(2, stats.getRegisteredLast7Days());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void recordRolesChanged_shouldMoveUserBetweenRoles() {
+        // Arrange
+        statistics.recordRegistered(Set.of("client_user"), today.atTime(9, 0));
+
+        // Act
+        statistics.recordRolesChanged(Set.of("client_user"), Set.of("client_therapist"));
+
+        // Assert
+        UserStatsResponse stats = statistics.snapshot();
+        assertEquals(1, stats.getTotalUsers());
+        assertEquals(0L, stats.getUsersByRole().get("client_user"));
+        assertEquals(1L, stats.getUsersByRole().get("client_therapist"));
+    }
+
+    @Test
+    void reconcile_shouldReplaceDriftWithDatabaseCounts() {
+        // Arrange
+        statistics.recordRegistered(Set.of("client_user"), today.atTime(9, 0));
+        statistics.recordRegistered(Set.of("client_user"), today.minusDays(60).atTime(9, 0));
+
+        RoleCountView therapists = roleCount("client_therapist", 4L);
+        RoleCountView users = roleCount("client_user", 6L);
+        DayCountView yesterday = dayCount(today.minusDays(1), 5L);
+        when(userRepository.count()).thenReturn(10L);
+        when(userRepository.countByRole()).thenReturn(List.of(therapists, users));
+        when(userRepository.countRegistrationsByDaySince(any(LocalDateTime.class))).thenReturn(List.of(yesterday));
+
+        // Act
+        statistics.reconcile();
+
+        // Assert
+        UserStatsResponse stats = statistics.snapshot();
+        assertEquals(10, stats.getTotalUsers());
+        assertEquals(4L, stats.getUsersByRole().get("client_therapist"));
+        assertEquals(6L, stats.getUsersByRole().get("client_user"));
+        assertEquals(0, stats.getRegisteredToday());
+        assertEquals(5, stats.getRegisteredLast7Days());
+        assertFalse(stats.getRegistrationsByDay().containsKey(today.minusDays(60)));
+        assertEquals(NOW, stats.getReconciledAt());
+        verify(userRepository).countRegistrationsByDaySince(today.minusDays(30).atStartOfDay());
+    }
+
+    @Test
+    void reconcile_shouldKeepRegistrationsRecordedWhileQueriesRun() {
+        // Arrange
+        statistics.recordRegistered(Set.of("client_user"), today.atTime(9, 0));
+        RoleCountView users = roleCount("client_user", 3L);
+        when(userRepository.count()).thenAnswer(invocation -> {
+            statistics.recordRegistered(Set.of("client_user"), today.atTime(10, 0));
+            return 3L;
+        });
+        when(userRepository.countByRole()).thenReturn(List.of(users));
+        when(userRepository.countRegistrationsByDaySince(any(LocalDateTime.class))).thenReturn(List.of());
+
+        // Act
+        statistics.reconcile();
+
+        // Assert
+        UserStatsResponse stats = statistics.snapshot();
+        assertEquals(4, stats.getTotalUsers());
+        assertEquals(4L, stats.getUsersByRole().get("client_user"));
+    }
+
+    private RoleCountView roleCount(String role, Long total) {
+        RoleCountView view = mock(RoleCountView.class);
+        when(view.getRole()).thenReturn(role);
+        when(view.getTotal()).thenReturn(total);
+        return view;
+    }
+
+    private DayCountView dayCount(LocalDate day, Long total) {
+        DayCountView view = mock(DayCountView.class);
+        when(view.getDay()).thenReturn(day);
+        when(view.getTotal()).thenReturn(total);
+        return view;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.business.impl.GetAllTherapistsImpl;
+import org.example.business.impl.ResolveUsersImpl;
+import org.example.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.SliceImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpTest {
+
+    @Mock
+    private GetAllTherapistsImpl getAllTherapists;
+
+    @Mock
+    private ResolveUsersImpl resolveUsers;
+
+    @Mock
+    private SearchTherapists searchTherapists;
+
+    @Mock
+    private KeycloakAdminService keycloakAdminService;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-01-15T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void health_shouldBeDown_untilWarmUpHasRun() {
+        // Arrange
+        WarmUp warmUp = warmUp(false, 3);
+
+        // Act & Assert
+        assertEquals(Status.DOWN, warmUp.health().getStatus());
+        warmUp.warmUp();
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+
+    @Test
+    void warmUp_shouldSkipAllSteps_whenDisabled() {
+        // Arrange
+        WarmUp warmUp = warmUp(false, 3);
+
+        // Act
+        warmUp.warmUp();
+
+        // Assert
+        verifyNoInteractions(dataSource, keycloakAdminService, getAllTherapists);
+    }
+
+    @Test
+    void warmUp_shouldFillPoolFetchTokenAndRunRequestPaths() throws SQLException {
+        // Arrange
+        WarmUp warmUp = warmUp(true, 3);
+        List<User> therapists = List.of(therapist("kc-1"), therapist("kc-2"));
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(getAllTherapists.getAllTherapists()).thenReturn(therapists);
+        when(searchTherapists.searchTherapists(eq("a"), anyBoolean(), eq(0), eq(20)))
+                .thenReturn(new SliceImpl<>(therapists));
+        when(resolveUsers.resolveUsers(List.of("kc-1", "kc-2"), true)).thenReturn(therapists);
+
+        // Act
+        warmUp.warmUp();
+
+        // Assert
+        verify(dataSource, times(4)).getConnection();
+        verify(connection, times(4)).close();
+        verify(keycloakAdminService).getAdminToken();
+        verify(getAllTherapists, times(4)).getAllTherapists(); // lookup ids + 3 iterations
+        verify(searchTherapists, times(6)).searchTherapists(eq("a"), anyBoolean(), anyInt(), anyInt());
+        verify(resolveUsers, times(3)).resolveUsers(List.of("kc-1", "kc-2"), true);
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+
+    @Test
+    void warmUp_shouldBecomeReady_whenDependenciesFail() throws SQLException {
+        // Arrange
+        WarmUp warmUp = warmUp(true, 3);
+        when(dataSource.getConnection()).thenReturn(connection).thenThrow(new SQLException("pool exhausted"));
+        when(keycloakAdminService.getAdminToken()).thenThrow(new RuntimeException("Keycloak down"));
+        when(getAllTherapists.getAllTherapists()).thenThrow(new RuntimeException("database down"));
+
+        // Act
+        warmUp.warmUp();
+
+        // Assert
+        verify(connection).close();
+        verifyNoInteractions(searchTherapists, resolveUsers);
+        assertEquals(Status.UP, warmUp.health().getStatus());
+    }
+
+    @Test
+    void warmUp_shouldStopIterating_afterMaxDuration() throws SQLException {
+        // Arrange
+        WarmUp warmUp = new WarmUp(getAllTherapists, resolveUsers, searchTherapists,
+                keycloakAdminService, dataSource, new ObjectMapper(), clock,
+                true, 1000, Duration.ZERO, 1);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(getAllTherapists.getAllTherapists()).thenReturn(List.of());
+
+        // Act
+        warmUp.warmUp();
+
+        // Assert
+        verify(getAllTherapists, times(1)).getAllTherapists();
+        verifyNoInteractions(searchTherapists);
+    }
+
+    private WarmUp warmUp(boolean enabled, int iterations) {
+        return new WarmUp(getAllTherapists, resolveUsers, searchTherapists,
+                keycloakAdminService, dataSource, new ObjectMapper(), clock,
+                enabled, iterations, Duration.ofSeconds(30), 4);
+    }
+
+    private User therapist(String keycloakId) {
+        return User.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .build();
+    }
+}
@@ -1,12 +1,12 @@
 package org.example.business.impl;
 
-import static org.junit.jupiter.api.Assertions.*;
-
 import org.example.domain.User;
 import org.example.persistance.UserRepository;
-import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,11 +33,14 @@ class GetAllTherapistsImplTest {
     @Test
     void getAllTherapists_shouldReturnAllTherapists() {
         // Arrange
-        UserEntity therapist1 = createTherapistEntity(1L, "therapist1", "therapist1@example.com");
-        UserEntity therapist2 = createTherapistEntity(2L, "therapist2", "therapist2@example.com");
+        UserProfileView therapist1 = createTherapistProfile(1L, "therapist1", "therapist1@example.com");
+        UserProfileView therapist2 = createTherapistProfile(2L, "therapist2", "therapist2@example.com");
+        List<UserRoleView> roles = Arrays.asList(
+                createRole(1L, "client_therapist"), createRole(2L, "client_therapist"));
 
-        when(userRepository.findAllByRoles("client_therapist"))
+        when(userRepository.findProfilesByRole("client_therapist"))
                 .thenReturn(Arrays.asList(therapist1, therapist2));
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(roles);
 
         // Act
         List<User> result = getAllTherapists.getAllTherapists();
@@ -51,13 +55,13 @@ class GetAllTherapistsImplTest {
         assertEquals(2L, result.get(1).getId());
         assertEquals("therapist2", result.get(1).getUsername());
 
-        verify(userRepository).findAllByRoles("client_therapist");
+        verify(userRepository).findProfilesByRole("client_therapist");
     }
 
     @Test
     void getAllTherapists_shouldReturnEmptyList_whenNoTherapists() {
         // Arrange
-        when(userRepository.findAllByRoles("client_therapist"))
+        when(userRepository.findProfilesByRole("client_therapist"))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -66,26 +70,21 @@ class GetAllTherapistsImplTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(userRepository).findAllByRoles("client_therapist");
+        verify(userRepository).findProfilesByRole("client_therapist");
+        verify(userRepository, never()).findRolesByUserIds(any());
     }
 
     @Test
     void getAllTherapists_shouldMapAllFields() {
         // Arrange
         LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
-        UserEntity therapist = UserEntity.builder()
-                .id(10L)
-                .keycloakId("keycloak-xyz")
-                .username("dr_smith")
-                .email("smith@example.com")
-                .firstName("John")
-                .lastName("Smith")
-                .roles(Set.of("client_therapist"))
-                .createdAt(createdAt)
-                .build();
-
-        when(userRepository.findAllByRoles("client_therapist"))
+        UserProfileView therapist = new UserProfileView(10L, "keycloak-xyz", "dr_smith", "smith@example.com",
+                "John", "Smith", createdAt);
+        List<UserRoleView> roles = Collections.singletonList(createRole(10L, "client_therapist"));
+
+        when(userRepository.findProfilesByRole("client_therapist"))
                 .thenReturn(Collections.singletonList(therapist));
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(roles);
 
         // Act
         List<User> result = getAllTherapists.getAllTherapists();
@@ -105,35 +104,38 @@ class GetAllTherapistsImplTest {
     }
 
     @Test
-    void getAllTherapists_shouldOnlyCallRepositoryOnce() {
+    void getAllTherapists_shouldQueryProfilesAndRolesOnce() {
         // Arrange
-        when(userRepository.findAllByRoles("client_therapist"))
-                .thenReturn(Collections.emptyList());
+        UserProfileView therapist1 = createTherapistProfile(1L, "therapist1", "therapist1@example.com");
+        UserProfileView therapist2 = createTherapistProfile(2L, "therapist2", "therapist2@example.com");
+
+        when(userRepository.findProfilesByRole("client_therapist"))
+                .thenReturn(Arrays.asList(therapist1, therapist2));
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(Collections.emptyList());
 
         // Act
         getAllTherapists.getAllTherapists();
 
         // Assert
-        verify(userRepository, times(1)).findAllByRoles("client_therapist");
+        ArgumentCaptor<Long[]> captor = ArgumentCaptor.forClass(Long[].class);
+        verify(userRepository, times(1)).findProfilesByRole("client_therapist");
+        verify(userRepository, times(1)).findRolesByUserIds(captor.capture());
+        assertArrayEquals(new Long[]{1L, 2L}, captor.getValue());
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void getAllTherapists_shouldHandleMultipleRoles() {
         // Arrange
-        UserEntity therapist = UserEntity.builder()
-                .id(1L)
-                .keycloakId("keycloak-123")
-                .username("therapist")
-                .email("therapist@example.com")
-                .firstName("Jane")
-                .lastName("Doe")
-                .roles(Set.of("client_therapist", "client_user", "admin"))
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(userRepository.findAllByRoles("client_therapist"))
+        UserProfileView therapist = createTherapistProfile(1L, "therapist", "therapist@example.com");
+        List<UserRoleView> roles = Arrays.asList(
+                createRole(1L, "client_therapist"),
+                createRole(1L, "client_user"),
+                createRole(1L, "admin"));
+
+        when(userRepository.findProfilesByRole("client_therapist"))
                 .thenReturn(Collections.singletonList(therapist));
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(roles);
 
         // Act
         List<User> result = getAllTherapists.getAllTherapists();
@@ -146,22 +148,12 @@ class GetAllTherapistsImplTest {
         assertTrue(result.get(0).getRoles().contains("admin"));
     }
 
-    private UserEntity createTherapistEntity(Long id, String username, String email) {
-        return UserEntity.builder()
-                .id(id)
-                .keycloakId("keycloak-" + id)
-                .username(username)
-                .email(email)
-                .firstName("First" + id)
-                .lastName("Last" + id)
-                .roles(Set.of("client_therapist"))
-                .createdAt(LocalDateTime.now())
-                .build();
+    private UserProfileView createTherapistProfile(Long id, String username, String email) {
+        return new UserProfileView(id, "keycloak-" + id, username, email, "First" + id, "Last" + id,
+                LocalDateTime.now());
     }
-}
-
-
-
-
-
 
+    private UserRoleView createRole(Long userId, String role) {
+        return new UserRoleView(userId, role);
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.business.impl;
+
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResolveUsersImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private ResolveUsersImpl resolveUsers;
+
+    @Test
+    void resolveUsers_shouldQueryOnceWithDistinctIds() {
+        // Arrange
+        List<UserProfileView> profiles = List.of(profile(1L, "kc-1"), profile(2L, "kc-2"));
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(profiles);
+
+        // Act
+        List<User> result = resolveUsers.resolveUsers(Arrays.asList("kc-1", "kc-2", "kc-1", null), false);
+
+        // Assert
+        ArgumentCaptor<String[]> captor = ArgumentCaptor.forClass(String[].class);
+        verify(userRepository, times(1)).findProfilesByKeycloakIds(captor.capture());
+        assertArrayEquals(new String[]{"kc-1", "kc-2"}, captor.getValue());
+
+        assertEquals(2, result.size());
+        assertEquals("kc-1", result.get(0).getKeycloakId());
+        assertNull(result.get(0).getRoles());
+    }
+
+    @Test
+    void resolveUsers_shouldSkipRolesQuery_whenRolesNotRequested() {
+        // Arrange
+        List<UserProfileView> profiles = List.of(profile(1L, "kc-1"));
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(profiles);
+
+        // Act
+        resolveUsers.resolveUsers(List.of("kc-1"), false);
+
+        // Assert
+        verify(userRepository, never()).findRolesByUserIds(any());
+    }
+
+    @Test
+    void resolveUsers_shouldAttachRoles_whenRequested() {
+        // Arrange
+        List<UserProfileView> profiles = List.of(profile(1L, "kc-1"), profile(2L, "kc-2"));
+        List<UserRoleView> roles = List.of(role(1L, "client_therapist"), role(1L, "client_user"));
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(profiles);
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(roles);
+
+        // Act
+        List<User> result = resolveUsers.resolveUsers(List.of("kc-1", "kc-2"), true);
+
+        // Assert
+        verify(userRepository, times(1)).findRolesByUserIds(any(Long[].class));
+        assertEquals(Set.of("client_therapist", "client_user"), result.get(0).getRoles());
+        assertEquals(Set.of(), result.get(1).getRoles());
+    }
+
+    @Test
+    void resolveUsers_shouldReturnEmptyList_whenNoIds() {
+        // Act & Assert
+        assertTrue(resolveUsers.resolveUsers(Collections.emptyList(), true).isEmpty());
+        assertTrue(resolveUsers.resolveUsers(null, true).isEmpty());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void resolveUsers_shouldThrowException_whenBatchTooLarge() {
+        // Arrange
+        List<String> ids = IntStream.rangeClosed(0, ResolveUsersImpl.MAX_BATCH_SIZE)
+                .mapToObj(i -> "kc-" + i)
+                .collect(Collectors.toList());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> resolveUsers.resolveUsers(ids, false));
+        verifyNoInteractions(userRepository);
+    }
+
+    private UserProfileView profile(Long id, String keycloakId) {
+        return new UserProfileView(id, keycloakId, "user" + id, null, null, null, LocalDateTime.now());
+    }
+
+    private UserRoleView role(Long userId, String role) {
+        return new UserRoleView(userId, role);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.business.impl;
+
+import org.example.domain.User;
+import org.example.persistance.UserRepository;
+import org.example.persistance.projection.UserProfileView;
+import org.example.persistance.projection.UserRoleView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchTherapistsImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SearchTherapistsImpl searchTherapists;
+
+    @Test
+    void searchTherapists_shouldUseLowerCasePrefixPattern() {
+        // Arrange
+        when(userRepository.searchByRole(anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        searchTherapists.searchTherapists("  Smi ", false, 0, 20);
+
+        // Assert
+        verify(userRepository).searchByRole(eq("client_therapist"), eq("smi%"), eq(PageRequest.of(0, 20)));
+        verify(userRepository, never()).findRolesByUserIds(any());
+    }
+
+    @Test
+    void searchTherapists_shouldUseSubstringPattern_whenContains() {
+        // Arrange
+        when(userRepository.searchByRole(anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        searchTherapists.searchTherapists("mit", true, 0, 20);
+
+        // Assert
+        verify(userRepository).searchByRole(eq("client_therapist"), eq("%mit%"), any(Pageable.class));
+    }
+
+    @Test
+    void searchTherapists_shouldEscapeLikeWildcards() {
+        // Arrange
+        when(userRepository.searchByRole(anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        searchTherapists.searchTherapists("a_b%c\\", false, 0, 20);
+
+        // Assert
+        verify(userRepository).searchByRole(anyString(), eq("a\\_b\\%c\\\\%"), any(Pageable.class));
+    }
+
+    @Test
+    void searchTherapists_shouldClampPageAndSize() {
+        // Arrange
+        when(userRepository.searchByRole(anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+
+        // Act
+        searchTherapists.searchTherapists("smith", false, -3, 10_000);
+
+        // Assert
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(userRepository).searchByRole(anyString(), anyString(), captor.capture());
+        assertEquals(0, captor.getValue().getPageNumber());
+        assertEquals(SearchTherapistsImpl.MAX_PAGE_SIZE, captor.getValue().getPageSize());
+    }
+
+    @Test
+    void searchTherapists_shouldThrowException_whenQueryBlank() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+                searchTherapists.searchTherapists("   ", false, 0, 20));
+        assertThrows(IllegalArgumentException.class, () ->
+                searchTherapists.searchTherapists(null, false, 0, 20));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void searchTherapists_shouldMapResultsAndKeepSliceMetadata() {
+        // Arrange
+        UserProfileView therapist = new UserProfileView(7L, "keycloak-7", "dr_smith", null, null, null,
+                LocalDateTime.now());
+        UserRoleView role = new UserRoleView(7L, "client_therapist");
+
+        when(userRepository.searchByRole(anyString(), anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(therapist), PageRequest.of(1, 1), true));
+        when(userRepository.findRolesByUserIds(any(Long[].class))).thenReturn(List.of(role));
+
+        // Act
+        var result = searchTherapists.searchTherapists("smith", false, 1, 1);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumber());
+
+        User user = result.getContent().get(0);
+        assertEquals(7L, user.getId());
+        assertEquals("keycloak-7", user.getKeycloakId());
+        assertEquals("dr_smith", user.getUsername());
+        assertEquals(Set.of("client_therapist"), user.getRoles());
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.business.impl;
+
+import org.example.business.KeycloakAdminService;
+import org.example.business.UserChangePublisher;
+import org.example.business.dto.KeycloakUser;
+import org.example.business.dto.ReconciliationResult;
+import org.example.domain.UserChangeType;
+import org.example.persistance.AdvisoryLockRepository;
+import org.example.persistance.ReconciliationCheckpointRepository;
+import org.example.persistance.UserRepository;
+import org.example.persistance.entity.ReconciliationCheckpointEntity;
+import org.example.persistance.entity.UserEntity;
+import org.example.persistance.projection.UserProfileView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserReconciliationImplTest {
+
+    @Mock
+    private KeycloakAdminService keycloakAdminService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ReconciliationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private UserChangePublisher userChangePublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AdvisoryLockRepository advisoryLockRepository;
+
+    @Mock
+    private AdvisoryLockRepository.Lock lock;
+
+    @InjectMocks
+    private UserReconciliationImpl reconciliation;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliation, "pageSize", 2);
+        ReflectionTestUtils.setField(reconciliation, "concurrency", 2);
+        lenient().when(advisoryLockRepository.tryLock(UserReconciliationImpl.LOCK_NAME)).thenReturn(Optional.of(lock));
+    }
+
+    @Test
+    void reconcile_shouldCreateMissingAndUpdateChangedUsers() {
+        // Arrange
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(keycloakAdminService.listUsers(0, 2)).thenReturn(List.of(
+                remote("kc-1", "alice", "alice@example.com"),
+                remote("kc-2", "bob", "bob-new@example.com")));
+        when(keycloakAdminService.listUsers(2, 2)).thenReturn(List.of(
+                remote("kc-3", "carol", "carol@example.com")));
+        lenient().when(keycloakAdminService.listUsers(4, 2)).thenReturn(List.of());
+        when(keycloakAdminService.getRealmRoles("kc-1")).thenReturn(Set.of("client_user"));
+
+        UserProfileView bob = profile(2L, "kc-2", "bob", "bob@example.com");
+        UserProfileView carol = profile(3L, "kc-3", "carol", "carol@example.com");
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class)))
+                .thenReturn(List.of(bob), List.of(bob))
+                .thenReturn(List.of(carol), List.of(carol));
+
+        UserEntity bobEntity = UserEntity.builder().id(2L).keycloakId("kc-2").username("bob")
+                .email("bob@example.com").build();
+        when(userRepository.findAllForUpdateByIds(Set.of(2L))).thenReturn(List.of(bobEntity));
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+        // Act
+        ReconciliationResult result = reconciliation.reconcile();
+
+        // Assert
+        assertTrue(result.isCompleted());
+        assertEquals(3, result.getScanned());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+        assertEquals("bob-new@example.com", bobEntity.getEmail());
+
+        verify(userChangePublisher).recordChange(eq(UserChangeType.CREATED),
+                argThat(entity -> "kc-1".equals(entity.getKeycloakId())
+                        && Set.of("client_user").equals(entity.getRoles())));
+        verify(userChangePublisher).recordChange(UserChangeType.UPDATED, bobEntity);
+        verify(keycloakAdminService, never()).getRealmRoles("kc-3");
+        verify(lock).close();
+    }
+
+    @Test
+    void reconcile_shouldSkip_whenAnotherInstanceHoldsTheLock() {
+        // Arrange
+        when(advisoryLockRepository.tryLock(UserReconciliationImpl.LOCK_NAME)).thenReturn(Optional.empty());
+
+        // Act
+        ReconciliationResult result = reconciliation.reconcile();
+
+        // Assert
+        assertFalse(result.isCompleted());
+        verifyNoInteractions(keycloakAdminService, checkpointRepository);
+    }
+
+    @Test
+    void reconcile_shouldPurgeCollidingTombstones_beforeCreating() {
+        // Arrange
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(keycloakAdminService.listUsers(0, 2)).thenReturn(List.of(remote("kc-1", "alice", "alice@example.com")));
+        when(keycloakAdminService.getRealmRoles("kc-1")).thenReturn(Set.of("client_user"));
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(List.of());
+        when(userRepository.existsDeletedMatchingAny(any(String[].class), any(String[].class), any(String[].class)))
+                .thenReturn(true);
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+        // Act
+        ReconciliationResult result = reconciliation.reconcile();
+
+        // Assert
+        assertEquals(1, result.getCreated());
+        verify(userRepository).purgeDeletedMatchingAny(new String[]{"kc-1"}, new String[]{"alice"},
+                new String[]{"alice@example.com"});
+    }
+
+    @Test
+    void reconcile_shouldSkipUsersWhoseUsernameIsHeldByAnotherUser_andApplyTheRest() {
+        // Arrange
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(keycloakAdminService.listUsers(0, 2)).thenReturn(List.of(
+                remote("kc-1", "alice", "alice@example.com"),
+                remote("kc-2", "bob", "bob@example.com")));
+        lenient().when(keycloakAdminService.listUsers(2, 2)).thenReturn(List.of());
+        when(keycloakAdminService.getRealmRoles(anyString())).thenReturn(Set.of("client_user"));
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(List.of());
+        UserProfileView staleAlice = profile(9L, "kc-9", "alice", "old-alice@example.com");
+        when(userRepository.findProfilesHoldingAny(any(String[].class), any(String[].class)))
+                .thenReturn(List.of(staleAlice));
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+        // Act
+        ReconciliationResult result = reconciliation.reconcile();
+
+        // Assert
+        assertTrue(result.isCompleted());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getSkipped());
+        verify(userChangePublisher).recordChange(eq(UserChangeType.CREATED),
+                argThat(entity -> "kc-2".equals(entity.getKeycloakId())));
+        verify(userChangePublisher, never()).recordChange(eq(UserChangeType.CREATED),
+                argThat(entity -> "kc-1".equals(entity.getKeycloakId())));
+    }
+
+    @Test
+    void reconcile_shouldResumeFromCheckpoint_andResetOnCompletion() {
+        // Arrange
+        ReconciliationCheckpointEntity checkpoint = ReconciliationCheckpointEntity.builder()
+                .name(UserReconciliationImpl.CHECKPOINT_NAME)
+                .nextOffset(10)
+                .build();
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.of(checkpoint));
+        when(keycloakAdminService.listUsers(anyInt(), eq(2))).thenReturn(List.of());
+
+        // Act
+        ReconciliationResult result = reconciliation.reconcile();
+
+        // Assert
+        assertEquals(10, result.getStartOffset());
+        verify(keycloakAdminService).listUsers(10, 2);
+        verify(keycloakAdminService, never()).listUsers(0, 2);
+        assertEquals(0, checkpoint.getNextOffset());
+        assertNotNull(checkpoint.getLastCompletedAt());
+    }
+
+    @Test
+    void reconcile_shouldKeepCheckpoint_whenFetchFails() {
+        // Arrange
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(keycloakAdminService.listUsers(0, 2)).thenReturn(List.of(
+                remote("kc-1", "alice", "alice@example.com"),
+                remote("kc-2", "bob", "bob@example.com")));
+        when(keycloakAdminService.listUsers(2, 2)).thenThrow(new RuntimeException("Keycloak unavailable"));
+        lenient().when(keycloakAdminService.listUsers(4, 2)).thenReturn(List.of());
+
+        UserProfileView alice = profile(1L, "kc-1", "alice", "alice@example.com");
+        UserProfileView bob = profile(2L, "kc-2", "bob", "bob@example.com");
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(List.of(alice, bob));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> reconciliation.reconcile());
+
+        ArgumentCaptor<ReconciliationCheckpointEntity> captor =
+                ArgumentCaptor.forClass(ReconciliationCheckpointEntity.class);
+        verify(checkpointRepository).save(captor.capture());
+        assertEquals(2, captor.getValue().getNextOffset());
+        assertNull(captor.getValue().getLastCompletedAt());
+    }
+
+    @Test
+    void reconcile_shouldFetchRolesOffTheCallingThread_andReleaseLock_whenOneFails() {
+        // Arrange
+        when(checkpointRepository.findById(UserReconciliationImpl.CHECKPOINT_NAME)).thenReturn(Optional.empty());
+        when(keycloakAdminService.listUsers(0, 2)).thenReturn(List.of(
+                remote("kc-1", "alice", "alice@example.com"),
+                remote("kc-2", "bob", "bob@example.com")));
+        lenient().when(keycloakAdminService.listUsers(2, 2)).thenReturn(List.of());
+        when(userRepository.findProfilesByKeycloakIds(any(String[].class))).thenReturn(List.of());
+        Thread caller = Thread.currentThread();
+        List<Thread> fetchers = new CopyOnWriteArrayList<>();
+        when(keycloakAdminService.getRealmRoles(anyString())).thenAnswer(invocation -> {
+            fetchers.add(Thread.currentThread());
+            if ("kc-2".equals(invocation.getArgument(0))) {
+                throw new RuntimeException("Keycloak unavailable");
+            }
+            return Set.of("client_user");
+        });
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> reconciliation.reconcile());
+
+        assertFalse(fetchers.contains(caller));
+        verify(userRepository, never()).saveAll(anyList());
+        verify(lock).close();
+    }
+
+    @Test
+    void scheduledReconcile_shouldDoNothing_whenDisabled() {
+        // Act
+        reconciliation.scheduledReconcile();
+
+        // Assert
+        verifyNoInteractions(keycloakAdminService, checkpointRepository);
+    }
+
+    private KeycloakUser remote(String id, String username, String email) {
+        return KeycloakUser.builder()
+                .id(id)
+                .username(username)
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .build();
+    }
+
+    private UserProfileView profile(Long id, String keycloakId, String username, String email) {
+        return new UserProfileView(id, keycloakId, username, email, "First", "Last", null);
+    }
+}
@@ -1,6 +1,10 @@
 package org.example.business.impl;
 
+import org.example.business.UserChangePublisher;
+import org.example.business.UserStatistics;
+import org.example.domain.Registration;
 import org.example.domain.User;
+import org.example.domain.UserChangeType;
 import org.example.persistance.UserRepository;
 import org.example.persistance.entity.UserEntity;
 import org.junit.jupiter.api.Test;
@@ -11,11 +15,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +30,12 @@ class UserRegisterImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserChangePublisher userChangePublisher;
+
+    @Mock
+    private UserStatistics userStatistics;
+
     @InjectMocks
     private UserRegisterImpl userRegister;
 
@@ -67,6 +79,8 @@ class UserRegisterImplTest {
         assertNotNull(result.getCreatedAt());
 
         verify(userRepository).findByKeycloakId(keycloakId);
+        verify(userRepository).existsDeletedMatching(keycloakId, username, email);
+        verify(userRepository, never()).purgeDeletedMatching(any(), any(), any());
         verify(userRepository).save(any(UserEntity.class));
     }
 
@@ -236,4 +250,153 @@ class UserRegisterImplTest {
         assertEquals(originalCreatedAt, result.getCreatedAt());
         assertEquals(newRoles, result.getRoles());
     }
-}
\ No newline at end of file
+
+    @Test
+    void register_shouldRecordCreatedChange_forNewUser() {
+        // Arrange
+        String keycloakId = "keycloak-123";
+        when(userRepository.findByKeycloakId(keycloakId)).thenReturn(Optional.empty());
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userRegister.register(keycloakId, "user", "user@example.com", "First", "Last", Set.of("client_user"));
+
+        // Assert
+        verify(userChangePublisher).recordChange(eq(UserChangeType.CREATED), any(UserEntity.class));
+        verify(userStatistics).recordRegistered(eq(Set.of("client_user")), any(LocalDateTime.class));
+    }
+
+    @Test
+    void register_shouldRecordRolesChanged_whenRolesDiffer() {
+        // Arrange
+        String keycloakId = "keycloak-123";
+        UserEntity existingUser = UserEntity.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username("user")
+                .roles(Set.of("client_user"))
+                .build();
+
+        when(userRepository.findByKeycloakId(keycloakId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userRegister.register(keycloakId, "user", null, null, null, Set.of("client_therapist"));
+
+        // Assert
+        verify(userChangePublisher).recordChange(UserChangeType.ROLES_CHANGED, existingUser);
+        verify(userStatistics).recordRolesChanged(Set.of("client_user"), Set.of("client_therapist"));
+    }
+
+    @Test
+    void register_shouldNotRecordChange_whenRolesUnchanged() {
+        // Arrange
+        String keycloakId = "keycloak-123";
+        UserEntity existingUser = UserEntity.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username("user")
+                .roles(Set.of("client_user"))
+                .build();
+
+        when(userRepository.findByKeycloakId(keycloakId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userRegister.register(keycloakId, "user", null, null, null, Set.of("client_user"));
+
+        // Assert
+        verifyNoInteractions(userChangePublisher);
+        verifyNoInteractions(userStatistics);
+    }
+
+    @Test
+    void register_shouldPurgeTombstone_whenItHoldsTheUniqueColumns() {
+        // Arrange
+        when(userRepository.findByKeycloakId("keycloak-123")).thenReturn(Optional.empty());
+        when(userRepository.existsDeletedMatching("keycloak-123", "user", "user@example.com")).thenReturn(true);
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userRegister.register("keycloak-123", "user", "user@example.com", "First", "Last", Set.of("client_user"));
+
+        // Assert
+        verify(userRepository).purgeDeletedMatching("keycloak-123", "user", "user@example.com");
+    }
+
+    @Test
+    void registerAll_shouldLookUpOnce_andReturnUsersInOrder() {
+        // Arrange
+        UserEntity existingUser = UserEntity.builder()
+                .id(1L)
+                .keycloakId("keycloak-1")
+                .username("existing")
+                .roles(Set.of("client_user"))
+                .createdAt(LocalDateTime.now().minusDays(1))
+                .build();
+        when(userRepository.findAllByKeycloakIds(Set.of("keycloak-1", "keycloak-2")))
+                .thenReturn(List.of(existingUser));
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<User> users = userRegister.registerAll(List.of(
+                registration("keycloak-2", Set.of("client_user")),
+                registration("keycloak-1", Set.of("client_user", "client_therapist"))));
+
+        // Assert
+        assertEquals("keycloak-2", users.get(0).getKeycloakId());
+        assertEquals("keycloak-1", users.get(1).getKeycloakId());
+        verify(userRepository, never()).findByKeycloakId(any());
+        verify(userRepository).existsDeletedMatchingAny(new String[]{"keycloak-2"},
+                new String[]{"keycloak-2-name"}, new String[]{"keycloak-2@example.com"});
+        verify(userRepository, never()).existsDeletedMatching(any(), any(), any());
+        verify(userChangePublisher).recordChange(eq(UserChangeType.CREATED), any(UserEntity.class));
+        verify(userChangePublisher).recordChange(UserChangeType.ROLES_CHANGED, existingUser);
+    }
+
+    @Test
+    void registerAll_shouldTreatRepeatedKeycloakIdAsExisting() {
+        // Arrange
+        when(userRepository.findAllByKeycloakIds(Set.of("keycloak-1"))).thenReturn(List.of());
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<User> users = userRegister.registerAll(List.of(
+                registration("keycloak-1", Set.of("client_user")),
+                registration("keycloak-1", Set.of("client_user"))));
+
+        // Assert
+        assertEquals(2, users.size());
+        verify(userRepository).existsDeletedMatchingAny(any(), any(), any());
+        verify(userChangePublisher).recordChange(eq(UserChangeType.CREATED), any(UserEntity.class));
+        verify(userChangePublisher, never()).recordChange(eq(UserChangeType.ROLES_CHANGED), any());
+    }
+
+    @Test
+    void registerAll_shouldPurgeTombstonesOnce_forTheWholeBatch() {
+        // Arrange
+        when(userRepository.findAllByKeycloakIds(Set.of("keycloak-1", "keycloak-2"))).thenReturn(List.of());
+        when(userRepository.existsDeletedMatchingAny(any(), any(), any())).thenReturn(true);
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        userRegister.registerAll(List.of(
+                registration("keycloak-1", Set.of("client_user")),
+                registration("keycloak-2", Set.of("client_user"))));
+
+        // Assert
+        verify(userRepository).purgeDeletedMatchingAny(new String[]{"keycloak-1", "keycloak-2"},
+                new String[]{"keycloak-1-name", "keycloak-2-name"},
+                new String[]{"keycloak-1@example.com", "keycloak-2@example.com"});
+        verify(userRepository, never()).purgeDeletedMatching(any(), any(), any());
+    }
+
+    private Registration registration(String keycloakId, Set<String> roles) {
+        return Registration.builder()
+                .keycloakId(keycloakId)
+                .username(keycloakId + "-name")
+                .email(keycloakId + "@example.com")
+                .roles(roles)
+                .build();
+    }
+}
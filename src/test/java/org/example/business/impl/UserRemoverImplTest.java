@@ -0,0 +1,67 @@
+package org.example.business.impl;
+
+import org.example.business.UserChangePublisher;
+import org.example.domain.UserChangeType;
+import org.example.persistance.UserRepository;
+import org.example.persistance.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRemoverImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserChangePublisher userChangePublisher;
+
+    @InjectMocks
+    private UserRemoverImpl userRemover;
+
+    private final UserEntity user = UserEntity.builder()
+            .id(1L)
+            .keycloakId("kc-1")
+            .username("alice")
+            .build();
+
+    @Test
+    void remove_shouldMarkDeleted_thenRecordTheDeletion() {
+        // Arrange
+        ReflectionTestUtils.setField(userRemover, "softDelete", true);
+
+        // Act
+        userRemover.remove(user);
+
+        // Assert
+        InOrder inOrder = inOrder(userRepository, userChangePublisher);
+        inOrder.verify(userRepository).markDeleted(eq("kc-1"), any(LocalDateTime.class));
+        inOrder.verify(userChangePublisher).recordChange(UserChangeType.DELETED, user);
+        verify(userRepository, never()).delete(any());
+    }
+
+    @Test
+    void remove_shouldDeleteTheRow_whenSoftDeleteIsOff() {
+        // Arrange
+        ReflectionTestUtils.setField(userRemover, "softDelete", false);
+
+        // Act
+        userRemover.remove(user);
+
+        // Assert
+        verify(userRepository).delete(user);
+        verify(userRepository, never()).markDeleted(any(), any());
+        verify(userChangePublisher).recordChange(UserChangeType.DELETED, user);
+    }
+}
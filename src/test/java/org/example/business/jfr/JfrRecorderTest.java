@@ -0,0 +1,86 @@
+package org.example.business.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecorderTest {
+
+    private final JfrRecorder recorder = new JfrRecorder(Duration.ofSeconds(5));
+
+    @Test
+    void record_shouldReturnRecording_withOperationEvents() throws Exception {
+        // Arrange
+        CompletableFuture<Void> emitter = CompletableFuture.runAsync(() -> {
+            sleep(100);
+            OperationEvents.run("register", "save", "kc-1", () -> { });
+        });
+
+        // Act
+        Path file = recorder.record(Duration.ofMillis(500), "default");
+
+        // Assert
+        try {
+            emitter.get(5, TimeUnit.SECONDS);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("org.example.UserOperation"))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals("save", events.get(0).getString("step"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void record_shouldRejectDurationAboveMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofMinutes(1), "profile"));
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ZERO, "profile"));
+    }
+
+    @Test
+    void record_shouldRejectUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> recorder.record(Duration.ofSeconds(1), "/etc/passwd"));
+    }
+
+    @Test
+    void record_shouldRejectConcurrentRecording() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Path> first = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            try {
+                return recorder.record(Duration.ofSeconds(1), "default");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        sleep(200);
+
+        // Act & Assert
+        try {
+            assertThrows(IllegalStateException.class, () -> recorder.record(Duration.ofMillis(100), "default"));
+        } finally {
+            Files.deleteIfExists(first.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
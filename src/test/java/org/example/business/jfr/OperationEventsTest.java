@@ -0,0 +1,110 @@
+package org.example.business.jfr;
+
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.business.DependencyGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        recording.enable(UserOperationEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(OutboundCallEvent.class).withThreshold(Duration.ZERO);
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void execute_shouldRecordStep_withHashedKeycloakId() throws Exception {
+        // Act
+        String result = OperationEvents.execute("register", "save", "keycloak-123", () -> "saved");
+
+        // Assert
+        assertEquals("saved", result);
+        List<RecordedEvent> events = events("org.example.UserOperation");
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("register", event.getString("operation"));
+        assertEquals("save", event.getString("step"));
+        assertEquals("success", event.getString("outcome"));
+        assertEquals(OperationEvents.hash("keycloak-123"), event.getString("keycloakIdHash"));
+        assertEquals(16, event.getString("keycloakIdHash").length());
+        assertFalse(event.getString("keycloakIdHash").contains("keycloak"));
+    }
+
+    @Test
+    void run_shouldRecordFailure_andRethrow() throws Exception {
+        // Act
+        assertThrows(IllegalStateException.class, () -> OperationEvents.run("delete", "keycloak delete", "kc-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Assert
+        List<RecordedEvent> events = events("org.example.UserOperation");
+        assertEquals(1, events.size());
+        assertEquals("failure", events.get(0).getString("outcome"));
+    }
+
+    @Test
+    void outboundCall_shouldBeAttributedToEnclosingStep() throws Exception {
+        // Arrange
+        DependencyGuard guard = new DependencyGuard("keycloak", SimpleLimiter.newBuilder().build(),
+                CircuitBreaker.ofDefaults("keycloak"), e -> false, new SimpleMeterRegistry());
+
+        // Act
+        OperationEvents.execute("delete", "total", "kc-1",
+                () -> OperationEvents.execute("delete", "keycloak delete", "kc-1", () -> guard.execute(() -> "ok")));
+        guard.execute(() -> "outside any operation");
+
+        // Assert
+        List<RecordedEvent> outbound = events("org.example.OutboundCall");
+        assertEquals(2, outbound.size());
+        RecordedEvent inside = outbound.stream()
+                .filter(event -> event.getString("step") != null)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("keycloak", inside.getString("dependency"));
+        assertEquals("delete", inside.getString("operation"));
+        assertEquals("keycloak delete", inside.getString("step"));
+        assertEquals(OperationEvents.hash("kc-1"), inside.getString("keycloakIdHash"));
+        assertEquals("success", inside.getString("outcome"));
+
+        List<RecordedEvent> steps = events("org.example.UserOperation");
+        assertEquals(List.of("keycloak delete", "total"), steps.stream()
+                .map(event -> event.getString("step"))
+                .sorted()
+                .toList());
+    }
+
+    private List<RecordedEvent> events(String name) throws Exception {
+        Path file = tempDir.resolve(name + ".jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.business.reactive;
+
+import com.netflix.concurrency.limits.limit.FixedLimit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.business.DependencyGuard;
+import org.example.business.dto.AccountDeletionEvent;
+import org.example.config.RabbitMQConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.OutboundMessage;
+import reactor.rabbitmq.Sender;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveEventPublisherTest {
+
+    @Mock
+    private Sender sender;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_shouldSendJsonWithTypeHeader() {
+        // Arrange
+        ReactiveEventPublisher publisher = new ReactiveEventPublisher(sender, new Jackson2JsonMessageConverter(), guard());
+        ArgumentCaptor<Mono<OutboundMessage>> captor = ArgumentCaptor.forClass(Mono.class);
+        when(sender.send(captor.capture())).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(publisher.publish(RabbitMQConfig.ACCOUNT_DELETION_EXCHANGE,
+                        RabbitMQConfig.ACCOUNT_DELETION_ROUTING_KEY,
+                        new AccountDeletionEvent("kc-1", LocalDateTime.of(2024, 1, 1, 12, 0), "User requested")))
+                .verifyComplete();
+
+        // Assert
+        OutboundMessage message = captor.getValue().block();
+        assertNotNull(message);
+        assertEquals(RabbitMQConfig.ACCOUNT_DELETION_EXCHANGE, message.getExchange());
+        assertEquals(RabbitMQConfig.ACCOUNT_DELETION_ROUTING_KEY, message.getRoutingKey());
+        assertEquals("application/json", message.getProperties().getContentType());
+        assertEquals(AccountDeletionEvent.class.getName(),
+                message.getProperties().getHeaders().get("__TypeId__").toString());
+        assertTrue(new String(message.getBody()).contains("\"userKeycloakId\":\"kc-1\""));
+    }
+
+    @Test
+    void publish_shouldPropagateSendFailure() {
+        // Arrange
+        ReactiveEventPublisher publisher = new ReactiveEventPublisher(sender, new Jackson2JsonMessageConverter(), guard());
+        when(sender.send(any())).thenReturn(Mono.error(new IllegalStateException("channel closed")));
+
+        // Act & Assert
+        StepVerifier.create(publisher.publish("exchange", "key", "payload"))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private DependencyGuard guard() {
+        return new DependencyGuard("rabbitmq",
+                SimpleLimiter.newBuilder().limit(FixedLimit.of(10)).build(),
+                CircuitBreaker.ofDefaults("rabbitmq"),
+                e -> false,
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.business.reactive;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.netflix.concurrency.limits.limit.FixedLimit;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import org.example.business.DependencyGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveKeycloakClientTest {
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final AtomicInteger tokens = new AtomicInteger(122);
+    private HttpStatus deleteStatus;
+    private ReactiveKeycloakClient client;
+
+    @BeforeEach
+    void setUp() {
+        deleteStatus = HttpStatus.NO_CONTENT;
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    if (request.method() == HttpMethod.POST) {
+                        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"access_token\":\"token-" + tokens.incrementAndGet() + "\",\"expires_in\":300}")
+                                .build());
+                    }
+                    return Mono.just(ClientResponse.create(deleteStatus).build());
+                })
+                .build();
+
+        DependencyGuard guard = new DependencyGuard("keycloak",
+                SimpleLimiter.newBuilder().limit(FixedLimit.of(10)).build(),
+                CircuitBreaker.ofDefaults("keycloak"),
+                e -> false,
+                new SimpleMeterRegistry());
+
+        client = new ReactiveKeycloakClient(webClient, guard);
+        ReflectionTestUtils.setField(client, "keycloakServerUrl", "http://keycloak:8080");
+        ReflectionTestUtils.setField(client, "realm", "OpenLeaf");
+        ReflectionTestUtils.setField(client, "adminClientId", "admin-cli");
+        ReflectionTestUtils.setField(client, "adminClientSecret", "secret");
+    }
+
+    @Test
+    void deleteUser_shouldDeleteWithAdminToken() {
+        // Act & Assert
+        StepVerifier.create(client.deleteUser("kc-1")).verifyComplete();
+
+        assertEquals(2, requests.size());
+        assertEquals("http://keycloak:8080/realms/OpenLeaf/protocol/openid-connect/token",
+                requests.get(0).url().toString());
+        ClientRequest delete = requests.get(1);
+        assertEquals(HttpMethod.DELETE, delete.method());
+        assertEquals("http://keycloak:8080/admin/realms/OpenLeaf/users/kc-1", delete.url().toString());
+        assertEquals("Bearer token-123", delete.headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void deleteUser_shouldFail_whenKeycloakRejects() {
+        // Arrange
+        deleteStatus = HttpStatus.NOT_FOUND;
+
+        // Act & Assert
+        StepVerifier.create(client.deleteUser("kc-1"))
+                .expectErrorMatches(e -> e instanceof RuntimeException
+                        && e.getMessage().startsWith("Failed to delete user from Keycloak"))
+                .verify();
+    }
+
+    @Test
+    void deleteUser_shouldReuseAdminToken_untilItNearsExpiry() {
+        // Act
+        StepVerifier.create(client.deleteUser("kc-1")).verifyComplete();
+        StepVerifier.create(client.deleteUser("kc-2")).verifyComplete();
+
+        // Assert
+        assertEquals(3, requests.size());
+        assertEquals(1, requests.stream().filter(request -> request.method() == HttpMethod.POST).count());
+        assertEquals("Bearer token-123", requests.get(2).headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void deleteUser_shouldFetchNewToken_afterUnauthorized() {
+        // Arrange
+        deleteStatus = HttpStatus.UNAUTHORIZED;
+        StepVerifier.create(client.deleteUser("kc-1")).expectError().verify();
+        deleteStatus = HttpStatus.NO_CONTENT;
+
+        // Act
+        StepVerifier.create(client.deleteUser("kc-1")).verifyComplete();
+
+        // Assert
+        assertEquals(4, requests.size());
+        assertEquals(HttpMethod.POST, requests.get(2).method());
+        assertEquals("Bearer token-124", requests.get(3).headers().getFirst(HttpHeaders.AUTHORIZATION));
+    }
+}
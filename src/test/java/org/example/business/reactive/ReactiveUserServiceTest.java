@@ -0,0 +1,284 @@
+package org.example.business.reactive;
+
+import org.example.business.DeletionTracker;
+import org.example.business.UserStatistics;
+import org.example.business.dto.AccountDeletionEvent;
+import org.example.business.dto.UserChangeEvent;
+import org.example.config.RabbitMQConfig;
+import org.example.domain.UserChangeType;
+import org.example.exception.DependencyUnavailableException;
+import org.example.persistance.reactive.ReactiveUserChangeRepository;
+import org.example.persistance.reactive.ReactiveUserRepository;
+import org.example.persistance.reactive.UserChangeRow;
+import org.example.persistance.reactive.UserRoleRow;
+import org.example.persistance.reactive.UserRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveUserChangeRepository userChangeRepository;
+
+    @Mock
+    private ReactiveKeycloakClient keycloakClient;
+
+    @Mock
+    private ReactiveEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionalOperator reactiveTransactionalOperator;
+
+    @Mock
+    private DeletionTracker deletionTracker;
+
+    @Mock
+    private UserStatistics userStatistics;
+
+    @InjectMocks
+    private ReactiveUserService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "softDelete", true);
+    }
+
+    @Test
+    void getAllTherapists_shouldAttachRolesFromOneQuery() {
+        // Arrange
+        when(userRepository.findLiveByRole("client_therapist")).thenReturn(Flux.just(row(1L, "a"), row(2L, "b")));
+        when(userRepository.findRolesByUserIds(new Long[]{1L, 2L})).thenReturn(Flux.just(
+                new UserRoleRow(1L, "client_therapist"),
+                new UserRoleRow(2L, "client_therapist"),
+                new UserRoleRow(2L, "client_user")));
+
+        // Act & Assert
+        StepVerifier.create(service.getAllTherapists())
+                .assertNext(user -> assertEquals(Set.of("client_therapist"), user.getRoles()))
+                .assertNext(user -> assertEquals(Set.of("client_therapist", "client_user"), user.getRoles()))
+                .verifyComplete();
+    }
+
+    @Test
+    void searchTherapists_shouldReportNextPage_whenExtraRowReturned() {
+        // Arrange
+        when(userRepository.searchByRole("client_therapist", "ann%", 3, 0L))
+                .thenReturn(Flux.just(row(1L, "ann1"), row(2L, "ann2"), row(3L, "ann3")));
+        when(userRepository.findRolesByUserIds(any())).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.searchTherapists("Ann", false, 0, 2))
+                .assertNext(slice -> {
+                    assertEquals(2, slice.getNumberOfElements());
+                    assertTrue(slice.hasNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void searchTherapists_shouldFail_whenQueryBlank() {
+        // Act & Assert
+        StepVerifier.create(service.searchTherapists(" ", false, 0, 20))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void resolveUsers_shouldSkipRolesQuery_whenRolesNotRequested() {
+        // Arrange
+        when(userRepository.findLiveByKeycloakIds(new String[]{"kc-1"})).thenReturn(Flux.just(row(1L, "a")));
+
+        // Act & Assert
+        StepVerifier.create(service.resolveUsers(List.of("kc-1", "kc-1"), false))
+                .assertNext(user -> assertNull(user.getRoles()))
+                .verifyComplete();
+        verify(userRepository, never()).findRolesByUserIds(any());
+    }
+
+    @Test
+    void register_shouldCreateUserAndPublishAfterCommit() {
+        // Arrange
+        passThroughTransactions();
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.empty());
+        when(userRepository.purgeDeletedMatching("kc-1", "a", "a@example.com")).thenReturn(Mono.just(0));
+        when(userRepository.save(any(UserRow.class))).thenAnswer(invocation -> {
+            UserRow saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return Mono.just(saved);
+        });
+        when(userRepository.insertRoles(7L, new String[]{"client_user"})).thenReturn(Mono.just(1));
+        when(userChangeRepository.save(any(UserChangeRow.class))).thenAnswer(invocation -> {
+            UserChangeRow change = invocation.getArgument(0);
+            change.setSequence(42L);
+            return Mono.just(change);
+        });
+        when(eventPublisher.publish(eq(RabbitMQConfig.USER_CHANGE_EXCHANGE), eq("user.created"), any()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.register("kc-1", "a", "a@example.com", "A", "B", Set.of("client_user")))
+                .assertNext(user -> {
+                    assertEquals(7L, user.getId());
+                    assertEquals(Set.of("client_user"), user.getRoles());
+                })
+                .verifyComplete();
+        verify(userStatistics).recordRegistered(eq(Set.of("client_user")), any(LocalDateTime.class));
+    }
+
+    @Test
+    void register_shouldNotWrite_whenRolesUnchanged() {
+        // Arrange
+        passThroughTransactions();
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.just(row(1L, "a")));
+        when(userRepository.findRolesByUserIds(new Long[]{1L}))
+                .thenReturn(Flux.just(new UserRoleRow(1L, "client_user")));
+
+        // Act & Assert
+        StepVerifier.create(service.register("kc-1", "a", null, null, null, Set.of("client_user")))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userRepository, never()).deleteRoles(any());
+        verifyNoInteractions(userChangeRepository, eventPublisher, userStatistics);
+    }
+
+    @Test
+    void register_shouldSucceed_whenChangePublishFails() {
+        // Arrange
+        passThroughTransactions();
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.just(row(1L, "a")));
+        when(userRepository.findRolesByUserIds(new Long[]{1L}))
+                .thenReturn(Flux.just(new UserRoleRow(1L, "client_user")));
+        when(userRepository.deleteRoles(1L)).thenReturn(Mono.just(1));
+        when(userRepository.insertRoles(1L, new String[]{"client_therapist"})).thenReturn(Mono.just(1));
+        when(userChangeRepository.save(any(UserChangeRow.class))).thenAnswer(invocation -> {
+            UserChangeRow change = invocation.getArgument(0);
+            change.setSequence(43L);
+            return Mono.just(change);
+        });
+        when(eventPublisher.publish(anyString(), anyString(), any()))
+                .thenReturn(Mono.error(new DependencyUnavailableException("rabbitmq", "down")));
+
+        // Act & Assert
+        StepVerifier.create(service.register("kc-1", "a", null, null, null, Set.of("client_therapist")))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(userStatistics).recordRolesChanged(Set.of("client_user"), Set.of("client_therapist"));
+    }
+
+    @Test
+    void deleteUser_shouldAnnounceRemoveAndSoftDelete() {
+        // Arrange
+        passThroughTransactions();
+        UserRow user = row(1L, "a");
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.just(user));
+        when(userRepository.findRolesByUserIds(new Long[]{1L}))
+                .thenReturn(Flux.just(new UserRoleRow(1L, "client_user")));
+        when(eventPublisher.publish(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(keycloakClient.deleteUser("kc-1")).thenReturn(Mono.empty());
+        when(userRepository.markDeleted(eq("kc-1"), any(LocalDateTime.class))).thenReturn(Mono.just(1));
+        when(userChangeRepository.save(any(UserChangeRow.class))).thenAnswer(invocation -> {
+            UserChangeRow change = invocation.getArgument(0);
+            change.setSequence(44L);
+            return Mono.just(change);
+        });
+
+        // Act & Assert
+        StepVerifier.create(service.deleteUser("kc-1", "User requested"))
+                .verifyComplete();
+
+        verify(eventPublisher).publish(eq(RabbitMQConfig.ACCOUNT_DELETION_EXCHANGE),
+                eq(RabbitMQConfig.ACCOUNT_DELETION_ROUTING_KEY), any(AccountDeletionEvent.class));
+        verify(eventPublisher).publish(eq(RabbitMQConfig.USER_CHANGE_EXCHANGE), eq("user.deleted"),
+                any(UserChangeEvent.class));
+        verify(deletionTracker).track("kc-1");
+        verify(userStatistics).recordDeleted(Set.of("client_user"), user.getCreatedAt());
+    }
+
+    @Test
+    void deleteUser_shouldStop_whenKeycloakUnavailable() {
+        // Arrange
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.just(row(1L, "a")));
+        when(userRepository.findRolesByUserIds(new Long[]{1L})).thenReturn(Flux.empty());
+        when(eventPublisher.publish(anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(keycloakClient.deleteUser("kc-1"))
+                .thenReturn(Mono.error(new DependencyUnavailableException("keycloak", "open")));
+
+        // Act & Assert
+        StepVerifier.create(service.deleteUser("kc-1", "User requested"))
+                .expectError(DependencyUnavailableException.class)
+                .verify();
+        verify(userRepository, never()).markDeleted(any(), any());
+        verifyNoInteractions(reactiveTransactionalOperator, userStatistics);
+    }
+
+    @Test
+    void deleteUser_shouldFail_whenUserMissing() {
+        // Arrange
+        when(userRepository.findLiveByKeycloakId("kc-1")).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(service.deleteUser("kc-1", "User requested"))
+                .expectErrorMessage("User not found")
+                .verify();
+        verifyNoInteractions(eventPublisher, keycloakClient);
+    }
+
+    @Test
+    void replayChanges_shouldMapLoggedChanges() {
+        // Arrange
+        UserChangeRow change = UserChangeRow.builder()
+                .sequence(5L)
+                .type(UserChangeType.ROLES_CHANGED)
+                .keycloakId("kc-1")
+                .roles("client_therapist,client_user")
+                .build();
+        when(userChangeRepository.findAfter(4L, 1000)).thenReturn(Flux.just(change));
+
+        // Act & Assert
+        StepVerifier.create(service.replayChanges(4L, 5000))
+                .assertNext(event -> {
+                    assertEquals(5L, event.getSequence());
+                    assertEquals(Set.of("client_therapist", "client_user"), event.getRoles());
+                })
+                .verifyComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void passThroughTransactions() {
+        when(reactiveTransactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private UserRow row(Long id, String username) {
+        return UserRow.builder()
+                .id(id)
+                .keycloakId("kc-" + id)
+                .username(username)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
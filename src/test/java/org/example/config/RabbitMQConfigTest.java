@@ -0,0 +1,58 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.example.config.RabbitMQConfig.ASSIGNMENT_DELETION_QUEUE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RabbitMQConfigTest {
+
+    @Test
+    void retryRoutingKey_shouldStartAtTheFirstTier_forAFreshMessage() {
+        // Act
+        String routingKey = RabbitMQConfig.retryRoutingKey(ASSIGNMENT_DELETION_QUEUE, message(List.of()));
+
+        // Assert
+        assertEquals("assignment.deletion.queue.retry.1", routingKey);
+    }
+
+    @Test
+    void retryRoutingKey_shouldMoveUpOneTier_perExpiredRetry() {
+        // Arrange
+        Message message = message(List.of(
+                Map.of("queue", "assignment.deletion.queue.retry.1", "reason", "expired", "count", 1L),
+                Map.of("queue", "assignment.deletion.queue", "reason", "rejected", "count", 1L),
+                Map.of("queue", "journal.deletion.queue.retry.1", "reason", "expired", "count", 5L)));
+
+        // Act
+        String routingKey = RabbitMQConfig.retryRoutingKey(ASSIGNMENT_DELETION_QUEUE, message);
+
+        // Assert
+        assertEquals("assignment.deletion.queue.retry.2", routingKey);
+    }
+
+    @Test
+    void retryRoutingKey_shouldReturnNull_onceEveryTierHasBeenUsed() {
+        // Arrange
+        Message message = message(List.of(
+                Map.of("queue", "assignment.deletion.queue.retry.3", "reason", "expired", "count", 1L),
+                Map.of("queue", "assignment.deletion.queue.retry.2", "reason", "expired", "count", 1L),
+                Map.of("queue", "assignment.deletion.queue.retry.1", "reason", "expired", "count", 2L)));
+
+        // Act & Assert
+        assertNull(RabbitMQConfig.retryRoutingKey(ASSIGNMENT_DELETION_QUEUE, message));
+    }
+
+    private Message message(List<Map<String, ?>> deaths) {
+        MessageProperties properties = new MessageProperties();
+        if (!deaths.isEmpty()) {
+            properties.setHeader("x-death", deaths);
+        }
+        return new Message(new byte[0], properties);
+    }
+}
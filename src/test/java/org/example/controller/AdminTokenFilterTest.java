@@ -0,0 +1,57 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminTokenFilterTest {
+
+    private final AdminTokenFilter filter = new AdminTokenFilter("secret");
+
+    @Test
+    void shouldRefuseEveryProtectedPath_withoutToken() throws Exception {
+        for (String path : AdminTokenFilter.PROTECTED_PATHS) {
+            // Arrange
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/" + path + "/anything");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            // Act
+            filter.doFilter(request, response, chain);
+
+            // Assert
+            assertEquals(403, response.getStatus(), path);
+            assertNull(chain.getRequest(), path);
+        }
+    }
+
+    @Test
+    void shouldPass_withToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/admin/deletion-events/parked/user.deletion.queue/replay");
+        request.addHeader("Authorization", "Bearer secret");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldIgnoreUserApi() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/therapists"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+}
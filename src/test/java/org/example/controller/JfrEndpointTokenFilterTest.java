@@ -0,0 +1,72 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEndpointTokenFilterTest {
+
+    private final JfrEndpointTokenFilter filter = new JfrEndpointTokenFilter("secret", "/actuator");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/actuator/jfr", "//actuator/jfr", "/actuator//jfr", "/actuator/%6Afr", "/actuator/jfr;x=1"})
+    void shouldRefuse_withoutToken_howeverThePathIsSpelled(String uri) throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(403, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldPass_withToken() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/jfr");
+        request.addHeader("Authorization", "Bearer secret");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void shouldRefuseEveryone_whenNoTokenIsConfigured() throws Exception {
+        // Arrange
+        JfrEndpointTokenFilter unconfigured = new JfrEndpointTokenFilter("", "/actuator");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/jfr");
+        request.addHeader("Authorization", "Bearer ");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        unconfigured.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void shouldIgnoreOtherPaths() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+}
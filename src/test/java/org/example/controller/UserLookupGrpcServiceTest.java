@@ -0,0 +1,178 @@
+package org.example.controller;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import org.example.business.GetAllTherapists;
+import org.example.business.ResolveUsers;
+import org.example.domain.User;
+import org.example.grpc.proto.BatchGetUsersRequest;
+import org.example.grpc.proto.BatchGetUsersResponse;
+import org.example.grpc.proto.GetUserRequest;
+import org.example.grpc.proto.StreamTherapistsRequest;
+import org.example.grpc.proto.UserLookupGrpc;
+import org.example.grpc.proto.UserProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupGrpcServiceTest {
+
+    @Mock
+    private GetAllTherapists getAllTherapists;
+
+    @Mock
+    private ResolveUsers resolveUsers;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UserLookupGrpc.UserLookupBlockingStub stub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(new UserLookupGrpcService(getAllTherapists, resolveUsers))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        stub = UserLookupGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void getUser_shouldReturnProfile() {
+        // Arrange
+        when(resolveUsers.resolveUsers(List.of("kc-1"), true)).thenReturn(List.of(user("kc-1")));
+
+        // Act
+        UserProfile profile = stub.getUser(GetUserRequest.newBuilder()
+                .setKeycloakId("kc-1")
+                .setIncludeRoles(true)
+                .build());
+
+        // Assert
+        assertEquals(1L, profile.getId());
+        assertEquals("kc-1", profile.getKeycloakId());
+        assertEquals("Jane", profile.getFirstName());
+        assertEquals("", profile.getEmail());
+        assertEquals(List.of("client_therapist"), profile.getRolesList());
+        assertTrue(profile.hasCreatedAt());
+    }
+
+    @Test
+    void getUser_shouldReturnNotFound_whenUnknown() {
+        // Arrange
+        when(resolveUsers.resolveUsers(List.of("missing"), false)).thenReturn(List.of());
+        GetUserRequest request = GetUserRequest.newBuilder().setKeycloakId("missing").build();
+
+        // Act
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.getUser(request));
+
+        // Assert
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void getUser_shouldRejectEmptyKeycloakId() {
+        // Act
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getUser(GetUserRequest.getDefaultInstance()));
+
+        // Assert
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        verifyNoInteractions(resolveUsers);
+    }
+
+    @Test
+    void batchGetUsers_shouldReturnResolvedUsers() {
+        // Arrange
+        when(resolveUsers.resolveUsers(List.of("kc-1", "kc-2"), false))
+                .thenReturn(List.of(user("kc-1"), user("kc-2")));
+
+        // Act
+        BatchGetUsersResponse response = stub.batchGetUsers(BatchGetUsersRequest.newBuilder()
+                .addKeycloakIds("kc-1")
+                .addKeycloakIds("kc-2")
+                .build());
+
+        // Assert
+        assertEquals(2, response.getUsersCount());
+        assertEquals("kc-2", response.getUsers(1).getKeycloakId());
+    }
+
+    @Test
+    void batchGetUsers_shouldReturnInvalidArgument_whenBatchTooLarge() {
+        // Arrange
+        when(resolveUsers.resolveUsers(anyList(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Batch size 5001 exceeds the maximum of 5000"));
+        BatchGetUsersRequest request = BatchGetUsersRequest.newBuilder().addKeycloakIds("kc-1").build();
+
+        // Act
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> stub.batchGetUsers(request));
+
+        // Assert
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+
+    @Test
+    void streamTherapists_shouldSendOneMessagePerTherapist() {
+        // Arrange
+        when(getAllTherapists.getAllTherapists()).thenReturn(List.of(user("kc-1"), user("kc-2"), user("kc-3")));
+
+        // Act
+        List<String> keycloakIds = new ArrayList<>();
+        Iterator<UserProfile> profiles = stub.streamTherapists(StreamTherapistsRequest.getDefaultInstance());
+        profiles.forEachRemaining(profile -> keycloakIds.add(profile.getKeycloakId()));
+
+        // Assert
+        assertEquals(List.of("kc-1", "kc-2", "kc-3"), keycloakIds);
+    }
+
+    @Test
+    void streamTherapists_shouldCompleteEmpty_whenNoTherapists() {
+        // Arrange
+        when(getAllTherapists.getAllTherapists()).thenReturn(List.of());
+
+        // Act
+        Iterator<UserProfile> profiles = stub.streamTherapists(StreamTherapistsRequest.getDefaultInstance());
+
+        // Assert
+        assertFalse(profiles.hasNext());
+    }
+
+    private User user(String keycloakId) {
+        return User.builder()
+                .id(1L)
+                .keycloakId(keycloakId)
+                .username(keycloakId)
+                .firstName("Jane")
+                .lastName("Doe")
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 0))
+                .roles(Set.of("client_therapist"))
+                .build();
+    }
+}